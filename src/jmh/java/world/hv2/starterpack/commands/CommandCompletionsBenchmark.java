@@ -0,0 +1,64 @@
+package world.hv2.starterpack.commands;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.hv2.starterpack.util.NameIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code /starterpack} tab press, as {@code AsyncTabCompleteEvent} serves it: the
+ * subcommand word, and the player word after a targeted subcommand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandCompletionsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int onlinePlayers;
+
+    private CommandCompletions completions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        NameIndex<String> index = new NameIndex<>();
+        for (int i = 0; i < onlinePlayers; i++) {
+            String name = "Player" + Integer.toString(random.nextInt(1_000_000), 36);
+            index.add(name, name);
+        }
+        completions = new CommandCompletions(index);
+        completions.setWorldKeys(List.of("minecraft:overworld", "minecraft:the_nether", "minecraft:the_end"));
+    }
+
+    @Benchmark
+    public List<String> subcommand() {
+        return completions.complete(true, new String[] {"re"});
+    }
+
+    @Benchmark
+    public List<String> playerAfterGive() {
+        return completions.complete(true, new String[] {"give", "player1"});
+    }
+
+    @Benchmark
+    public List<String> worldAfterGive() {
+        return completions.complete(true, new String[] {"give", "@world", "the"});
+    }
+}
@@ -0,0 +1,97 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A first-join grant end to end against stub players and inventories: the kit's items,
+ * the equipment plan, the received marker, the welcome message, and the broadcast to
+ * everyone online. Also the equipment checks the join and {@code equip} paths make.
+ *
+ * <p>The stubs answer in a few nanoseconds and allocate nothing, so the numbers are the
+ * plugin's own cost, not the server's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrantBenchmark {
+
+    /** Who the broadcast goes to. */
+    @Param({"10", "100", "1000"})
+    public int onlinePlayers;
+
+    private StarterPackManager manager;
+    private FakePlayer newcomer;
+    private Player armored;
+    private Material[] materials;
+    private int nextMaterial;
+
+    @Setup
+    public void setUp() {
+        FakeServer server = new FakeServer();
+        StarterPackPlugin plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of());
+        manager = plugin.getStarterPackManager();
+
+        for (int i = 0; i < onlinePlayers - 1; i++) {
+            server.connect("Player" + i);
+        }
+        newcomer = server.connect("Newcomer");
+
+        FakePlayer veteran = server.connect("Veteran");
+        veteran.asPlayer().getInventory().setArmorContents(new ItemStack[] {
+            null, null, FakeItem.stack(Material.IRON_CHESTPLATE, 1), null});
+        armored = veteran.asPlayer();
+
+        materials = Material.values();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetNewcomer() {
+        newcomer.inventoryState().reset();
+        newcomer.dataState().reset();
+        manager.resetPlayerStarterPack(newcomer.asPlayer());
+    }
+
+    @Benchmark
+    public boolean grantWithEquipment() {
+        return manager.giveStarterPackWithEquipment(newcomer.asPlayer(), true);
+    }
+
+    @Benchmark
+    public boolean hasAnyEquipment() {
+        return manager.hasAnyEquipment(armored);
+    }
+
+    @Benchmark
+    public boolean isWeaponOrTool() {
+        Material material = materials[nextMaterial];
+        nextMaterial = (nextMaterial + 1) % materials.length;
+        return StarterPackManager.isWeaponOrTool(material);
+    }
+}
@@ -0,0 +1,89 @@
+package world.hv2.starterpack.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab completion of a player name at a realistic event-server population: the
+ * {@link NameIndex} range query against the per-keystroke sweep it replaced.
+ *
+ * <p>Roughly one name in ten is Floodgate-prefixed, so the alias keys are part of the
+ * measured index rather than an empty corner of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameIndexBenchmark {
+
+    @Param({"1000"})
+    public int onlinePlayers;
+
+    /** What the operator has typed so far: one, two, and three characters. */
+    @Param({"s", "st", "ste"})
+    public String typed;
+
+    private NameIndex<String> index;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new NameIndex<>();
+        names = new ArrayList<>(onlinePlayers);
+        for (int i = 0; i < onlinePlayers; i++) {
+            String name = randomName(random);
+            names.add(name);
+            index.add(name, name);
+        }
+    }
+
+    @Benchmark
+    public List<String> indexRangeQuery() {
+        List<String> completions = new ArrayList<>();
+        index.complete(typed, completions);
+        return completions;
+    }
+
+    /** The per-keystroke loop tab completion ran before the index existed. */
+    @Benchmark
+    public List<String> linearSweep() {
+        List<String> completions = new ArrayList<>();
+        String input = typed.toLowerCase();
+        for (String name : names) {
+            if (name.toLowerCase().startsWith(input)) {
+                completions.add(name);
+            }
+        }
+        return completions;
+    }
+
+    static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        if (random.nextInt(10) == 0) {
+            name.append(PlayerLookup.FLOODGATE_PREFIX);
+        }
+        int length = 3 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(26));
+            name.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return name.toString();
+    }
+}
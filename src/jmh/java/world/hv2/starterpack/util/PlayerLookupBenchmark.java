@@ -0,0 +1,78 @@
+package world.hv2.starterpack.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lookups behind {@code give}, {@code equip}, {@code force} and {@code reset} at a small,
+ * medium and event-sized server: an exact name, a Bedrock name typed without its
+ * Floodgate prefix, a partial name, and a miss that builds the "did you mean" message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int onlinePlayers;
+
+    private NameIndex<String> index;
+    private String exactName;
+    private String unprefixedName;
+    private String partialName;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new NameIndex<>();
+        for (int i = 0; i < onlinePlayers; i++) {
+            String name = NameIndexBenchmark.randomName(random);
+            index.add(name, name);
+        }
+
+        // Fixed targets, so every population size looks up the same names
+        exactName = "Steve_Target";
+        index.add(exactName, exactName);
+        index.add(PlayerLookup.FLOODGATE_PREFIX + "BedrockTarget", "BedrockTarget");
+        unprefixedName = "bedrocktarget";
+        partialName = "steve_t";
+    }
+
+    @Benchmark
+    public Optional<String> resolveExact() {
+        return PlayerLookup.resolve(index, exactName);
+    }
+
+    @Benchmark
+    public Optional<String> resolveFloodgateAlias() {
+        return PlayerLookup.resolve(index, unprefixedName);
+    }
+
+    @Benchmark
+    public Optional<String> resolveAllowingPartial() {
+        return PlayerLookup.resolveAllowingPartial(index, partialName);
+    }
+
+    @Benchmark
+    public String resolveMissWithSuggestions() {
+        return PlayerLookup.resolve(index, "nobody_here").isPresent()
+            ? null
+            : PlayerLookup.noSuchPlayerMessage(index, "nobody_here");
+    }
+}
@@ -4,15 +4,40 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
-import org.bukkit.command.Command;
-import org.bukkit.command.CommandSender;
-import org.bukkit.ChatColor;
+import org.bukkit.plugin.ServicePriority;
+import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 
+import world.hv2.starterpack.listeners.AltFilterListener;
+import world.hv2.starterpack.listeners.BroadcastPreferenceListener;
+import world.hv2.starterpack.listeners.KitPreviewListener;
+import world.hv2.starterpack.listeners.MilestoneListener;
+import world.hv2.starterpack.listeners.OnboardingListener;
+import world.hv2.starterpack.listeners.PermissionCacheListener;
+import world.hv2.starterpack.listeners.PlayerIndexListener;
 import world.hv2.starterpack.listeners.PlayerJoinListener;
+import world.hv2.starterpack.listeners.RespawnKitListener;
+import world.hv2.starterpack.listeners.TabCompleteListener;
+import world.hv2.starterpack.managers.AltFilterManager;
 import world.hv2.starterpack.managers.ConfigManager;
+import world.hv2.starterpack.managers.GrantLedger;
+import world.hv2.starterpack.managers.KitManager;
+import world.hv2.starterpack.managers.MailboxManager;
+import world.hv2.starterpack.managers.MessageManager;
+import world.hv2.starterpack.managers.PermissionCache;
+import world.hv2.starterpack.managers.PreviewManager;
+import world.hv2.starterpack.managers.RespawnKitManager;
 import world.hv2.starterpack.managers.StarterPackManager;
+import world.hv2.starterpack.commands.CommandCompletions;
 import world.hv2.starterpack.commands.StarterPackCommand;
+import world.hv2.starterpack.api.StarterPackApi;
+import world.hv2.starterpack.tasks.GrantQueue;
+import world.hv2.starterpack.tasks.MilestoneSampler;
+import world.hv2.starterpack.tasks.OnboardingDrip;
+import world.hv2.starterpack.tasks.PlayerDataScanner;
+import world.hv2.starterpack.util.NameIndex;
 
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -27,7 +52,21 @@ public class StarterPackPlugin extends JavaPlugin {
     
     private static StarterPackPlugin instance;
     private ConfigManager configManager;
+    private KitManager kitManager;
+    private MessageManager messageManager;
     private StarterPackManager starterPackManager;
+    private RespawnKitManager respawnKitManager;
+    private MilestoneSampler milestoneSampler;
+    private OnboardingDrip onboardingDrip;
+    private MailboxManager mailboxManager;
+    private AltFilterManager altFilterManager;
+    private PreviewManager previewManager;
+    private PermissionCache permissionCache;
+    private GrantLedger grantLedger;
+    private PlayerDataScanner playerDataScanner;
+    private GrantQueue grantQueue;
+    private final NameIndex<Player> playerIndex = new NameIndex<>();
+    private final CommandCompletions commandCompletions = new CommandCompletions(playerIndex);
     private Logger logger;
     
     @Override
@@ -37,11 +76,38 @@ public class StarterPackPlugin extends JavaPlugin {
         
         // Initialize managers
         configManager = new ConfigManager(this);
+        kitManager = new KitManager(this);
+        messageManager = new MessageManager(this);
         starterPackManager = new StarterPackManager(this);
+        respawnKitManager = new RespawnKitManager(this);
+        milestoneSampler = new MilestoneSampler(this);
+        onboardingDrip = new OnboardingDrip(this);
+        mailboxManager = new MailboxManager(this);
+        altFilterManager = new AltFilterManager(this);
+        previewManager = new PreviewManager(this);
+        permissionCache = new PermissionCache();
+        grantLedger = new GrantLedger(this);
+        playerDataScanner = new PlayerDataScanner(this);
         
         // Load configuration
         saveDefaultConfig();
         configManager.loadConfig();
+        kitManager.loadKits();
+        commandCompletions.setKitNames(kitManager.getKitNames());
+        messageManager.loadMessages();
+        respawnKitManager.loadCooldowns();
+        milestoneSampler.load();
+        onboardingDrip.load();
+        mailboxManager.load();
+        altFilterManager.load();
+        grantLedger.load();
+        
+        // Index players already online (e.g. after a reload)
+        for (Player player : getServer().getOnlinePlayers()) {
+            playerIndex.add(player.getName(), player);
+            permissionCache.track(player);
+            messageManager.loadBroadcastPreference(player);
+        }
         
         // Register event listeners
         registerEvents();
@@ -49,6 +115,17 @@ public class StarterPackPlugin extends JavaPlugin {
         // Register commands
         registerCommands();
         
+        // Sample play time every tick; idles when no milestones are configured
+        milestoneSampler.runTaskTimer(this, 1L, 1L);
+        
+        // Advance the onboarding timing wheel every tick
+        onboardingDrip.runTaskTimer(this, 1L, 1L);
+        
+        // Offer the grant API to other plugins
+        grantQueue = new GrantQueue(this);
+        grantQueue.runTaskTimer(this, 1L, 1L);
+        getServer().getServicesManager().register(StarterPackApi.class, grantQueue, this, ServicePriority.Normal);
+        
         // Log startup
         logger.info("StarterPack plugin enabled successfully!");
         logger.info("Version: " + getDescription().getVersion());
@@ -60,6 +137,29 @@ public class StarterPackPlugin extends JavaPlugin {
     
     @Override
     public void onDisable() {
+        if (grantQueue != null) {
+            getServer().getServicesManager().unregister(StarterPackApi.class, grantQueue);
+            grantQueue.failPending();
+        }
+        if (respawnKitManager != null) {
+            respawnKitManager.saveCooldowns();
+        }
+        if (onboardingDrip != null) {
+            onboardingDrip.suspendAll();
+        }
+        if (mailboxManager != null) {
+            mailboxManager.flush();
+        }
+        if (altFilterManager != null) {
+            altFilterManager.close();
+        }
+        if (playerDataScanner != null) {
+            playerDataScanner.stop();
+        }
+        if (grantLedger != null) {
+            grantLedger.close();
+        }
+        playerIndex.clear();
         logger.info("StarterPack plugin disabled.");
         instance = null;
     }
@@ -68,24 +168,28 @@ public class StarterPackPlugin extends JavaPlugin {
      * Register event listeners
      */
     private void registerEvents() {
+        getServer().getPluginManager().registerEvents(new PlayerIndexListener(this), this);
+        getServer().getPluginManager().registerEvents(new PermissionCacheListener(this), this);
+        getServer().getPluginManager().registerEvents(new AltFilterListener(altFilterManager), this);
+        getServer().getPluginManager().registerEvents(new BroadcastPreferenceListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new RespawnKitListener(this), this);
+        getServer().getPluginManager().registerEvents(new MilestoneListener(milestoneSampler), this);
+        getServer().getPluginManager().registerEvents(new OnboardingListener(onboardingDrip), this);
+        getServer().getPluginManager().registerEvents(new KitPreviewListener(), this);
+        
+        TabCompleteListener tabCompleteListener = new TabCompleteListener(this);
+        tabCompleteListener.refreshWorldKeys(null);
+        getServer().getPluginManager().registerEvents(tabCompleteListener, this);
     }
     
     /**
-     * Register commands
+     * Register commands through Paper's Brigadier lifecycle API
      */
     private void registerCommands() {
-        StarterPackCommand commandExecutor = new StarterPackCommand(this);
-        getCommand("starterpack").setExecutor(commandExecutor);
-        getCommand("starterpack").setTabCompleter(commandExecutor);
-    }
-    
-    @Override
-    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        if (command.getName().equalsIgnoreCase("starterpack")) {
-            return new StarterPackCommand(this).onCommand(sender, command, label, args);
-        }
-        return false;
+        StarterPackCommand command = new StarterPackCommand(this);
+        getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event ->
+            event.registrar().register(command.build(), "Starter pack management commands", List.of("sp", "starter")));
     }
     
     /**
@@ -94,6 +198,14 @@ public class StarterPackPlugin extends JavaPlugin {
     public void reloadPluginConfig() {
         reloadConfig();
         configManager.loadConfig();
+        kitManager.loadKits();
+        previewManager.invalidate();
+        permissionCache.invalidateAll();
+        commandCompletions.setKitNames(kitManager.getKitNames());
+        messageManager.loadMessages();
+        milestoneSampler.load();
+        onboardingDrip.load();
+        altFilterManager.load();
         logger.info("Configuration reloaded successfully!");
     }
     
@@ -106,30 +218,88 @@ public class StarterPackPlugin extends JavaPlugin {
         return configManager;
     }
     
+    public KitManager getKitManager() {
+        return kitManager;
+    }
+    
+    public MessageManager getMessageManager() {
+        return messageManager;
+    }
+    
     public StarterPackManager getStarterPackManager() {
         return starterPackManager;
     }
     
+    public RespawnKitManager getRespawnKitManager() {
+        return respawnKitManager;
+    }
+    
+    public MailboxManager getMailboxManager() {
+        return mailboxManager;
+    }
+    
+    public AltFilterManager getAltFilterManager() {
+        return altFilterManager;
+    }
+    
+    public GrantLedger getGrantLedger() {
+        return grantLedger;
+    }
+    
+    public PlayerDataScanner getPlayerDataScanner() {
+        return playerDataScanner;
+    }
+    
+    public PreviewManager getPreviewManager() {
+        return previewManager;
+    }
+    
+    public OnboardingDrip getOnboardingDrip() {
+        return onboardingDrip;
+    }
+    
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+    
     /**
-     * Send a formatted message to a player
+     * The grant API, also registered with the services manager
      */
-    public void sendMessage(Player player, String message) {
-        player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    public StarterPackApi getApi() {
+        return grantQueue;
+    }
+    
+    public NameIndex<Player> getPlayerIndex() {
+        return playerIndex;
+    }
+    
+    public CommandCompletions getCommandCompletions() {
+        return commandCompletions;
     }
     
     /**
-     * Broadcast a formatted message to all players
+     * Whether debug mode is enabled
      */
-    public void broadcastMessage(String message) {
-        getServer().broadcastMessage(ChatColor.translateAlternateColorCodes('&', message));
+    public boolean isDebugEnabled() {
+        return configManager.isDebugEnabled();
     }
     
     /**
      * Log debug messages if debug mode is enabled
      */
     public void debugLog(String message) {
-        if (configManager.isDebugEnabled()) {
+        if (isDebugEnabled()) {
             logger.info("[DEBUG] " + message);
         }
     }
+    
+    /**
+     * Log a debug message built only if debug mode is enabled, so messages that
+     * concatenate player names or counts cost nothing on hot paths when it is off
+     */
+    public void debugLog(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            logger.info("[DEBUG] " + message.get());
+        }
+    }
 }
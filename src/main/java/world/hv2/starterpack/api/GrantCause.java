@@ -0,0 +1,13 @@
+package world.hv2.starterpack.api;
+
+/**
+ * Why a starter pack is being given
+ */
+public enum GrantCause {
+    /** A player joined for the first time. */
+    FIRST_JOIN,
+    /** An admin ran {@code /starterpack give}, including packs queued for offline players. */
+    COMMAND,
+    /** Another plugin asked through {@link StarterPackApi}. */
+    API
+}
@@ -0,0 +1,27 @@
+package world.hv2.starterpack.api;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A request to give one online player the starter pack.
+ *
+ * @param player         the player to give it to
+ * @param equip          whether to equip the kit's armor and tools if the player has none
+ * @param ignoreReceived whether to give it even if the player already received one; the
+ *                       player is marked as having received it either way
+ */
+public record GrantRequest(UUID player, boolean equip, boolean ignoreReceived) {
+
+    public GrantRequest {
+        Objects.requireNonNull(player, "player");
+    }
+
+    /**
+     * A request that equips the kit and skips players who already have their starter pack,
+     * the same as a first join
+     */
+    public static GrantRequest of(UUID player) {
+        return new GrantRequest(player, true, false);
+    }
+}
@@ -0,0 +1,21 @@
+package world.hv2.starterpack.api;
+
+/**
+ * What became of a grant
+ */
+public enum GrantResult {
+    /** The player received the starter pack. */
+    GRANTED,
+    /** The player already had their starter pack and the request did not ask to ignore that. */
+    ALREADY_RECEIVED,
+    /** Starter packs are disabled in the config. */
+    DISABLED,
+    /** The player has {@code starterpack.bypass}. */
+    BYPASSED,
+    /** A listener cancelled the {@link StarterPackGrantEvent}. */
+    CANCELLED,
+    /** The player was not online when the request was processed. */
+    OFFLINE,
+    /** Giving the items failed, or the plugin was disabled before the request ran. */
+    FAILED
+}
@@ -0,0 +1,42 @@
+package world.hv2.starterpack.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Starter pack grants for other plugins, registered with Bukkit's services manager:
+ *
+ * <pre>{@code
+ * StarterPackApi api = Bukkit.getServicesManager().load(StarterPackApi.class);
+ * api.grant(GrantRequest.of(player.getUniqueId()))
+ *     .thenAccept(result -> ...);
+ * }</pre>
+ *
+ * <p>Requests may be submitted from any thread and never block the caller. They are
+ * processed on the main thread in submission order, {@code bulk.players-per-tick} per
+ * tick, and each grant fires a {@link StarterPackGrantEvent} with cause
+ * {@link GrantCause#API}. Futures complete on the main thread.
+ */
+public interface StarterPackApi {
+
+    /**
+     * Queue one grant
+     *
+     * @return the result once processed; {@link GrantResult#FAILED} if the plugin disables
+     *         first, or completed exceptionally with an {@link IllegalStateException} if it
+     *         already has
+     */
+    CompletableFuture<GrantResult> grant(GrantRequest request);
+
+    /**
+     * Queue a batch of grants
+     *
+     * @return the results in request order, once every request has been processed
+     */
+    CompletableFuture<List<GrantResult>> grantAll(List<GrantRequest> requests);
+
+    /**
+     * Number of requests waiting to be processed
+     */
+    int pendingGrants();
+}
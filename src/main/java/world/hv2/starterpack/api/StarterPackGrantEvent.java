@@ -0,0 +1,72 @@
+package world.hv2.starterpack.api;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Fired on the main thread just before a player is given their starter pack. Cancel it to
+ * stop the grant, or edit {@link #getItems()} to change what goes into the inventory. The
+ * items are the player's own copies, so they may be modified in place.
+ *
+ * <p>When {@code starter-pack.packaging} is set, the list holds the one bundle or shulker
+ * box the items were packed into rather than the items themselves.
+ *
+ * <p>Equipment is applied after the items and is not part of the list. A cancelled grant
+ * is not recorded, so a first-time player will be offered the pack again on their next
+ * join.
+ */
+public class StarterPackGrantEvent extends PlayerEvent implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final GrantCause cause;
+    private final List<ItemStack> items;
+    private boolean cancelled;
+
+    /**
+     * @param player the player receiving the pack
+     * @param cause  why the pack is being given
+     * @param items  the items to give; must be mutable
+     */
+    public StarterPackGrantEvent(Player player, GrantCause cause, List<ItemStack> items) {
+        super(player);
+        this.cause = cause;
+        this.items = items;
+    }
+
+    public GrantCause getCause() {
+        return cause;
+    }
+
+    /**
+     * The items about to be added to the player's inventory. Add, remove or replace
+     * entries to change the grant.
+     */
+    public List<ItemStack> getItems() {
+        return items;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
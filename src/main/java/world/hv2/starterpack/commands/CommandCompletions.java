@@ -0,0 +1,169 @@
+package world.hv2.starterpack.commands;
+
+import world.hv2.starterpack.util.NameIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tab completions for {@code /starterpack}, computed only from thread-safe state so they
+ * can be served from {@code AsyncTabCompleteEvent} without touching the main thread.
+ *
+ * <p>Player names come from the concurrent {@link NameIndex}; world keys and kit names from
+ * snapshots replaced wholesale on world load and unload and on config load. Nothing here reads live Bukkit state, which
+ * is what lets console, RCON and player tab presses cost no tick time. The Brigadier
+ * argument types use the same methods, so both paths offer identical suggestions.
+ */
+public final class CommandCompletions {
+
+    /** Subcommands every user may run. */
+    static final List<String> USER_SUBCOMMANDS = List.of("help", "version", "broadcasts", "preview");
+
+    /** Subcommands offered to {@code starterpack.admin}. */
+    static final List<String> ADMIN_SUBCOMMANDS = List.of("help", "version", "broadcasts", "preview", "reload", "give", "equip", "force", "reset", "stats", "export", "import", "backfill");
+
+    /** Subcommands that take a player, selector, world, or permission target. */
+    static final Set<String> TARGETED_SUBCOMMANDS = Set.of("give", "equip", "force", "reset");
+
+    private static final List<String> SELECTORS = List.of("@a", "@p", "@r", "@s");
+    /** Bulk target for every player in a world; the world follows as its own argument. */
+    static final String WORLD_TARGET = "@world";
+
+    /** Bulk target for every online player with a permission; the node follows. */
+    static final String PERM_TARGET = "@perm";
+
+    private static final List<String> BULK_LITERALS = List.of(WORLD_TARGET, PERM_TARGET);
+    private static final List<String> TOGGLES = List.of("on", "off");
+    private static final List<String> EXPORT_FORMATS = List.of("ndjson", "csv");
+
+    private final NameIndex<?> playerIndex;
+    private volatile List<String> worldKeys = List.of();
+    private volatile List<String> kitNames = List.of();
+
+    public CommandCompletions(NameIndex<?> playerIndex) {
+        this.playerIndex = playerIndex;
+    }
+
+    /**
+     * Replace the world-key snapshot, e.g. after a world loads or unloads.
+     *
+     * @param worldKeys every loaded world's namespaced key, such as {@code minecraft:overworld}
+     */
+    public void setWorldKeys(List<String> worldKeys) {
+        this.worldKeys = List.copyOf(worldKeys);
+    }
+
+    /**
+     * Replace the kit-name snapshot after kits load.
+     *
+     * @param kitNames the names {@code /starterpack preview} accepts
+     */
+    public void setKitNames(List<String> kitNames) {
+        this.kitNames = List.copyOf(kitNames);
+    }
+
+    /**
+     * Complete the last of {@code args}, the words typed after the command label.
+     *
+     * @param admin whether the sender has {@code starterpack.admin}
+     * @param args  the words after the label; the last one is the partial word
+     * @return matching completions for the last word
+     */
+    public List<String> complete(boolean admin, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 0) {
+            return completions;
+        }
+        String typed = args[args.length - 1].toLowerCase(Locale.ROOT);
+
+        if (args.length == 1) {
+            addMatching(admin ? ADMIN_SUBCOMMANDS : USER_SUBCOMMANDS, typed, completions);
+            return completions;
+        }
+
+        String subCommand = args[0].toLowerCase(Locale.ROOT);
+        if (subCommand.equals("broadcasts")) {
+            if (args.length == 2) {
+                addMatching(TOGGLES, typed, completions);
+            }
+            return completions;
+        }
+        if (subCommand.equals("preview")) {
+            if (args.length == 2) {
+                completeKits(typed, completions);
+            }
+            return completions;
+        }
+        if (!admin) {
+            return completions;
+        }
+
+        if (subCommand.equals("export")) {
+            if (args.length == 2) {
+                addMatching(EXPORT_FORMATS, typed, completions);
+            }
+            return completions;
+        }
+        if (!TARGETED_SUBCOMMANDS.contains(subCommand)) {
+            return completions;
+        }
+        if (args.length == 2) {
+            if (subCommand.equals("reset") && "all".startsWith(typed)) {
+                completions.add("all");
+            }
+            addMatching(BULK_LITERALS, typed, completions);
+            completePlayers(typed, completions);
+        } else if (args.length == 3 && args[1].equalsIgnoreCase(WORLD_TARGET)) {
+            completeWorlds(typed, completions);
+        }
+        return completions;
+    }
+
+    /**
+     * Selectors and online player names matching {@code typed}.
+     *
+     * @param typed the partial player argument
+     * @param out   where matches are added
+     */
+    public void completePlayers(String typed, Collection<String> out) {
+        String lower = typed.toLowerCase(Locale.ROOT);
+        addMatching(SELECTORS, lower, out);
+        playerIndex.complete(lower, out);
+    }
+
+    /**
+     * World keys matching {@code typed}, with or without the {@code minecraft:} namespace.
+     *
+     * @param typed the partial world argument
+     * @param out   where matches are added
+     */
+    public void completeWorlds(String typed, Collection<String> out) {
+        String lower = typed.toLowerCase(Locale.ROOT);
+        for (String key : worldKeys) {
+            if (key.startsWith(lower) || key.startsWith(lower, key.indexOf(':') + 1)) {
+                out.add(key);
+            }
+        }
+    }
+
+    /**
+     * Kit names matching {@code typed}.
+     *
+     * @param typed the partial kit argument
+     * @param out   where matches are added
+     */
+    public void completeKits(String typed, Collection<String> out) {
+        addMatching(kitNames, typed.toLowerCase(Locale.ROOT), out);
+    }
+
+    private static void addMatching(List<String> options, String typed, Collection<String> out) {
+        for (String option : options) {
+            if (option.startsWith(typed)) {
+                out.add(option);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package world.hv2.starterpack.commands;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+import io.papermc.paper.command.brigadier.argument.resolvers.selector.PlayerSelectorArgumentResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player argument that accepts everything vanilla's player selector does -- names,
+ * UUIDs, {@code @a}, {@code @r}, {@code @a[...]} -- but keeps the raw text, so a plain
+ * name can still be resolved through {@link world.hv2.starterpack.util.PlayerLookup}.
+ *
+ * <p>Vanilla resolves a name by exact match only, which would undo the Floodgate and
+ * partial-name handling the plugin's lookups exist for. The client still validates the
+ * argument as a native player selector, and suggestions come from
+ * {@link CommandCompletions}, the same source async tab completion uses.
+ */
+public final class PlayerTargetArgument implements CustomArgumentType<PlayerTargetArgument.Target, PlayerSelectorArgumentResolver> {
+
+    private final CommandCompletions completions;
+
+    public PlayerTargetArgument(CommandCompletions completions) {
+        this.completions = completions;
+    }
+
+    /**
+     * A parsed player argument.
+     *
+     * @param raw      the text as typed
+     * @param resolver vanilla's resolver for it
+     */
+    public record Target(String raw, PlayerSelectorArgumentResolver resolver) {
+
+        /** Whether the argument is an {@code @} selector rather than a single name. */
+        public boolean isSelector() {
+            return raw.startsWith("@");
+        }
+    }
+
+    @Override
+    public Target parse(StringReader reader) throws CommandSyntaxException {
+        int start = reader.getCursor();
+        PlayerSelectorArgumentResolver resolver = getNativeType().parse(reader);
+        return new Target(reader.getString().substring(start, reader.getCursor()), resolver);
+    }
+
+    @Override
+    public <S> Target parse(StringReader reader, S source) throws CommandSyntaxException {
+        // Parse with the source so vanilla's selector permission check still applies
+        int start = reader.getCursor();
+        PlayerSelectorArgumentResolver resolver = getNativeType().parse(reader, source);
+        return new Target(reader.getString().substring(start, reader.getCursor()), resolver);
+    }
+
+    @Override
+    public ArgumentType<PlayerSelectorArgumentResolver> getNativeType() {
+        return ArgumentTypes.players();
+    }
+
+    @Override
+    public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        List<String> names = new ArrayList<>();
+        completions.completePlayers(builder.getRemainingLowerCase(), names);
+        for (String name : names) {
+            builder.suggest(name);
+        }
+        return builder.buildFuture();
+    }
+}
@@ -1,73 +1,269 @@
 package world.hv2.starterpack.commands;
 
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import io.papermc.paper.command.brigadier.Commands;
+import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.Bukkit;
-import org.bukkit.command.Command;
-import org.bukkit.command.CommandExecutor;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
-import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.KitManager;
+import world.hv2.starterpack.managers.PermissionCache;
+import world.hv2.starterpack.tasks.BatchedPlayerTask;
+import world.hv2.starterpack.tasks.PlayerDataScanner;
+import world.hv2.starterpack.util.GrantRecordFormat;
 import world.hv2.starterpack.util.PlayerLookup;
 
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * Handles all StarterPack commands
+ *
+ * <p>The command is a Brigadier tree registered through Paper's lifecycle API: subcommands
+ * are literal nodes, targets are typed argument nodes, and the server's dispatcher does
+ * the parsing, permission filtering, and suggestions.
  */
-public class StarterPackCommand implements CommandExecutor, TabCompleter {
-    
+public class StarterPackCommand {
+
     private final StarterPackPlugin plugin;
-    
+
     public StarterPackCommand(StarterPackPlugin plugin) {
         this.plugin = plugin;
     }
-    
-    @Override
-    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        if (args.length == 0) {
-            sendHelpMessage(sender);
-            return true;
+
+    /**
+     * Build the /starterpack command tree
+     */
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("starterpack")
+            .requires(source -> has(source.getSender(), PermissionCache.Node.USE))
+            .executes(ctx -> {
+                sendHelpMessage(ctx.getSource().getSender());
+                return Command.SINGLE_SUCCESS;
+            })
+            .then(Commands.literal("help")
+                .executes(ctx -> {
+                    sendHelpMessage(ctx.getSource().getSender());
+                    return Command.SINGLE_SUCCESS;
+                }))
+            .then(Commands.literal("version")
+                .executes(ctx -> handleVersion(ctx.getSource().getSender())))
+            .then(Commands.literal("broadcasts")
+                .then(Commands.literal("on")
+                    .executes(ctx -> handleBroadcasts(ctx.getSource().getSender(), false)))
+                .then(Commands.literal("off")
+                    .executes(ctx -> handleBroadcasts(ctx.getSource().getSender(), true))))
+            .then(Commands.literal("preview")
+                .executes(ctx -> handlePreview(ctx.getSource().getSender(), KitManager.STARTER_KIT))
+                .then(Commands.argument("kit", StringArgumentType.word())
+                    .suggests((ctx, builder) -> {
+                        List<String> names = new ArrayList<>();
+                        plugin.getCommandCompletions().completeKits(builder.getRemainingLowerCase(), names);
+                        names.forEach(builder::suggest);
+                        return builder.buildFuture();
+                    })
+                    .executes(ctx -> handlePreview(ctx.getSource().getSender(),
+                        StringArgumentType.getString(ctx, "kit").toLowerCase(Locale.ROOT)))))
+            .then(Commands.literal("reload")
+                .requires(source -> isAdmin(source.getSender()))
+                .executes(ctx -> handleReload(ctx.getSource().getSender())))
+            .then(Commands.literal("stats")
+                .requires(source -> isAdmin(source.getSender()))
+                .executes(ctx -> handleStats(ctx.getSource().getSender())))
+            .then(Commands.literal("export")
+                .requires(source -> isAdmin(source.getSender()))
+                .executes(ctx -> handleExport(ctx.getSource().getSender(), GrantRecordFormat.NDJSON.getExtension()))
+                .then(Commands.argument("format", StringArgumentType.word())
+                    .suggests((ctx, builder) -> {
+                        for (GrantRecordFormat format : GrantRecordFormat.values()) {
+                            if (format.getExtension().startsWith(builder.getRemainingLowerCase())) {
+                                builder.suggest(format.getExtension());
+                            }
+                        }
+                        return builder.buildFuture();
+                    })
+                    .executes(ctx -> handleExport(ctx.getSource().getSender(), StringArgumentType.getString(ctx, "format")))))
+            .then(Commands.literal("import")
+                .requires(source -> isAdmin(source.getSender()))
+                .then(Commands.argument("file", StringArgumentType.word())
+                    .executes(ctx -> {
+                        plugin.getGrantLedger().importFile(ctx.getSource().getSender(), StringArgumentType.getString(ctx, "file"));
+                        return Command.SINGLE_SUCCESS;
+                    })))
+            .then(Commands.literal("backfill")
+                .requires(source -> isAdmin(source.getSender()))
+                .executes(ctx -> handleBackfill(ctx.getSource().getSender())))
+            .then(targeted("give", "give starter pack", this::giveOne, this::giveOffline, this::giveAction))
+            .then(targeted("equip", "equip starter items", this::equipOne, null, this::equipAction))
+            .then(targeted("force", "force equip starter items", this::forceOne, null, this::forceAction))
+            .then(targeted("reset", "reset starter pack status", this::resetOne, null, this::resetAction)
+                // Literal nodes win over the player argument, so a player named "all" cannot capture this
+                .then(Commands.literal("all")
+                    .executes(ctx -> handleResetAll(ctx.getSource().getSender()))))
+            .build();
+    }
+
+    /**
+     * Build an admin subcommand that acts on one player, a selector, {@code @world <world>},
+     * or {@code @perm <node>}.
+     * {@code offline}, if not null, handles a name or UUID that matches no online player.
+     */
+    private LiteralArgumentBuilder<CommandSourceStack> targeted(String name, String description,
+                                                                BiConsumer<CommandSender, Player> single,
+                                                                BiPredicate<CommandSender, String> offline,
+                                                                Function<CommandSender, BatchedPlayerTask.Action> bulk) {
+        return Commands.literal(name)
+            .requires(source -> isAdmin(source.getSender()))
+            .then(Commands.argument("player", new PlayerTargetArgument(plugin.getCommandCompletions()))
+                .executes(ctx -> runOnPlayer(ctx, description, single, offline, bulk)))
+            // Bulk targets start with @ like vanilla selectors, so no player name can shadow them
+            .then(Commands.literal(CommandCompletions.WORLD_TARGET)
+                .then(Commands.argument("world", ArgumentTypes.world())
+                    .suggests((ctx, builder) -> {
+                        List<String> keys = new ArrayList<>();
+                        plugin.getCommandCompletions().completeWorlds(builder.getRemainingLowerCase(), keys);
+                        keys.forEach(builder::suggest);
+                        return builder.buildFuture();
+                    })
+                    .executes(ctx -> {
+                        World world = ctx.getArgument("world", World.class);
+                        CommandSender sender = ctx.getSource().getSender();
+                        return startBulk(sender, "players in world '" + world.getName() + "'",
+                            uuidsOf(world.getPlayers()), description, bulk.apply(sender));
+                    })))
+            .then(Commands.literal(CommandCompletions.PERM_TARGET)
+                .then(Commands.argument("node", StringArgumentType.word())
+                    .executes(ctx -> {
+                        String node = StringArgumentType.getString(ctx, "node");
+                        CommandSender sender = ctx.getSource().getSender();
+                        return startBulk(sender, "players with permission '" + node + "'",
+                            withPermission(node), description, bulk.apply(sender));
+                    })));
+    }
+
+    /**
+     * Run a targeted subcommand on the player argument: selectors go through a batched
+     * task, names through the Floodgate-aware lookup, and names nobody online matches
+     * through the offline handler when there is one
+     */
+    private int runOnPlayer(CommandContext<CommandSourceStack> ctx, String description,
+                            BiConsumer<CommandSender, Player> single,
+                            BiPredicate<CommandSender, String> offline,
+                            Function<CommandSender, BatchedPlayerTask.Action> bulk) throws CommandSyntaxException {
+        CommandSender sender = ctx.getSource().getSender();
+        PlayerTargetArgument.Target target = ctx.getArgument("player", PlayerTargetArgument.Target.class);
+
+        if (target.isSelector()) {
+            List<Player> players = target.resolver().resolve(ctx.getSource());
+            return startBulk(sender, "players matching " + target.raw(), uuidsOf(players), description, bulk.apply(sender));
         }
-        
-        String subCommand = args[0].toLowerCase();
-        
-        switch (subCommand) {
-            case "reload":
-                return handleReload(sender);
-            case "give":
-                return handleGive(sender, args);
-            case "equip":
-                return handleEquip(sender, args);
-            case "force":
-                return handleForce(sender, args);
-            case "reset":
-                return handleReset(sender, args);
-            case "stats":
-                return handleStats(sender);
-            case "version":
-                return handleVersion(sender);
-            case "help":
-                sendHelpMessage(sender);
-                return true;
-            default:
-                sender.sendMessage(Component.text("Unknown command. Use /starterpack help for available commands.", NamedTextColor.RED));
-                return true;
+
+        Player player = PlayerLookup.resolveAllowingPartial(plugin.getPlayerIndex(), target.raw()).orElse(null);
+        if (player == null && offline != null && offline.test(sender, target.raw())) {
+            return Command.SINGLE_SUCCESS;
+        }
+        if (player == null) {
+            sender.sendMessage(Component.text(PlayerLookup.noSuchPlayerMessage(plugin.getPlayerIndex(), target.raw()), NamedTextColor.RED));
+            return 0;
         }
+
+        single.accept(sender, player);
+        return Command.SINGLE_SUCCESS;
     }
-     /**
-     * Handle reload command
+
+    /**
+     * Handle broadcasts on|off: mute or unmute starter pack broadcasts for the sender
+     */
+    private int handleBroadcasts(CommandSender sender, boolean mute) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(Component.text("Only players can change their broadcast setting.", NamedTextColor.RED));
+            return 0;
+        }
+        if (!plugin.getConfigManager().isBroadcastOptOutAllowed()) {
+            sender.sendMessage(Component.text("Muting starter pack broadcasts is disabled on this server.", NamedTextColor.RED));
+            return 0;
+        }
+
+        plugin.getMessageManager().setBroadcastsMuted(player, mute);
+        if (mute) {
+            sender.sendMessage(Component.text("You will no longer see starter pack broadcasts.", NamedTextColor.YELLOW));
+        } else {
+            sender.sendMessage(Component.text("You will see starter pack broadcasts again.", NamedTextColor.GREEN));
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handle preview [kit]: open a read-only view of a kit
+     */
+    private int handlePreview(CommandSender sender, String kitName) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(Component.text("Only players can preview kits.", NamedTextColor.RED));
+            return 0;
+        }
+        if (!plugin.getKitManager().getKitNames().contains(kitName)
+                || !plugin.getPreviewManager().open(player, kitName)) {
+            sender.sendMessage(Component.text("Unknown kit: " + kitName, NamedTextColor.RED));
+            return 0;
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handle export [ndjson|csv]: write every grant record to a file in the background
      */
-    private boolean handleReload(CommandSender sender) {
-        if (!sender.hasPermission("starterpack.admin")) {
-            sender.sendMessage(Component.text("You don't have permission to reload the configuration.", NamedTextColor.RED));
-            return true;
+    private int handleExport(CommandSender sender, String formatName) {
+        GrantRecordFormat format = GrantRecordFormat.parse(formatName);
+        if (format == null) {
+            sender.sendMessage(Component.text("Unknown export format: " + formatName + ". Use ndjson or csv.", NamedTextColor.RED));
+            return 0;
         }
+        plugin.getGrantLedger().export(sender, format);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handle backfill: mark players who had a kit before, from the main world's player data
+     */
+    private int handleBackfill(CommandSender sender) {
+        Set<String> receivedKeys = plugin.getConfigManager().getBackfillReceivedKeys();
+        if (receivedKeys.isEmpty()) {
+            // Counting every veteran is too sweeping to be a default
+            sender.sendMessage(Component.text("Set backfill.received-keys in config.yml first: the keys another kit "
+                + "plugin marks players with, or \"" + PlayerDataScanner.ALL_PLAYERS + "\" to count everyone who has played.",
+                NamedTextColor.RED));
+            return 0;
+        }
+        File playerData = new File(plugin.getServer().getWorlds().get(0).getWorldFolder(), "playerdata");
+        if (!plugin.getPlayerDataScanner().start(sender, playerData, receivedKeys)) {
+            sender.sendMessage(Component.text("A backfill is already running.", NamedTextColor.RED));
+            return 0;
+        }
+        return Command.SINGLE_SUCCESS;
+    }
 
+    /**
+     * Handle reload command
+     */
+    private int handleReload(CommandSender sender) {
         try {
             plugin.reloadPluginConfig();
             sender.sendMessage(Component.text("Configuration reloaded successfully!", NamedTextColor.GREEN));
@@ -76,108 +272,119 @@ public class StarterPackCommand implements CommandExecutor, TabCompleter {
             plugin.getLogger().severe("Error reloading config: " + e.getMessage());
         }
 
-        return true;
+        return Command.SINGLE_SUCCESS;
     }
-    
+
     /**
-     * Handle give command
+     * Give the starter pack to one player
      */
-    private boolean handleGive(CommandSender sender, String[] args) {
-        if (!sender.hasPermission("starterpack.admin")) {
-            sender.sendMessage(Component.text("You don't have permission to give starter packs.", NamedTextColor.RED));
-            return true;
-        }
-        
-        if (args.length < 2) {
-            sender.sendMessage(Component.text("Usage: /starterpack give <player>", NamedTextColor.RED));
-            return true;
-        }
-        
-        String playerName = args[1];
-        Player target = PlayerLookup.resolveAllowingPartial(playerName).orElse(null);
-        
-        if (target == null) {
-            sender.sendMessage(Component.text(PlayerLookup.noSuchPlayerMessage(playerName, PlayerLookup.onlineNames()), NamedTextColor.RED));
-            return true;
-        }
-        
+    private void giveOne(CommandSender sender, Player target) {
         boolean success = plugin.getStarterPackManager().forceGiveStarterPack(target);
-        
+
         if (success) {
             sender.sendMessage(Component.text("Successfully gave starter pack to " + target.getName() + "!", NamedTextColor.GREEN));
             target.sendMessage(Component.text("You have been given a starter pack by " + sender.getName() + "!", NamedTextColor.GREEN));
         } else {
             sender.sendMessage(Component.text("Failed to give starter pack to " + target.getName() + ".", NamedTextColor.RED));
         }
-        
-        return true;
     }
-    
+
     /**
-     * Handle equip command
+     * Queue the starter pack for a player who is offline, by name or UUID. The pack is
+     * given on their next join.
+     *
+     * @return false if the text names no known player
      */
-    private boolean handleEquip(CommandSender sender, String[] args) {
-        if (!sender.hasPermission("starterpack.admin")) {
-            sender.sendMessage(Component.text("You don't have permission to equip starter packs.", NamedTextColor.RED));
-            return true;
+    boolean giveOffline(CommandSender sender, String nameOrId) {
+        UUID id = parseUuid(nameOrId);
+        String label = nameOrId;
+        if (id != null) {
+            // The name lookup cannot match a UUID, so the player may be online after all
+            Player online = plugin.getServer().getPlayer(id);
+            if (online != null) {
+                giveOne(sender, online);
+                return true;
+            }
+        } else {
+            // Only players who have joined before are cached; a name lookup never blocks
+            OfflinePlayer known = plugin.getServer().getOfflinePlayerIfCached(nameOrId);
+            if (known == null) {
+                return false;
+            }
+            id = known.getUniqueId();
+            label = known.getName() != null ? known.getName() : nameOrId;
         }
-        
-        if (args.length < 2) {
-            sender.sendMessage(Component.text("Usage: /starterpack equip <player>", NamedTextColor.RED));
-            return true;
+
+        if (plugin.getMailboxManager().enqueue(id)) {
+            sender.sendMessage(Component.text(label + " is offline. Their starter pack will be given when they next join.", NamedTextColor.GREEN));
+        } else {
+            sender.sendMessage(Component.text("A starter pack is already waiting for " + label + ".", NamedTextColor.YELLOW));
         }
-        
-        String playerName = args[1];
-        Player target = PlayerLookup.resolveAllowingPartial(playerName).orElse(null);
-        
-        if (target == null) {
-            sender.sendMessage(Component.text(PlayerLookup.noSuchPlayerMessage(playerName, PlayerLookup.onlineNames()), NamedTextColor.RED));
-            return true;
+        return true;
+    }
+
+    private static UUID parseUuid(String text) {
+        if (text.length() != 36 || text.charAt(8) != '-') {
+            return null;
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        
+    }
+
+    private BatchedPlayerTask.Action giveAction(CommandSender sender) {
+        return player -> {
+            if (!plugin.getStarterPackManager().forceGiveStarterPack(player)) {
+                return BatchedPlayerTask.Outcome.FAILED;
+            }
+            player.sendMessage(Component.text("You have been given a starter pack by " + sender.getName() + "!", NamedTextColor.GREEN));
+            return BatchedPlayerTask.Outcome.APPLIED;
+        };
+    }
+
+    /**
+     * Equip starter items on one player
+     */
+    private void equipOne(CommandSender sender, Player target) {
         // Check if player already has equipment
         if (plugin.getStarterPackManager().hasAnyEquipment(target)) {
             sender.sendMessage(Component.text(target.getName() + " already has equipment. Use '/starterpack force " + target.getName() + "' to override.", NamedTextColor.YELLOW));
-            return true;
+            return;
         }
-        
+
         boolean success = plugin.getStarterPackManager().equipStarterItems(target);
-        
+
         if (success) {
             sender.sendMessage(Component.text("Successfully equipped starter items on " + target.getName() + "!", NamedTextColor.GREEN));
             target.sendMessage(Component.text("You have been equipped with starter items by " + sender.getName() + "!", NamedTextColor.GREEN));
         } else {
             sender.sendMessage(Component.text("Failed to equip starter items on " + target.getName() + ".", NamedTextColor.RED));
         }
-        
-        return true;
     }
-    
+
+    BatchedPlayerTask.Action equipAction(CommandSender sender) {
+        return player -> {
+            // Players who already have gear are left alone, as in the single-player form
+            if (plugin.getStarterPackManager().hasAnyEquipment(player)) {
+                return BatchedPlayerTask.Outcome.SKIPPED;
+            }
+            if (!plugin.getStarterPackManager().equipStarterItems(player)) {
+                return BatchedPlayerTask.Outcome.FAILED;
+            }
+            player.sendMessage(Component.text("You have been equipped with starter items by " + sender.getName() + "!", NamedTextColor.GREEN));
+            return BatchedPlayerTask.Outcome.APPLIED;
+        };
+    }
+
     /**
-     * Handle force command
+     * Force equip starter items on one player
      */
-    private boolean handleForce(CommandSender sender, String[] args) {
-        if (!sender.hasPermission("starterpack.admin")) {
-            sender.sendMessage(Component.text("You don't have permission to force equip starter packs.", NamedTextColor.RED));
-            return true;
-        }
-        
-        if (args.length < 2) {
-            sender.sendMessage(Component.text("Usage: /starterpack force <player>", NamedTextColor.RED));
-            return true;
-        }
-        
-        String playerName = args[1];
-        Player target = PlayerLookup.resolveAllowingPartial(playerName).orElse(null);
-        
-        if (target == null) {
-            sender.sendMessage(Component.text(PlayerLookup.noSuchPlayerMessage(playerName, PlayerLookup.onlineNames()), NamedTextColor.RED));
-            return true;
-        }
-        
-        // Force equip starter items (moves existing equipment to inventory)
-        boolean success = plugin.getStarterPackManager().forceEquipStarterItems(target);
-        
+    private void forceOne(CommandSender sender, Player target) {
+        // Unlike equip, no hasAnyEquipment check: what the player wears moves to their inventory
+        boolean success = plugin.getStarterPackManager().equipStarterItems(target);
+
         if (success) {
             sender.sendMessage(Component.text("Successfully force equipped starter items on " + target.getName() + "!", NamedTextColor.GREEN));
             target.sendMessage(Component.text("Your equipment has been replaced with starter items by " + sender.getName() + "!", NamedTextColor.YELLOW));
@@ -185,68 +392,106 @@ public class StarterPackCommand implements CommandExecutor, TabCompleter {
         } else {
             sender.sendMessage(Component.text("Failed to force equip starter items on " + target.getName() + ".", NamedTextColor.RED));
         }
-        
-        return true;
     }
-    
+
+    BatchedPlayerTask.Action forceAction(CommandSender sender) {
+        return player -> {
+            // Players with gear are equipped too, as in the single-player form
+            if (!plugin.getStarterPackManager().equipStarterItems(player)) {
+                return BatchedPlayerTask.Outcome.FAILED;
+            }
+            player.sendMessage(Component.text("Your equipment has been replaced with starter items by " + sender.getName() + "!", NamedTextColor.YELLOW));
+            player.sendMessage(Component.text("Your previous equipment has been moved to your inventory or dropped.", NamedTextColor.GRAY));
+            return BatchedPlayerTask.Outcome.APPLIED;
+        };
+    }
+
     /**
-     * Handle reset command
+     * Reset starter pack status for one player
      */
-    private boolean handleReset(CommandSender sender, String[] args) {
-        if (!sender.hasPermission("starterpack.admin")) {
-            sender.sendMessage(Component.text("You don't have permission to reset starter pack data.", NamedTextColor.RED));
-            return true;
-        }
-        
-        if (args.length < 2) {
-            sender.sendMessage(Component.text("Usage: /starterpack reset <player|all>", NamedTextColor.RED));
-            return true;
+    private void resetOne(CommandSender sender, Player target) {
+        boolean success = plugin.getStarterPackManager().resetPlayerStarterPack(target);
+        if (success) {
+            sender.sendMessage(Component.text("Successfully reset starter pack status for " + target.getName() + "!", NamedTextColor.GREEN));
+            target.sendMessage(Component.text("Your starter pack status has been reset by " + sender.getName() + ". You can receive it again on next join!", NamedTextColor.YELLOW));
+        } else {
+            sender.sendMessage(Component.text("Failed to reset starter pack status for " + target.getName() + ".", NamedTextColor.RED));
         }
-        
-        String target = args[1];
-        
-        if (target.equalsIgnoreCase("all")) {
-            int resetCount = plugin.getStarterPackManager().resetAllPlayersStarterPack();
-            if (resetCount >= 0) {
-                sender.sendMessage(Component.text("Successfully reset starter pack status for " + resetCount + " online players!", NamedTextColor.GREEN));
-                sender.sendMessage(Component.text("Note: This only affects online players. Offline players will retain their status.", NamedTextColor.GRAY));
-            } else {
-                sender.sendMessage(Component.text("Failed to reset starter pack status for all players.", NamedTextColor.RED));
+    }
+
+    private BatchedPlayerTask.Action resetAction(CommandSender sender) {
+        return player -> {
+            if (!plugin.getStarterPackManager().resetPlayerStarterPack(player)) {
+                return BatchedPlayerTask.Outcome.FAILED;
             }
-            return true;
+            player.sendMessage(Component.text("Your starter pack status has been reset by " + sender.getName() + ". You can receive it again on next join!", NamedTextColor.YELLOW));
+            return BatchedPlayerTask.Outcome.APPLIED;
+        };
+    }
+
+    /**
+     * Handle reset all command
+     */
+    private int handleResetAll(CommandSender sender) {
+        int resetCount = plugin.getStarterPackManager().resetAllPlayersStarterPack();
+        if (resetCount >= 0) {
+            sender.sendMessage(Component.text("Successfully reset starter pack status for " + resetCount + " online players!", NamedTextColor.GREEN));
+            sender.sendMessage(Component.text("Note: This only affects online players. Offline players will retain their status.", NamedTextColor.GRAY));
+        } else {
+            sender.sendMessage(Component.text("Failed to reset starter pack status for all players.", NamedTextColor.RED));
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Hand a resolved set of players to a batched task
+     */
+    int startBulk(CommandSender sender, String matched, List<UUID> targets, String description, BatchedPlayerTask.Action action) {
+        if (targets.isEmpty()) {
+            sender.sendMessage(Component.text("No online players match " + matched + ".", NamedTextColor.RED));
+            return 0;
         }
-        
-        Player targetPlayer = PlayerLookup.resolveAllowingPartial(target).orElse(null);
-        if (targetPlayer == null) {
-            sender.sendMessage(Component.text(PlayerLookup.noSuchPlayerMessage(target, PlayerLookup.onlineNames()), NamedTextColor.RED));
-            return true;
+
+        new BatchedPlayerTask(plugin, sender, description, targets,
+            plugin.getConfigManager().getBulkPlayersPerTick(), action).start();
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * The online players who have a permission node, for {@code @perm <node>}
+     */
+    List<UUID> withPermission(String node) {
+        List<UUID> targets = new ArrayList<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player.hasPermission(node)) {
+                targets.add(player.getUniqueId());
+            }
         }
-        
-        boolean success = plugin.getStarterPackManager().resetPlayerStarterPack(targetPlayer);
-        if (success) {
-            sender.sendMessage(Component.text("Successfully reset starter pack status for " + targetPlayer.getName() + "!", NamedTextColor.GREEN));
-            targetPlayer.sendMessage(Component.text("Your starter pack status has been reset by " + sender.getName() + ". You can receive it again on next join!", NamedTextColor.YELLOW));
-        } else {
-            sender.sendMessage(Component.text("Failed to reset starter pack status for " + targetPlayer.getName() + ".", NamedTextColor.RED));
+        return targets;
+    }
+
+    private static List<UUID> uuidsOf(List<Player> players) {
+        List<UUID> uuids = new ArrayList<>(players.size());
+        for (Player player : players) {
+            uuids.add(player.getUniqueId());
         }
-        
-        return true;
+        return uuids;
     }
-    
+
     /**
      * Handle stats command
      */
-    private boolean handleStats(CommandSender sender) {
+    private int handleStats(CommandSender sender) {
         sender.sendMessage(Component.text("=== StarterPack Statistics ===", NamedTextColor.GOLD));
         String stats = plugin.getStarterPackManager().getStarterPackStats();
         sender.sendMessage(Component.text(stats, NamedTextColor.GRAY));
-        return true;
+        return Command.SINGLE_SUCCESS;
     }
-    
+
     /**
      * Handle version command
      */
-    private boolean handleVersion(CommandSender sender) {
+    private int handleVersion(CommandSender sender) {
         sender.sendMessage(Component.text("=== StarterPack Plugin ===", NamedTextColor.GOLD));
         sender.sendMessage(Component.text("Version: ", NamedTextColor.YELLOW)
             .append(Component.text(plugin.getPluginMeta().getVersion(), NamedTextColor.WHITE)));
@@ -256,23 +501,38 @@ public class StarterPackCommand implements CommandExecutor, TabCompleter {
             .append(Component.text("https://xpfarm.org", NamedTextColor.AQUA)));
         sender.sendMessage(Component.text("Description: ", NamedTextColor.YELLOW)
             .append(Component.text(plugin.getPluginMeta().getDescription(), NamedTextColor.WHITE)));
-        
+
         // Show configuration status
         sender.sendMessage(Component.text(""));
         sender.sendMessage(Component.text("Configuration Status:", NamedTextColor.GOLD));
         sender.sendMessage(Component.text("Enabled: ", NamedTextColor.YELLOW)
-            .append(Component.text((plugin.getConfigManager().isStarterPackEnabled() ? "Yes" : "No"), 
+            .append(Component.text((plugin.getConfigManager().isStarterPackEnabled() ? "Yes" : "No"),
                 plugin.getConfigManager().isStarterPackEnabled() ? NamedTextColor.GREEN : NamedTextColor.RED)));
         sender.sendMessage(Component.text("Broadcast: ", NamedTextColor.YELLOW)
-            .append(Component.text((plugin.getConfigManager().isBroadcastEnabled() ? "Yes" : "No"), 
+            .append(Component.text((plugin.getConfigManager().isBroadcastEnabled() ? "Yes" : "No"),
                 plugin.getConfigManager().isBroadcastEnabled() ? NamedTextColor.GREEN : NamedTextColor.RED)));
         sender.sendMessage(Component.text("Debug: ", NamedTextColor.YELLOW)
-            .append(Component.text((plugin.getConfigManager().isDebugEnabled() ? "Yes" : "No"), 
+            .append(Component.text((plugin.getConfigManager().isDebugEnabled() ? "Yes" : "No"),
                 plugin.getConfigManager().isDebugEnabled() ? NamedTextColor.GREEN : NamedTextColor.RED)));
-        
-        return true;
+
+        return Command.SINGLE_SUCCESS;
     }
-    
+
+    /**
+     * Whether the sender has one of the plugin's permissions, through the per-player cache
+     */
+    private boolean has(CommandSender sender, PermissionCache.Node node) {
+        return plugin.getPermissionCache().has(sender, node);
+    }
+
+    /**
+     * Whether the sender may use the admin commands, asked live rather than cached so a
+     * revoked admin loses them at once, even before their permissions are seen to change
+     */
+    private static boolean isAdmin(CommandSender sender) {
+        return sender.hasPermission(PermissionCache.Node.ADMIN.getPermission());
+    }
+
     /**
      * Send help message
      */
@@ -282,12 +542,16 @@ public class StarterPackCommand implements CommandExecutor, TabCompleter {
             .append(Component.text(" - Show this help message", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("/starterpack version", NamedTextColor.YELLOW)
             .append(Component.text(" - Show plugin version and status", NamedTextColor.GRAY)));
-        
-        if (sender.hasPermission("starterpack.admin")) {
+        sender.sendMessage(Component.text("/starterpack broadcasts <on|off>", NamedTextColor.YELLOW)
+            .append(Component.text(" - Show or hide new-player broadcasts", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("/starterpack preview [kit]", NamedTextColor.YELLOW)
+            .append(Component.text(" - See what a kit contains", NamedTextColor.GRAY)));
+
+        if (isAdmin(sender)) {
             sender.sendMessage(Component.text("/starterpack reload", NamedTextColor.YELLOW)
                 .append(Component.text(" - Reload configuration", NamedTextColor.GRAY)));
-            sender.sendMessage(Component.text("/starterpack give <player>", NamedTextColor.YELLOW)
-                .append(Component.text(" - Give starter pack to a player", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/starterpack give <player|uuid>", NamedTextColor.YELLOW)
+                .append(Component.text(" - Give starter pack to a player (offline players get it on next join)", NamedTextColor.GRAY)));
             sender.sendMessage(Component.text("/starterpack equip <player>", NamedTextColor.YELLOW)
                 .append(Component.text(" - Equip starter items (only if no equipment)", NamedTextColor.GRAY)));
             sender.sendMessage(Component.text("/starterpack force <player>", NamedTextColor.YELLOW)
@@ -296,53 +560,18 @@ public class StarterPackCommand implements CommandExecutor, TabCompleter {
                 .append(Component.text(" - Reset starter pack status", NamedTextColor.GRAY)));
             sender.sendMessage(Component.text("/starterpack stats", NamedTextColor.YELLOW)
                 .append(Component.text(" - Show starter pack statistics", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/starterpack export [ndjson|csv]", NamedTextColor.YELLOW)
+                .append(Component.text(" - Export grant records to the exports folder", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/starterpack import <file>", NamedTextColor.YELLOW)
+                .append(Component.text(" - Import grant records from the imports folder", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("/starterpack backfill", NamedTextColor.YELLOW)
+                .append(Component.text(" - Mark players who had a kit before, from saved player data", NamedTextColor.GRAY)));
+            sender.sendMessage(Component.text("Bulk targets: ", NamedTextColor.AQUA)
+                .append(Component.text("@a, @world <world>, @perm <node> in place of <player>", NamedTextColor.WHITE)));
         }
-        
+
         sender.sendMessage(Component.text(""));
         sender.sendMessage(Component.text("Aliases: ", NamedTextColor.AQUA)
             .append(Component.text("/sp, /starter", NamedTextColor.WHITE)));
     }
-    
-    @Override
-    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        List<String> completions = new ArrayList<>();
-        
-        if (args.length == 1) {
-            List<String> subCommands = Arrays.asList("help", "version");
-            
-            if (sender.hasPermission("starterpack.admin")) {
-                subCommands = Arrays.asList("help", "version", "reload", "give", "equip", "force", "reset", "stats");
-            }
-            
-            String input = args[0].toLowerCase();
-            for (String subCommand : subCommands) {
-                if (subCommand.startsWith(input)) {
-                    completions.add(subCommand);
-                }
-            }
-        } else if (args.length == 2 && (args[0].equalsIgnoreCase("give") || args[0].equalsIgnoreCase("equip") || args[0].equalsIgnoreCase("force"))) {
-            if (sender.hasPermission("starterpack.admin")) {
-                String input = args[1].toLowerCase();
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    if (player.getName().toLowerCase().startsWith(input)) {
-                        completions.add(player.getName());
-                    }
-                }
-            }
-        } else if (args.length == 2 && args[0].equalsIgnoreCase("reset")) {
-            if (sender.hasPermission("starterpack.admin")) {
-                String input = args[1].toLowerCase();
-                if ("all".startsWith(input)) {
-                    completions.add("all");
-                }
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    if (player.getName().toLowerCase().startsWith(input)) {
-                        completions.add(player.getName());
-                    }
-                }
-            }
-        }
-        
-        return completions;
-    }
 }
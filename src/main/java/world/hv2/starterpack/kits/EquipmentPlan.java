@@ -0,0 +1,138 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A kit's equipment compiled into a fixed slot-to-item plan.
+ *
+ * <p>Slots are resolved once, when the kit is compiled, instead of being re-read from
+ * each item's metadata on every grant. Applying the plan is then one armor-contents update
+ * plus at most one update per hand, and if any of those throws, every touched slot is
+ * put back the way it was.
+ */
+public final class EquipmentPlan {
+
+    /** Index of each armor slot in {@link PlayerInventory#getArmorContents()}. */
+    private static final int BOOTS = 0;
+    private static final int LEGGINGS = 1;
+    private static final int CHESTPLATE = 2;
+    private static final int HELMET = 3;
+
+    private final Map<EquipmentSlot, ItemStack> slots;
+    private final List<ItemStack> unslotted;
+
+    /**
+     * @param slots     the item to place in each slot; templates, never handed out directly
+     * @param unslotted equipment items whose slot could not be determined, given as
+     *                  ordinary inventory items instead
+     */
+    public EquipmentPlan(Map<EquipmentSlot, ItemStack> slots, List<ItemStack> unslotted) {
+        this.slots = slots.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(slots));
+        this.unslotted = List.copyOf(unslotted);
+    }
+
+    /** A plan with nothing to equip. */
+    public static EquipmentPlan empty() {
+        return new EquipmentPlan(Collections.emptyMap(), List.of());
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty() && unslotted.isEmpty();
+    }
+
+    /** The item planned for each slot. */
+    public Map<EquipmentSlot, ItemStack> getSlots() {
+        return slots;
+    }
+
+    /** Equipment items with no slot, given as inventory items. */
+    public List<ItemStack> getUnslotted() {
+        return unslotted;
+    }
+
+    /**
+     * Equip the plan on an inventory, all slots or none.
+     *
+     * @param inventory the player's inventory
+     * @return the items the plan displaced from occupied slots, for the caller to return
+     *         to the player; empty if every planned slot was free
+     * @throws RuntimeException if the inventory rejects an update; the slots have been
+     *                          restored by the time it propagates
+     */
+    public List<ItemStack> apply(PlayerInventory inventory) {
+        ItemStack[] armorBefore = copyOf(inventory.getArmorContents());
+        ItemStack mainHandBefore = copyOf(inventory.getItemInMainHand());
+        ItemStack offHandBefore = copyOf(inventory.getItemInOffHand());
+
+        List<ItemStack> displaced = new ArrayList<>();
+        ItemStack[] armor = armorBefore.clone();
+        boolean armorChanged = false;
+        armorChanged |= place(armor, BOOTS, EquipmentSlot.FEET, displaced);
+        armorChanged |= place(armor, LEGGINGS, EquipmentSlot.LEGS, displaced);
+        armorChanged |= place(armor, CHESTPLATE, EquipmentSlot.CHEST, displaced);
+        armorChanged |= place(armor, HELMET, EquipmentSlot.HEAD, displaced);
+
+        ItemStack mainHand = slots.get(EquipmentSlot.HAND);
+        ItemStack offHand = slots.get(EquipmentSlot.OFF_HAND);
+
+        try {
+            if (armorChanged) {
+                inventory.setArmorContents(armor);
+            }
+            if (mainHand != null) {
+                addIfPresent(displaced, mainHandBefore);
+                inventory.setItemInMainHand(mainHand.clone());
+            }
+            if (offHand != null) {
+                addIfPresent(displaced, offHandBefore);
+                inventory.setItemInOffHand(offHand.clone());
+            }
+        } catch (RuntimeException e) {
+            inventory.setArmorContents(armorBefore);
+            inventory.setItemInMainHand(mainHandBefore);
+            inventory.setItemInOffHand(offHandBefore);
+            throw e;
+        }
+
+        return displaced;
+    }
+
+    /**
+     * Put the planned item for {@code slot} into the armor array, recording what it displaces
+     */
+    private boolean place(ItemStack[] armor, int index, EquipmentSlot slot, List<ItemStack> displaced) {
+        ItemStack planned = slots.get(slot);
+        if (planned == null) {
+            return false;
+        }
+        addIfPresent(displaced, armor[index]);
+        armor[index] = planned.clone();
+        return true;
+    }
+
+    private static void addIfPresent(List<ItemStack> displaced, ItemStack item) {
+        if (item != null && !item.isEmpty()) {
+            displaced.add(item);
+        }
+    }
+
+    private static ItemStack copyOf(ItemStack item) {
+        return item == null ? null : item.clone();
+    }
+
+    private static ItemStack[] copyOf(ItemStack[] items) {
+        ItemStack[] copy = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = copyOf(items[i]);
+        }
+        return copy;
+    }
+}
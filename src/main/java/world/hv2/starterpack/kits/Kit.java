@@ -0,0 +1,50 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled kit: its inventory items and its equipment plan, built once from
+ * configuration and reused for every grant.
+ *
+ * <p>The stored stacks are templates. {@link #copyItems()} hands out clones, since a
+ * given stack becomes part of a player's inventory and must not alias the template.
+ */
+public final class Kit {
+
+    private final String name;
+    private final List<ItemStack> items;
+    private final EquipmentPlan equipment;
+
+    public Kit(String name, List<ItemStack> items, EquipmentPlan equipment) {
+        this.name = name;
+        this.items = List.copyOf(items);
+        this.equipment = equipment;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** The template items; never hand these to a player directly. */
+    public List<ItemStack> getItems() {
+        return items;
+    }
+
+    public EquipmentPlan getEquipment() {
+        return equipment;
+    }
+
+    /**
+     * Fresh copies of the kit's inventory items, safe to give to a player
+     */
+    public List<ItemStack> copyItems() {
+        List<ItemStack> copies = new ArrayList<>(items.size());
+        for (ItemStack item : items) {
+            copies.add(item.clone());
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,230 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compiled kits saved as item bytes, so a boot with an unchanged config skips YAML
+ * parsing and material and enchantment resolution.
+ *
+ * <p>The file starts with a key: a SHA-256 over {@code config.yml}, the server version and
+ * the plugin version. Any of those changing makes the cache stale, and it is rebuilt by
+ * the next full compile. Items are stored with {@link ItemStack#serializeAsBytes()}, which
+ * records the data version, so a stack written by one server build is never read as if
+ * it came from another. The file is memory-mapped for reading.
+ *
+ * <p>The warnings logged while compiling, such as an unknown material, are saved with the
+ * kits, so a boot that reads the cache can log them again instead of hiding them.
+ *
+ * <p>Layout: magic, format version, key, kit count, then per kit its name, its items, its
+ * slotted equipment as (slot, item) pairs, and its unslotted equipment, then the warning
+ * count and the warnings. Each item and string is a length-prefixed byte array.
+ */
+public final class KitCache {
+
+    private static final int MAGIC = 0x53504B43; // "SPKC"
+    private static final int FORMAT_VERSION = 2;
+    private static final int KEY_LENGTH = 32;
+
+    /** What a cache holds: the kits by name, in the order they were written, and the compile warnings. */
+    public record Contents(Map<String, Kit> kits, List<String> warnings) {
+    }
+
+    private final Path file;
+    private final Function<ItemStack, byte[]> serializer;
+    private final Function<byte[], ItemStack> deserializer;
+
+    /**
+     * @param file where the cache lives, usually {@code kits.cache} in the data folder
+     */
+    public KitCache(Path file) {
+        this(file, ItemStack::serializeAsBytes, ItemStack::deserializeBytes);
+    }
+
+    /**
+     * A cache that stores items with the given codec instead of the server's, for tests
+     */
+    KitCache(Path file, Function<ItemStack, byte[]> serializer, Function<byte[], ItemStack> deserializer) {
+        this.file = file;
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * The cache key for a configuration
+     *
+     * @param config        the raw bytes of {@code config.yml}
+     * @param serverVersion the running server's version string
+     * @param pluginVersion the plugin's version
+     */
+    public static byte[] key(byte[] config, String serverVersion, String pluginVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(config);
+            digest.update((byte) 0);
+            digest.update(serverVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(pluginVersion.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Load the cached kits if the cache exists and was written for {@code key}
+     *
+     * @return the kits and their compile warnings, or null if there is no usable cache for this key
+     * @throws IOException if the file exists but cannot be read
+     */
+    public Contents read(byte[] key) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] storedKey = new byte[KEY_LENGTH];
+            buffer.get(storedKey);
+            if (!Arrays.equals(storedKey, key)) {
+                return null;
+            }
+
+            int kitCount = buffer.getInt();
+            Map<String, Kit> kits = new LinkedHashMap<>();
+            for (int k = 0; k < kitCount; k++) {
+                String name = new String(readBytes(buffer), StandardCharsets.UTF_8);
+
+                List<ItemStack> items = readItems(buffer);
+
+                int slotCount = buffer.getInt();
+                Map<EquipmentSlot, ItemStack> slots = new EnumMap<>(EquipmentSlot.class);
+                for (int s = 0; s < slotCount; s++) {
+                    EquipmentSlot slot = EquipmentSlot.valueOf(new String(readBytes(buffer), StandardCharsets.UTF_8));
+                    slots.put(slot, deserializer.apply(readBytes(buffer)));
+                }
+
+                List<ItemStack> unslotted = readItems(buffer);
+                kits.put(name, new Kit(name, items, new EquipmentPlan(slots, unslotted)));
+            }
+
+            int warningCount = buffer.getInt();
+            List<String> warnings = new ArrayList<>();
+            for (int w = 0; w < warningCount; w++) {
+                warnings.add(new String(readBytes(buffer), StandardCharsets.UTF_8));
+            }
+            return new Contents(kits, warnings);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Truncated, or written by a build that knew slots or items this one does not
+            return null;
+        }
+    }
+
+    /**
+     * Replace the cache with {@code kits} and the warnings logged compiling them, written
+     * for {@code key}. The new file is moved into place whole, so a crash mid-write leaves
+     * the old cache or none.
+     */
+    public void write(byte[] key, Map<String, Kit> kits, List<String> warnings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(key);
+            out.writeInt(kits.size());
+            for (Kit kit : kits.values()) {
+                writeBytes(out, kit.getName().getBytes(StandardCharsets.UTF_8));
+                writeItems(out, kit.getItems());
+
+                Map<EquipmentSlot, ItemStack> slots = kit.getEquipment().getSlots();
+                out.writeInt(slots.size());
+                for (Map.Entry<EquipmentSlot, ItemStack> entry : slots.entrySet()) {
+                    writeBytes(out, entry.getKey().name().getBytes(StandardCharsets.UTF_8));
+                    writeBytes(out, serializer.apply(entry.getValue()));
+                }
+
+                writeItems(out, kit.getEquipment().getUnslotted());
+            }
+
+            out.writeInt(warnings.size());
+            for (String warning : warnings) {
+                writeBytes(out, warning.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Remove the cache, e.g. when it could not be read
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private List<ItemStack> readItems(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        List<ItemStack> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(deserializer.apply(readBytes(buffer)));
+        }
+        return items;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private void writeItems(DataOutputStream out, List<ItemStack> items) throws IOException {
+        out.writeInt(items.size());
+        for (ItemStack item : items) {
+            writeBytes(out, serializer.apply(item));
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
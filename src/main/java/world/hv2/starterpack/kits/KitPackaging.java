@@ -0,0 +1,117 @@
+package world.hv2.starterpack.kits;
+
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.BundleContents;
+import io.papermc.paper.datacomponent.item.ItemContainerContents;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How a kit's inventory items are handed over: loose, one slot each, or packed into a
+ * single container that takes one slot, or one drop when the inventory is full.
+ *
+ * <p>Containers are built with Paper's data components, so packing never creates a block
+ * state. Items that would not fit the container as vanilla allows are not packed.
+ */
+public enum KitPackaging {
+
+    /** One inventory slot per item. */
+    NONE,
+
+    /** One bundle, if the items weigh no more than a bundle holds. */
+    BUNDLE,
+
+    /** One shulker box, if every item fits a slot of its own. */
+    SHULKER;
+
+    /** Slots in a shulker box. */
+    static final int SHULKER_SLOTS = 27;
+
+    /** A bundle's capacity in 64ths: a full stack of any item fills it. */
+    static final int BUNDLE_CAPACITY = 64;
+
+    /**
+     * Parse a configured packaging name, case-insensitively
+     *
+     * @return the packaging, or null if the name is not one
+     */
+    public static KitPackaging parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Pack copies of the items into this packaging's container
+     *
+     * @param name the container's name, or null to keep the default
+     * @return the container, or null for {@link #NONE} or if the items do not fit
+     */
+    public ItemStack pack(List<ItemStack> items, Component name) {
+        if (!fits(items)) {
+            return null;
+        }
+
+        List<ItemStack> copies = new ArrayList<>(items.size());
+        for (ItemStack item : items) {
+            copies.add(item.clone());
+        }
+
+        ItemStack container;
+        if (this == BUNDLE) {
+            container = ItemStack.of(Material.BUNDLE);
+            container.setData(DataComponentTypes.BUNDLE_CONTENTS, BundleContents.bundleContents(copies));
+        } else {
+            container = ItemStack.of(Material.SHULKER_BOX);
+            container.setData(DataComponentTypes.CONTAINER, ItemContainerContents.containerContents(copies));
+        }
+        if (name != null) {
+            container.setData(DataComponentTypes.CUSTOM_NAME, name);
+        }
+        return container;
+    }
+
+    /**
+     * Whether the items fit this packaging's container
+     */
+    boolean fits(List<ItemStack> items) {
+        switch (this) {
+            case BUNDLE:
+                return bundleWeight(items) <= BUNDLE_CAPACITY;
+            case SHULKER:
+                if (items.size() > SHULKER_SLOTS) {
+                    return false;
+                }
+                for (ItemStack item : items) {
+                    if (item.getAmount() > item.getMaxStackSize()) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The items' weight in a bundle, in 64ths of its capacity: each item weighs one
+     * stack's worth divided by its stack size, so a sword weighs 64 and an ender pearl 4
+     */
+    static int bundleWeight(List<ItemStack> items) {
+        int weight = 0;
+        for (ItemStack item : items) {
+            weight += item.getAmount() * (BUNDLE_CAPACITY / Math.max(1, item.getMaxStackSize()));
+        }
+        return weight;
+    }
+}
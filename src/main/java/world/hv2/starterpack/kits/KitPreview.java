@@ -0,0 +1,96 @@
+package world.hv2.starterpack.kits;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only chest view of a kit, built once and opened by every player who previews it.
+ *
+ * <p>Inventory items fill the top rows and equipment takes the bottom row, armor first.
+ * The view keeps the {@link Kit} it was built from, so a reload that compiles new kits is
+ * seen as a new version. Listeners recognise the view by its holder and cancel every click
+ * and drag, so the shared items are never handed out.
+ */
+public final class KitPreview implements InventoryHolder {
+
+    /** Equipment slots in the order they are laid out along the bottom row. */
+    private static final EquipmentSlot[] EQUIPMENT_ORDER = {
+        EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET,
+        EquipmentSlot.HAND, EquipmentSlot.OFF_HAND
+    };
+
+    private static final int ROW = 9;
+    private static final int MAX_ROWS = 6;
+
+    private final Kit kit;
+    private final Inventory inventory;
+
+    /**
+     * @param server the server that creates the inventory
+     * @param kit    the kit to show
+     * @param title  the view's title
+     */
+    public KitPreview(Server server, Kit kit, Component title) {
+        this.kit = kit;
+
+        List<ItemStack> items = new ArrayList<>(kit.getItems());
+        items.addAll(kit.getEquipment().getUnslotted());
+        boolean equipped = !kit.getEquipment().getSlots().isEmpty();
+
+        int equipmentRows = equipped ? 1 : 0;
+        int itemRows = Math.min(Math.max((items.size() + ROW - 1) / ROW, equipped ? 0 : 1), MAX_ROWS - equipmentRows);
+        this.inventory = server.createInventory(this, (itemRows + equipmentRows) * ROW, title);
+
+        // Kits larger than the chest are shown up to its size; the grant itself is unaffected
+        int shown = Math.min(items.size(), itemRows * ROW);
+        for (int i = 0; i < shown; i++) {
+            inventory.setItem(i, items.get(i));
+        }
+        if (equipped) {
+            int slot = itemRows * ROW;
+            for (EquipmentSlot equipmentSlot : EQUIPMENT_ORDER) {
+                ItemStack item = kit.getEquipment().getSlots().get(equipmentSlot);
+                if (item != null) {
+                    inventory.setItem(slot++, item);
+                }
+            }
+        }
+    }
+
+    /**
+     * The kit this view was built from
+     */
+    public Kit getKit() {
+        return kit;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Open the view for a player
+     */
+    public void open(HumanEntity viewer) {
+        viewer.openInventory(inventory);
+    }
+
+    /**
+     * Close the view for everyone looking at it, e.g. because its kit was replaced
+     */
+    public void closeAll() {
+        // Closing removes the viewer from the live list, so iterate a copy
+        for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
+            viewer.closeInventory();
+        }
+    }
+}
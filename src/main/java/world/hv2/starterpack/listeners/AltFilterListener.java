@@ -0,0 +1,34 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.managers.AltFilterManager;
+
+/**
+ * Checks each connecting player's address against the alt filter before they join, on the
+ * login thread, so the join itself only looks up the result
+ */
+public class AltFilterListener implements Listener {
+    
+    private final AltFilterManager altFilter;
+    
+    public AltFilterListener(AltFilterManager altFilter) {
+        this.altFilter = altFilter;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            altFilter.checkAddress(event.getUniqueId(), event.getAddress());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        altFilter.forget(event.getPlayer());
+    }
+}
@@ -0,0 +1,55 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+/**
+ * Caches each online player's broadcast opt-out, and keeps the broadcast recipients up to
+ * date, so broadcasts neither read persistent data nor check permissions
+ *
+ * <p>As with the permission cache, a resent command tree or a world change is taken as a
+ * sign the player's permissions may have changed.
+ */
+public class BroadcastPreferenceListener implements Listener {
+
+    private final StarterPackPlugin plugin;
+
+    public BroadcastPreferenceListener(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // Load before other join handlers, which may broadcast
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        plugin.getMessageManager().loadBroadcastPreference(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getMessageManager().unloadBroadcastPreference(event.getPlayer());
+    }
+
+    // Fired before the player's locale is updated, so the new one is passed along
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLocaleChange(PlayerLocaleChangeEvent event) {
+        plugin.getMessageManager().updateRecipient(event.getPlayer(), event.locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getMessageManager().updateRecipient(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        plugin.getMessageManager().updateRecipient(event.getPlayer());
+    }
+}
@@ -0,0 +1,34 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+
+import world.hv2.starterpack.kits.KitPreview;
+
+/**
+ * Keeps kit previews read-only. Any click or drag while a preview is the top inventory is
+ * cancelled, including shift-clicks from the player's own inventory. The holder is read
+ * without a snapshot, so the check allocates nothing.
+ *
+ * <p>The cancel runs at {@link EventPriority#HIGHEST}, and also for events already
+ * cancelled, so no other plugin's handler can un-cancel a click into a preview after it.
+ */
+public class KitPreviewListener implements Listener {
+    
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getInventory().getHolder(false) instanceof KitPreview) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder(false) instanceof KitPreview) {
+            event.setCancelled(true);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.tasks.MilestoneSampler;
+
+/**
+ * Keeps the milestone sampler's roster to the players online
+ */
+public class MilestoneListener implements Listener {
+    
+    private final MilestoneSampler sampler;
+    
+    public MilestoneListener(MilestoneSampler sampler) {
+        this.sampler = sampler;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        sampler.track(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        sampler.untrack(event.getPlayer());
+    }
+}
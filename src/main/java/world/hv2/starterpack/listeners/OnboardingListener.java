@@ -0,0 +1,31 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.tasks.OnboardingDrip;
+
+/**
+ * Resumes onboarding for returning players and pauses it for leaving ones
+ */
+public class OnboardingListener implements Listener {
+    
+    private final OnboardingDrip drip;
+    
+    public OnboardingListener(OnboardingDrip drip) {
+        this.drip = drip;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        drip.resume(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        drip.suspend(event.getPlayer());
+    }
+}
@@ -0,0 +1,63 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.PermissionCache;
+
+/**
+ * Keeps the {@link PermissionCache} in step with the player's session and permissions
+ *
+ * <p>Bukkit has no event for a permission change, but permission plugins and op changes
+ * resend the player's commands afterwards, and per-world permissions change with the world,
+ * so those events clear the player's decisions. The command tree is filtered before
+ * {@link PlayerCommandSendEvent} fires, so if that tree was built from an answer that has
+ * now changed, it is sent again on the next tick.
+ */
+public class PermissionCacheListener implements Listener {
+    
+    private final StarterPackPlugin plugin;
+    private final PermissionCache cache;
+    
+    public PermissionCacheListener(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.cache = plugin.getPermissionCache();
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        cache.track(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cache.forget(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        refresh(event.getPlayer());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        refresh(event.getPlayer());
+    }
+    
+    private void refresh(Player player) {
+        if (cache.invalidate(player)) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (player.isOnline()) {
+                    player.updateCommands();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+/**
+ * Keeps the plugin's online-player name index in step with joins and quits
+ */
+public class PlayerIndexListener implements Listener {
+    
+    private final StarterPackPlugin plugin;
+    
+    public PlayerIndexListener(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    // Index as early as possible so every other join handler can already look the player up
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        plugin.getPlayerIndex().add(player.getName(), player);
+    }
+    
+    // Remove as late as possible so other quit handlers can still look the player up
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        plugin.getPlayerIndex().remove(player.getName(), player);
+    }
+}
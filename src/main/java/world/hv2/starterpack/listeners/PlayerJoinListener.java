@@ -1,22 +1,38 @@
 package world.hv2.starterpack.listeners;
 
+import io.papermc.paper.event.player.PlayerClientLoadedWorldEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.PermissionCache;
+import world.hv2.starterpack.tasks.DeliveryGate;
 
 /**
  * Handles player join events to give starter packs
+ *
+ * <p>Packs are decided on join but given once the client has loaded the world, through a
+ * {@link DeliveryGate}, so items never arrive while the loading screen is still up.
  */
 public class PlayerJoinListener implements Listener {
     
+    /** Delivery flag: the first-join starter pack. */
+    private static final int STARTER_PACK = 1;
+    /** Delivery flag: a pack queued with /starterpack give while the player was offline. */
+    private static final int QUEUED_PACK = 2;
+    
     private final StarterPackPlugin plugin;
+    private final DeliveryGate gate;
     
     public PlayerJoinListener(StarterPackPlugin plugin) {
         this.plugin = plugin;
+        this.gate = new DeliveryGate(plugin, this::deliver);
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -24,38 +40,89 @@ public class PlayerJoinListener implements Listener {
         Player player = event.getPlayer();
         
         // Log all joins if debug enabled
-        if (plugin.getConfigManager().isLogAllJoinsEnabled()) {
+        if (plugin.isDebugEnabled() && plugin.getConfigManager().isLogAllJoinsEnabled()) {
             plugin.debugLog("Player " + player.getName() + " joined the server");
         }
         
+        // Deliver a starter pack given with /starterpack give while the player was offline
+        if (plugin.getMailboxManager().hasPending(player.getUniqueId())) {
+            gate.await(player, QUEUED_PACK);
+        }
+        
         // Check if starter pack is enabled
         if (!plugin.getConfigManager().isStarterPackEnabled()) {
-            plugin.debugLog("Starter pack is disabled, skipping " + player.getName());
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("Starter pack is disabled, skipping " + player.getName());
+            }
             return;
         }
         
         // Check if player has already received starter pack
         if (plugin.getStarterPackManager().hasReceivedStarterPack(player)) {
-            plugin.debugLog("Player " + player.getName() + " has already received starter pack");
+            // Guarded rather than lazy: a lambda capturing the player would allocate per join
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("Player " + player.getName() + " has already received starter pack");
+            }
             return;
         }
         
         // Check if player has bypass permission
-        if (player.hasPermission("starterpack.bypass")) {
-            plugin.debugLog("Player " + player.getName() + " has bypass permission, not giving starter pack");
+        if (plugin.getPermissionCache().has(player, PermissionCache.Node.BYPASS)) {
+            if (plugin.isDebugEnabled()) {
+                plugin.debugLog("Player " + player.getName() + " has bypass permission, not giving starter pack");
+            }
             return;
         }
         
-        // Give starter pack with a small delay to ensure player is fully loaded
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            if (player.isOnline()) {
-                boolean success = plugin.getStarterPackManager().giveStarterPack(player);
-                if (success) {
-                    plugin.getLogger().info("Gave starter pack to new player: " + player.getName());
-                } else {
-                    plugin.getLogger().warning("Failed to give starter pack to player: " + player.getName());
-                }
+        // Check if the player's connection has had its share of starter packs
+        if (plugin.getAltFilterManager().isLimited(player)) {
+            plugin.getLogger().info("Not giving starter pack to " + player.getName() + ": their address has reached alt-filter.max-packs-per-address");
+            return;
+        }
+        
+        gate.await(player, STARTER_PACK);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClientLoadedWorld(PlayerClientLoadedWorldEvent event) {
+        // Fires after respawns and world changes too; only joins still waiting are affected
+        gate.ready(event.getPlayer());
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        gate.cancel(event.getPlayer());
+    }
+    
+    /**
+     * Give what a player was held for once their client is ready
+     */
+    private void deliver(Player player, int deliveries) {
+        if ((deliveries & QUEUED_PACK) != 0) {
+            deliverQueuedPack(player);
+        }
+        if ((deliveries & STARTER_PACK) != 0) {
+            boolean success = plugin.getStarterPackManager().giveStarterPack(player);
+            if (success) {
+                plugin.getLogger().info("Gave starter pack to new player: " + player.getName());
+            } else {
+                plugin.getLogger().warning("Failed to give starter pack to player: " + player.getName());
             }
-        }, 20L); // 1 second delay
+        }
+    }
+    
+    /**
+     * Give a queued starter pack the way /starterpack give would have
+     */
+    private void deliverQueuedPack(Player player) {
+        if (!plugin.getMailboxManager().take(player.getUniqueId())) {
+            return;
+        }
+        if (plugin.getStarterPackManager().forceGiveStarterPack(player)) {
+            player.sendMessage(Component.text("You have been given a starter pack that was sent while you were offline!", NamedTextColor.GREEN));
+            plugin.getLogger().info("Delivered queued starter pack to " + player.getName());
+        } else {
+            plugin.getLogger().warning("Failed to deliver queued starter pack to " + player.getName());
+        }
     }
 }
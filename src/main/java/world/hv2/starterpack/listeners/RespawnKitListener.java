@@ -0,0 +1,36 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+/**
+ * Gives the respawn kit after a player respawns
+ */
+public class RespawnKitListener implements Listener {
+    
+    private final StarterPackPlugin plugin;
+    
+    public RespawnKitListener(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        if (!plugin.getConfigManager().isRespawnKitEnabled()) {
+            return;
+        }
+        
+        // The respawned player's inventory is only final once the event completes
+        Player player = event.getPlayer();
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (player.isOnline() && !player.isDead()) {
+                plugin.getRespawnKitManager().giveRespawnKit(player);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package world.hv2.starterpack.listeners;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.PermissionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serves /starterpack tab completion from Paper's async tab-complete event, so neither
+ * players nor the console or RCON spend main-thread time on it
+ */
+public class TabCompleteListener implements Listener {
+    
+    private static final Set<String> LABELS = Set.of("starterpack", "sp", "starter");
+    private static final String NAMESPACE = "starterpack:";
+    
+    private final StarterPackPlugin plugin;
+    
+    public TabCompleteListener(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (!event.isCommand() || event.isHandled()) {
+            return;
+        }
+        
+        // Player buffers start with a slash, console and RCON buffers do not
+        String buffer = event.getBuffer();
+        int labelStart = buffer.startsWith("/") ? 1 : 0;
+        int labelEnd = buffer.indexOf(' ', labelStart);
+        if (labelEnd < 0) {
+            // Still typing the label itself; the server completes that
+            return;
+        }
+        
+        String label = buffer.substring(labelStart, labelEnd).toLowerCase(Locale.ROOT);
+        if (label.startsWith(NAMESPACE)) {
+            label = label.substring(NAMESPACE.length());
+        }
+        if (!LABELS.contains(label)) {
+            return;
+        }
+        
+        PermissionCache permissions = plugin.getPermissionCache();
+        if (!permissions.has(event.getSender(), PermissionCache.Node.USE)) {
+            event.setCompletions(List.of());
+            event.setHandled(true);
+            return;
+        }
+        
+        String[] args = buffer.substring(labelEnd + 1).split(" ", -1);
+        boolean admin = permissions.has(event.getSender(), PermissionCache.Node.ADMIN);
+        event.setCompletions(plugin.getCommandCompletions().complete(admin, args));
+        event.setHandled(true);
+    }
+    
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        refreshWorldKeys(null);
+    }
+    
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // The unloading world is still in the server's list while this event runs
+        refreshWorldKeys(event.getWorld());
+    }
+    
+    /**
+     * Publish a new world-key snapshot for async completion
+     */
+    public void refreshWorldKeys(World unloading) {
+        List<String> keys = new ArrayList<>();
+        for (World world : plugin.getServer().getWorlds()) {
+            if (world != unloading) {
+                keys.add(world.getKey().asString());
+            }
+        }
+        plugin.getCommandCompletions().setWorldKeys(keys);
+    }
+}
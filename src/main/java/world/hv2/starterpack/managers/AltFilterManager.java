@@ -0,0 +1,198 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.entity.Player;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.util.CountingBloomFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits starter packs per connection, so new alts joining from one address stop getting
+ * a pack once {@code alt-filter.max-packs-per-address} have gone there.
+ *
+ * <p>Grants are counted per address in a {@link CountingBloomFilter} memory-mapped from
+ * the data folder, so the check is a few counter reads and the file stays the same size
+ * however many players have joined. Addresses are never stored: each is hashed with
+ * SHA-256 and a random salt kept in the file, which cannot be reversed without the salt
+ * and does not match any other server's hashes. A shared address can exceed its true
+ * count when the filter is crowded, which errs towards withholding a pack.
+ *
+ * <p>The address is checked at {@code AsyncPlayerPreLoginEvent}, off the main thread, and
+ * the result remembered until the player's join is handled.
+ */
+public class AltFilterManager {
+
+    /** Filter file name in the data folder. */
+    private static final String FILTER_FILE = "alt-filter.dat";
+
+    private static final int MAGIC = 0x53504146; // "SPAF"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SALT_LENGTH = 16;
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 4 + SALT_LENGTH;
+    private static final int HASHES = 4;
+
+    private final StarterPackPlugin plugin;
+    private final Path filterFile;
+    private final Set<UUID> limited = ConcurrentHashMap.newKeySet();
+
+    /** An open filter file: the mapping, the counters inside it, and its salt. */
+    private record OpenFilter(MappedByteBuffer buffer, CountingBloomFilter counters, byte[] salt) {
+    }
+
+    private volatile OpenFilter filter;
+
+    public AltFilterManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.filterFile = new File(plugin.getDataFolder(), FILTER_FILE).toPath();
+    }
+
+    /**
+     * Open or create the filter if {@code alt-filter.enabled}, or close it if not. A file
+     * created with a different {@code alt-filter.counters} is replaced, since its counts
+     * cannot be carried over.
+     */
+    public void load() {
+        close();
+        ConfigManager config = plugin.getConfigManager();
+        if (!config.isAltFilterEnabled()) {
+            return;
+        }
+
+        long size = config.getAltFilterCounters();
+        long fileLength = HEADER_LENGTH + (long) CountingBloomFilter.bytesFor(size);
+        try {
+            Files.createDirectories(filterFile.getParent());
+            try (FileChannel channel = FileChannel.open(filterFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean fresh = channel.size() == 0;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength);
+                if (!fresh && !headerMatches(buffer, size)) {
+                    plugin.getLogger().warning("alt-filter.dat was made with different settings; starting a new filter");
+                    // Cleared in place; a mapped file cannot be truncated on every platform
+                    for (int i = 0; i < buffer.capacity(); i++) {
+                        buffer.put(i, (byte) 0);
+                    }
+                    fresh = true;
+                }
+                if (fresh) {
+                    writeHeader(buffer, size);
+                }
+
+                byte[] salt = new byte[SALT_LENGTH];
+                buffer.get(HEADER_LENGTH - SALT_LENGTH, salt);
+                filter = new OpenFilter(buffer, new CountingBloomFilter(
+                    buffer.slice(HEADER_LENGTH, CountingBloomFilter.bytesFor(size)), size, HASHES), salt);
+            }
+            plugin.debugLog(() -> "Opened alt filter with " + size + " counters");
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to open alt filter, packs will not be limited per address: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Write pending counter changes to disk and stop filtering
+     */
+    public void close() {
+        OpenFilter current = filter;
+        filter = null;
+        limited.clear();
+        if (current != null) {
+            current.buffer().force();
+        }
+    }
+
+    /**
+     * Check a connecting player's address against the cap. Safe to call off the main thread.
+     */
+    public void checkAddress(UUID player, InetAddress address) {
+        OpenFilter current = filter;
+        if (current == null || address == null) {
+            return;
+        }
+
+        long[] hash = hash(current.salt(), address);
+        if (current.counters().count(hash[0], hash[1]) >= plugin.getConfigManager().getAltFilterMaxPacksPerAddress()) {
+            limited.add(player);
+        } else {
+            limited.remove(player);
+        }
+    }
+
+    /**
+     * Whether the player connected from an address that has had its share of starter packs
+     */
+    public boolean isLimited(Player player) {
+        return limited.contains(player.getUniqueId());
+    }
+
+    /**
+     * Forget a player's check result once they leave
+     */
+    public void forget(Player player) {
+        limited.remove(player.getUniqueId());
+    }
+
+    /**
+     * Count a starter pack against the player's current address
+     */
+    public void recordGrant(Player player) {
+        OpenFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        InetSocketAddress address = player.getAddress();
+        if (address == null || address.getAddress() == null) {
+            return;
+        }
+
+        long[] hash = hash(current.salt(), address.getAddress());
+        synchronized (this) {
+            current.counters().add(hash[0], hash[1]);
+        }
+    }
+
+    private static long[] hash(byte[] salt, InetAddress address) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            byte[] bytes = digest.digest(address.getAddress());
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+            return new long[] {wrapped.getLong(), wrapped.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean headerMatches(ByteBuffer buffer, long size) {
+        return buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION
+            && buffer.getLong(8) == size && buffer.getInt(16) == HASHES;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, long size) {
+        byte[] newSalt = new byte[SALT_LENGTH];
+        new SecureRandom().nextBytes(newSalt);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putLong(8, size);
+        buffer.putInt(16, HASHES);
+        buffer.put(20, newSalt);
+    }
+}
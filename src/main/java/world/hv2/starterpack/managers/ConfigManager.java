@@ -1,7 +1,16 @@
 package world.hv2.starterpack.managers;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.configuration.file.FileConfiguration;
 import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.KitPackaging;
+import world.hv2.starterpack.messages.BroadcastScope;
+import world.hv2.starterpack.util.CountingBloomFilter;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Manages plugin configuration loading and access
@@ -11,6 +20,31 @@ public class ConfigManager {
     private final StarterPackPlugin plugin;
     private FileConfiguration config;
     
+    // Settings read on every join or grant, resolved once per load instead of per call
+    private boolean starterPackEnabled;
+    private boolean broadcastEnabled;
+    private BroadcastScope broadcastScope;
+    private double broadcastRadius;
+    private String broadcastPermission;
+    private KitPackaging packaging;
+    private Component packageName;
+    private boolean broadcastOptOutAllowed;
+    private int bulkPlayersPerTick;
+    private int deliveryFallbackTicks;
+    private boolean respawnKitEnabled;
+    private long respawnKitCooldownMillis;
+    private boolean respawnKitOnlyIfEmpty;
+    private boolean milestonesEnabled;
+    private int milestonePlayersPerTick;
+    private boolean milestonesRetroactive;
+    private boolean onboardingEnabled;
+    private boolean altFilterEnabled;
+    private int altFilterMaxPacksPerAddress;
+    private long altFilterCounters;
+    private Set<String> backfillReceivedKeys;
+    private boolean debugEnabled;
+    private boolean logAllJoinsEnabled;
+    
     public ConfigManager(StarterPackPlugin plugin) {
         this.plugin = plugin;
     }
@@ -20,10 +54,50 @@ public class ConfigManager {
      */
     public void loadConfig() {
         plugin.reloadConfig();
-        config = plugin.getConfig();
+        applyConfig(plugin.getConfig());
+    }
+    
+    /**
+     * Use an already loaded configuration: validate it and resolve the cached settings
+     */
+    public void applyConfig(FileConfiguration config) {
+        this.config = config;
         
         // Validate configuration
         validateConfig();
+        
+        starterPackEnabled = config.getBoolean("starter-pack.enabled", true);
+        broadcastEnabled = config.getBoolean("starter-pack.broadcast", true);
+        BroadcastScope scope = BroadcastScope.parse(config.getString("broadcasts.scope", "global"));
+        broadcastScope = scope != null ? scope : BroadcastScope.GLOBAL;
+        broadcastRadius = Math.max(0.0, config.getDouble("broadcasts.radius", 100.0));
+        broadcastPermission = config.getString("broadcasts.permission", "");
+        broadcastOptOutAllowed = config.getBoolean("broadcasts.allow-opt-out", true);
+        KitPackaging parsedPackaging = KitPackaging.parse(config.getString("starter-pack.packaging", "none"));
+        packaging = parsedPackaging != null ? parsedPackaging : KitPackaging.NONE;
+        String name = config.getString("starter-pack.package-name", "");
+        packageName = name.isEmpty() ? null : LegacyComponentSerializer.legacyAmpersand().deserialize(name);
+        bulkPlayersPerTick = Math.max(1, config.getInt("bulk.players-per-tick", 10));
+        deliveryFallbackTicks = Math.max(1, config.getInt("delivery.fallback-ticks", 100));
+        respawnKitEnabled = config.getBoolean("respawn-kit.enabled", false);
+        respawnKitCooldownMillis = Math.max(0L, config.getLong("respawn-kit.cooldown-seconds", 600L)) * 1000L;
+        respawnKitOnlyIfEmpty = config.getBoolean("respawn-kit.only-if-empty", true);
+        milestonesEnabled = config.getBoolean("milestones.enabled", false);
+        milestonePlayersPerTick = Math.max(1, config.getInt("milestones.players-per-tick", 5));
+        milestonesRetroactive = config.getBoolean("milestones.retroactive", false);
+        onboardingEnabled = config.getBoolean("onboarding.enabled", false);
+        altFilterEnabled = config.getBoolean("alt-filter.enabled", false);
+        // The filter's counters stop at MAX_COUNT, so a higher cap would never be reached
+        altFilterMaxPacksPerAddress = Math.min(CountingBloomFilter.MAX_COUNT,
+            Math.max(1, config.getInt("alt-filter.max-packs-per-address", 2)));
+        altFilterCounters = Math.min(Integer.MAX_VALUE, Math.max(1024L, config.getLong("alt-filter.counters", 8_388_608L)));
+        Set<String> receivedKeys = new HashSet<>();
+        for (String key : config.getStringList("backfill.received-keys")) {
+            receivedKeys.add(key.toLowerCase(Locale.ROOT));
+        }
+        backfillReceivedKeys = Set.copyOf(receivedKeys);
+        debugEnabled = config.getBoolean("debug.enabled", false);
+        logAllJoinsEnabled = config.getBoolean("debug.log-all-joins", false);
     }
     
     /**
@@ -37,15 +111,30 @@ public class ConfigManager {
         if (!config.contains("starter-pack.items")) {
             plugin.getLogger().warning("Missing 'starter-pack.items' in config.yml, no items will be given!");
         }
+        
+        if (config.contains("broadcasts.scope") && BroadcastScope.parse(config.getString("broadcasts.scope")) == null) {
+            plugin.getLogger().warning("Unknown 'broadcasts.scope' in config.yml: " + config.getString("broadcasts.scope")
+                + ", defaulting to global");
+        }
+        
+        if (config.getInt("alt-filter.max-packs-per-address", 2) > CountingBloomFilter.MAX_COUNT) {
+            plugin.getLogger().warning("'alt-filter.max-packs-per-address' in config.yml is above the most the filter can count, "
+                + "using " + CountingBloomFilter.MAX_COUNT);
+        }
+        
+        if (config.contains("starter-pack.packaging") && KitPackaging.parse(config.getString("starter-pack.packaging")) == null) {
+            plugin.getLogger().warning("Unknown 'starter-pack.packaging' in config.yml: " + config.getString("starter-pack.packaging")
+                + ", defaulting to none");
+        }
     }
     
     // Configuration getters
     public boolean isStarterPackEnabled() {
-        return config.getBoolean("starter-pack.enabled", true);
+        return starterPackEnabled;
     }
     
     public boolean isBroadcastEnabled() {
-        return config.getBoolean("starter-pack.broadcast", true);
+        return broadcastEnabled;
     }
     
     public String getWelcomeMessage() {
@@ -56,12 +145,99 @@ public class ConfigManager {
         return config.getString("starter-pack.broadcast-message", "&e{player} &7has joined the server for the first time!");
     }
     
+    public BroadcastScope getBroadcastScope() {
+        return broadcastScope;
+    }
+    
+    public double getBroadcastRadius() {
+        return broadcastRadius;
+    }
+    
+    public String getBroadcastPermission() {
+        return broadcastPermission;
+    }
+    
+    /**
+     * How starter pack items are handed over, from {@code starter-pack.packaging}
+     */
+    public KitPackaging getPackaging() {
+        return packaging;
+    }
+    
+    /**
+     * The name given to the starter pack's container, or null to keep the default
+     */
+    public Component getPackageName() {
+        return packageName;
+    }
+    
+    public boolean isBroadcastOptOutAllowed() {
+        return broadcastOptOutAllowed;
+    }
+    
+    public int getBulkPlayersPerTick() {
+        return bulkPlayersPerTick;
+    }
+    
+    public int getDeliveryFallbackTicks() {
+        return deliveryFallbackTicks;
+    }
+    
+    public boolean isRespawnKitEnabled() {
+        return respawnKitEnabled;
+    }
+    
+    public long getRespawnKitCooldownMillis() {
+        return respawnKitCooldownMillis;
+    }
+    
+    public boolean isRespawnKitOnlyIfEmpty() {
+        return respawnKitOnlyIfEmpty;
+    }
+    
+    public boolean isMilestonesEnabled() {
+        return milestonesEnabled;
+    }
+    
+    public int getMilestonePlayersPerTick() {
+        return milestonePlayersPerTick;
+    }
+    
+    public boolean isMilestonesRetroactive() {
+        return milestonesRetroactive;
+    }
+    
+    public boolean isOnboardingEnabled() {
+        return onboardingEnabled;
+    }
+    
+    public boolean isAltFilterEnabled() {
+        return altFilterEnabled;
+    }
+    
+    public int getAltFilterMaxPacksPerAddress() {
+        return altFilterMaxPacksPerAddress;
+    }
+    
+    public long getAltFilterCounters() {
+        return altFilterCounters;
+    }
+    
+    /**
+     * Persistent data keys that mark a player as already having had a kit when
+     * backfilling. {@code "*"} counts every player with saved data; empty means backfill
+     * has not been set up and does not run.
+     */
+    public Set<String> getBackfillReceivedKeys() {
+        return backfillReceivedKeys;
+    }
+    
     public boolean isDebugEnabled() {
-        return config.getBoolean("debug.enabled", false);
+        return debugEnabled;
     }
     
     public boolean isLogAllJoinsEnabled() {
-        return config.getBoolean("debug.log-all-joins", false);
+        return logAllJoinsEnabled;
     }
     
     public FileConfiguration getConfig() {
@@ -0,0 +1,406 @@
+package world.hv2.starterpack.managers;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.util.DiskUuidSet;
+import world.hv2.starterpack.util.GrantRecordFormat;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A record of every starter pack given, for moving grant status between servers with
+ * {@code /starterpack export} and {@code /starterpack import}.
+ *
+ * <p>Grants are appended to {@code grants.dat} as fixed 32-byte records: the player's
+ * UUID, when the pack was given, and the kit version. Exports stream that file to NDJSON
+ * or CSV, and imports stream a file back in, each on a background thread through
+ * fixed-size buffers, so memory use does not grow with the number of records.
+ *
+ * <p>Imported players are not looked up or loaded. Their UUIDs go into a
+ * {@link DiskUuidSet}, and a player found there on their next join is marked as having
+ * received their pack.
+ */
+public class GrantLedger {
+
+    /** Ledger file name in the data folder. */
+    private static final String LEDGER_FILE = "grants.dat";
+    /** Imported players not yet seen, in the data folder. */
+    private static final String IMPORTED_FILE = "imported-grants.dat";
+    /** Folder exports are written to. */
+    private static final String EXPORT_FOLDER = "exports";
+    /** Folder imports are read from. */
+    private static final String IMPORT_FOLDER = "imports";
+
+    private static final int MAGIC = 0x5350474C; // "SPGL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int RECORD_LENGTH = 32;
+    /** Bytes read or written per I/O call when streaming. */
+    private static final int STREAM_BUFFER = 64 * 1024;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final StarterPackPlugin plugin;
+    private final File dataFolder;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private FileChannel ledger;
+    private DiskUuidSet imported;
+
+    public GrantLedger(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.dataFolder = plugin.getDataFolder();
+    }
+
+    /**
+     * Open the ledger and the imported-player set, creating them if needed
+     */
+    public synchronized void load() {
+        close();
+        try {
+            Files.createDirectories(dataFolder.toPath());
+            ledger = openLedger(new File(dataFolder, LEDGER_FILE).toPath());
+            imported = DiskUuidSet.open(new File(dataFolder, IMPORTED_FILE).toPath());
+            plugin.debugLog(() -> "Opened grant ledger: " + (ledger.size() - HEADER_LENGTH) / RECORD_LENGTH
+                + " records, " + imported.size() + " imported players not yet seen");
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to open grant ledger, grants will not be recorded: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Flush and close the ledger files
+     */
+    public synchronized void close() {
+        try {
+            if (ledger != null) {
+                ledger.force(false);
+                ledger.close();
+            }
+            if (imported != null) {
+                imported.close();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to close grant ledger: " + e.getMessage());
+        }
+        ledger = null;
+        imported = null;
+    }
+
+    /**
+     * Record a starter pack given to a player now
+     */
+    public synchronized void record(Player player) {
+        if (ledger == null) {
+            return;
+        }
+        try {
+            appendRecord(player.getUniqueId(), System.currentTimeMillis(), plugin.getKitManager().getKitVersion());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to record grant for " + player.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Make room for {@code expected} more backfilled players in one step, rather than
+     * growing the imported set repeatedly during a scan
+     */
+    public void reserve(int expected) throws IOException {
+        DiskUuidSet set = openSet();
+        set.ensureCapacity((int) Math.min(Integer.MAX_VALUE / 2, (long) set.size() + expected));
+    }
+
+    /**
+     * Record a pack the player got before this plugin tracked it, and mark them as
+     * received on their next join, as an import would. Safe to call from any thread.
+     *
+     * @param grantedAt best known time of the grant, as epoch milliseconds
+     * @return false if the player was already waiting to be marked
+     */
+    public boolean backfill(UUID player, long grantedAt) throws IOException {
+        if (!openSet().add(player)) {
+            return false;
+        }
+        synchronized (this) {
+            if (ledger == null) {
+                throw new IOException("the grant ledger was closed");
+            }
+            // Kit version zero: the kit they got is not known
+            appendRecord(player, grantedAt, 0L);
+        }
+        return true;
+    }
+
+    private void appendRecord(UUID player, long grantedAt, long kitVersion) throws IOException {
+        record.clear();
+        record.putLong(player.getMostSignificantBits()).putLong(player.getLeastSignificantBits())
+            .putLong(grantedAt).putLong(kitVersion).flip();
+        ledger.write(record);
+    }
+
+    private synchronized DiskUuidSet openSet() throws IOException {
+        if (imported == null) {
+            throw new IOException("the grant ledger is not open");
+        }
+        return imported;
+    }
+
+    /**
+     * If the player was imported and has not joined since, take them out of the imported
+     * set so the caller can mark them as received
+     *
+     * @return whether the player was imported
+     */
+    public boolean takeImported(Player player) {
+        DiskUuidSet set;
+        synchronized (this) {
+            set = imported;
+        }
+        if (set == null || set.size() == 0) {
+            return false;
+        }
+        try {
+            return set.remove(player.getUniqueId());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to check imported grants for " + player.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Write every record to a new file in the {@code exports} folder, in the background
+     */
+    public void export(CommandSender sender, GrantRecordFormat format) {
+        if (!begin(sender)) {
+            return;
+        }
+        sender.sendMessage(Component.text("Exporting grant records in the background...", NamedTextColor.YELLOW));
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.nanoTime();
+            try {
+                String stamp = LocalDateTime.now().format(STAMP);
+                Path target = new File(new File(dataFolder, EXPORT_FOLDER), "grants-" + stamp + "." + format.getExtension()).toPath();
+                long written = writeExport(target, format);
+                reply(sender, "Exported " + written + " grant records to " + EXPORT_FOLDER + "/"
+                    + target.getFileName() + " in " + seconds(start) + "s.", NamedTextColor.GREEN);
+            } catch (IOException e) {
+                reply(sender, "Export failed: " + e.getMessage(), NamedTextColor.RED);
+            } finally {
+                busy.set(false);
+            }
+        });
+    }
+
+    /**
+     * Read records from a file in the {@code imports} folder, in the background. The
+     * format is taken from the file's extension.
+     */
+    public void importFile(CommandSender sender, String fileName) {
+        File folder = new File(dataFolder, IMPORT_FOLDER);
+        Path source = folder.toPath().resolve(fileName).normalize();
+        GrantRecordFormat format = GrantRecordFormat.forFile(fileName);
+        if (!source.startsWith(folder.toPath().normalize())) {
+            sender.sendMessage(Component.text("Import files must be in the " + IMPORT_FOLDER + " folder.", NamedTextColor.RED));
+            return;
+        }
+        if (format == null) {
+            sender.sendMessage(Component.text("Import files must end in .ndjson or .csv.", NamedTextColor.RED));
+            return;
+        }
+        if (!Files.isRegularFile(source)) {
+            sender.sendMessage(Component.text("No such file: " + IMPORT_FOLDER + "/" + fileName, NamedTextColor.RED));
+            return;
+        }
+        if (!begin(sender)) {
+            return;
+        }
+        sender.sendMessage(Component.text("Importing grant records from " + fileName + " in the background...", NamedTextColor.YELLOW));
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.nanoTime();
+            try {
+                long[] counts = readImport(source, format);
+                reply(sender, "Imported " + counts[0] + " grant records from " + fileName + " in "
+                    + seconds(start) + "s (" + counts[1] + " lines skipped). Players are marked on their next join.",
+                    NamedTextColor.GREEN);
+            } catch (IOException e) {
+                reply(sender, "Import failed: " + e.getMessage(), NamedTextColor.RED);
+            } finally {
+                busy.set(false);
+            }
+        });
+    }
+
+    /**
+     * Stream the ledger, as it stood when the export began, to {@code target}
+     *
+     * @return the number of records written
+     */
+    private long writeExport(Path target, GrantRecordFormat format) throws IOException {
+        long end;
+        synchronized (this) {
+            if (ledger == null) {
+                throw new IOException("the grant ledger is not open");
+            }
+            end = ledger.size();
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long written = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER - STREAM_BUFFER % RECORD_LENGTH);
+        StringBuilder line = new StringBuilder(128);
+        try (FileChannel in = FileChannel.open(new File(dataFolder, LEDGER_FILE).toPath(), StandardOpenOption.READ);
+             Writer out = new BufferedWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8), STREAM_BUFFER)) {
+            if (format.header() != null) {
+                out.write(format.header());
+                out.write('\n');
+            }
+            long position = HEADER_LENGTH;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int read = in.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_LENGTH) {
+                    UUID player = new UUID(buffer.getLong(), buffer.getLong());
+                    line.setLength(0);
+                    format.format(line, player, buffer.getLong(), buffer.getLong());
+                    line.append('\n');
+                    out.append(line);
+                    written++;
+                }
+                // A partial record at the end of a read is read again with the next one
+                position -= buffer.remaining();
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Stream records from {@code source} into the ledger and the imported set
+     *
+     * @return the number of records imported and of lines skipped
+     */
+    private long[] readImport(Path source, GrantRecordFormat format) throws IOException {
+        DiskUuidSet set;
+        synchronized (this) {
+            if (ledger == null) {
+                throw new IOException("the grant ledger is not open");
+            }
+            set = imported;
+        }
+
+        long importedCount = 0;
+        long skipped = 0;
+        ByteBuffer batch = ByteBuffer.allocate(STREAM_BUFFER - STREAM_BUFFER % RECORD_LENGTH);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(source), StandardCharsets.UTF_8), STREAM_BUFFER)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                GrantRecordFormat.Entry entry = format.parseLine(text);
+                if (entry == null) {
+                    if (!text.isBlank() && !text.equalsIgnoreCase(format.header())) {
+                        skipped++;
+                    }
+                    continue;
+                }
+
+                set.add(entry.player());
+                batch.putLong(entry.player().getMostSignificantBits()).putLong(entry.player().getLeastSignificantBits())
+                    .putLong(entry.grantedAt()).putLong(entry.kitVersion());
+                if (!batch.hasRemaining()) {
+                    append(batch);
+                }
+                importedCount++;
+            }
+        }
+        append(batch);
+        return new long[] {importedCount, skipped};
+    }
+
+    /**
+     * Append a batch of whole records to the ledger and empty the batch
+     */
+    private synchronized void append(ByteBuffer batch) throws IOException {
+        if (ledger == null) {
+            throw new IOException("the grant ledger was closed");
+        }
+        batch.flip();
+        while (batch.hasRemaining()) {
+            ledger.write(batch);
+        }
+        batch.clear();
+    }
+
+    private boolean begin(CommandSender sender) {
+        if (!busy.compareAndSet(false, true)) {
+            sender.sendMessage(Component.text("An export or import is already running.", NamedTextColor.RED));
+            return false;
+        }
+        return true;
+    }
+
+    private void reply(CommandSender sender, String message, NamedTextColor color) {
+        // Logged too, since the sender may have left by the time a long run finishes
+        plugin.getLogger().info(message);
+        plugin.getServer().getScheduler().runTask(plugin, () -> sender.sendMessage(Component.text(message, color)));
+    }
+
+    private static String seconds(long startNanos) {
+        return String.format("%.1f", (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    /**
+     * Open the ledger for appending, writing its header if it is new and dropping any
+     * partial record left by a crash mid-write
+     */
+    private static FileChannel openLedger(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            if (channel.size() == 0) {
+                header.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                    throw new IOException(file.getFileName() + " is not a grant ledger of this version");
+                }
+            }
+            long whole = HEADER_LENGTH + (channel.size() - HEADER_LENGTH) / RECORD_LENGTH * RECORD_LENGTH;
+            if (channel.size() != whole) {
+                channel.truncate(whole);
+            }
+            channel.position(whole);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
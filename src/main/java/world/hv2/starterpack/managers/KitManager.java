@@ -0,0 +1,561 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.EquipmentPlan;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.kits.KitCache;
+import world.hv2.starterpack.kits.KitPackaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles the configured kit once per config load, so grants clone finished items
+ * instead of re-parsing configuration for every player.
+ *
+ * <p>Compiled kits are also saved to a {@link KitCache}. While {@code config.yml}, the
+ * server and the plugin are unchanged, later loads read the cache instead of compiling,
+ * and log the warnings the compile logged, so a broken item is reported on every load.
+ *
+ * <p>When {@code starter-pack.packaging} is set, the starter kit's items are also packed
+ * into one container per load, which grants clone instead of the items.
+ */
+public class KitManager {
+
+    /** Name of the kit built from the {@code starter-pack} section. */
+    public static final String STARTER_KIT = "starter";
+
+    /** Name of the kit built from the {@code respawn-kit} section. */
+    public static final String RESPAWN_KIT = "respawn";
+
+    /** Prefix of the kits built from {@code milestones.kits}, followed by the milestone's key. */
+    public static final String MILESTONE_KIT_PREFIX = "milestone-";
+
+    /** Prefix of the kits built from {@code onboarding.steps}, followed by the step's key. */
+    public static final String ONBOARDING_KIT_PREFIX = "onboarding-";
+
+    /** Cache file name in the data folder. */
+    private static final String CACHE_FILE = "kits.cache";
+
+    private final StarterPackPlugin plugin;
+    private final KitCache cache;
+    private volatile Kit starterKit = new Kit(STARTER_KIT, List.of(), EquipmentPlan.empty());
+    private volatile Kit respawnKit = new Kit(RESPAWN_KIT, List.of(), EquipmentPlan.empty());
+    private volatile Map<String, Kit> milestoneKits = Map.of();
+    private volatile Map<String, Kit> onboardingKits = Map.of();
+    private volatile ItemStack starterPackage;
+    private volatile long kitVersion;
+    private List<String> compileWarnings = new ArrayList<>();
+
+    public KitManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.cache = new KitCache(new File(plugin.getDataFolder(), CACHE_FILE).toPath());
+    }
+
+    /**
+     * Load kits for the current configuration, replacing the previous ones. Kits come
+     * from the cache when it matches, and are otherwise compiled and cached.
+     */
+    public void loadKits() {
+        loadOrCompileKits();
+        packStarterKit();
+    }
+
+    private void loadOrCompileKits() {
+        byte[] key = cacheKey();
+        kitVersion = key != null ? ByteBuffer.wrap(key).getLong() : 0L;
+        if (key != null && loadCachedKits(key)) {
+            return;
+        }
+
+        compileKits();
+        if (key != null) {
+            try {
+                Map<String, Kit> kits = new LinkedHashMap<>();
+                kits.put(STARTER_KIT, starterKit);
+                kits.put(RESPAWN_KIT, respawnKit);
+                for (Kit kit : milestoneKits.values()) {
+                    kits.put(kit.getName(), kit);
+                }
+                for (Kit kit : onboardingKits.values()) {
+                    kits.put(kit.getName(), kit);
+                }
+                cache.write(key, kits, compileWarnings);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to write kit cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pack the starter kit's items for {@code starter-pack.packaging}, or clear the package
+     * if packaging is off or the items do not fit
+     */
+    private void packStarterKit() {
+        KitPackaging packaging = plugin.getConfigManager().getPackaging();
+        ItemStack packed = null;
+        if (packaging != KitPackaging.NONE && !starterKit.getItems().isEmpty()) {
+            packed = packaging.pack(starterKit.getItems(), plugin.getConfigManager().getPackageName());
+            if (packed == null) {
+                plugin.getLogger().warning("starter-pack.items do not fit in one " + packaging.name().toLowerCase(Locale.ROOT)
+                    + ", giving them one slot each");
+            }
+        }
+        starterPackage = packed;
+    }
+
+    /**
+     * Use the cached kits if the cache was written for {@code key}
+     *
+     * @return whether the kits were loaded from the cache
+     */
+    private boolean loadCachedKits(byte[] key) {
+        KitCache.Contents contents;
+        try {
+            contents = cache.read(key);
+        } catch (IOException | RuntimeException e) {
+            // Any unreadable cache is rebuilt; items that no longer deserialize land here too
+            plugin.getLogger().warning("Ignoring unreadable kit cache: " + e.getMessage());
+            // Removed so it is not read and warned about again if the rewrite below fails
+            try {
+                cache.delete();
+            } catch (IOException deleteFailure) {
+                plugin.getLogger().warning("Failed to delete kit cache: " + deleteFailure.getMessage());
+            }
+            contents = null;
+        }
+        if (contents == null) {
+            return false;
+        }
+        Map<String, Kit> cached = contents.kits();
+        if (!cached.containsKey(STARTER_KIT) || !cached.containsKey(RESPAWN_KIT)) {
+            return false;
+        }
+
+        // The config has not changed, so neither have its mistakes
+        for (String warning : contents.warnings()) {
+            plugin.getLogger().warning(warning);
+        }
+
+        starterKit = cached.get(STARTER_KIT);
+        respawnKit = cached.get(RESPAWN_KIT);
+        milestoneKits = withPrefix(cached, MILESTONE_KIT_PREFIX);
+        onboardingKits = withPrefix(cached, ONBOARDING_KIT_PREFIX);
+        plugin.debugLog(() -> "Loaded kit '" + STARTER_KIT + "' from cache: " + starterKit.getItems().size()
+            + " items, " + starterKit.getEquipment().getSlots().size() + " equipment slots");
+        return true;
+    }
+
+    /**
+     * The cached kits whose names start with {@code prefix}, keyed by the rest of the name
+     */
+    private static Map<String, Kit> withPrefix(Map<String, Kit> cached, String prefix) {
+        Map<String, Kit> kits = new LinkedHashMap<>();
+        for (Map.Entry<String, Kit> entry : cached.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                kits.put(entry.getKey().substring(prefix.length()), entry.getValue());
+            }
+        }
+        return kits;
+    }
+
+    /**
+     * The cache key for the config on disk, or null if it cannot be read
+     */
+    private byte[] cacheKey() {
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        try {
+            return KitCache.key(Files.readAllBytes(configFile.toPath()),
+                plugin.getServer().getVersion(), plugin.getPluginMeta().getVersion());
+        } catch (IOException e) {
+            plugin.debugLog(() -> "Kit cache disabled, config.yml unreadable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Compile kits from the current configuration
+     */
+    private void compileKits() {
+        compileWarnings = new ArrayList<>();
+        List<ItemStack> items = compileItems("starter-pack.items", "item");
+        if (items.isEmpty()) {
+            warn("No starter pack items configured!");
+        }
+
+        EquipmentPlan equipment = compileEquipment("starter-pack.equipment");
+        if (equipment.isEmpty()) {
+            plugin.debugLog("No starter pack equipment configured");
+        }
+
+        starterKit = new Kit(STARTER_KIT, items, equipment);
+        plugin.debugLog(() -> "Compiled kit '" + STARTER_KIT + "': " + items.size() + " items, "
+            + equipment.getSlots().size() + " equipment slots");
+
+        respawnKit = new Kit(RESPAWN_KIT, compileItems("respawn-kit.items", "respawn item"),
+            compileEquipment("respawn-kit.equipment"));
+        plugin.debugLog(() -> "Compiled kit '" + RESPAWN_KIT + "': " + respawnKit.getItems().size() + " items, "
+            + respawnKit.getEquipment().getSlots().size() + " equipment slots");
+
+        milestoneKits = compileKitSection("milestones.kits", MILESTONE_KIT_PREFIX, "milestone item");
+        plugin.debugLog(() -> "Compiled " + milestoneKits.size() + " milestone kits");
+
+        onboardingKits = compileKitSection("onboarding.steps", ONBOARDING_KIT_PREFIX, "onboarding item");
+        plugin.debugLog(() -> "Compiled " + onboardingKits.size() + " onboarding kits");
+    }
+
+    /**
+     * Compile a kit from each key of a section whose entries have {@code items} and
+     * {@code equipment} lists, keyed by the section key
+     */
+    private Map<String, Kit> compileKitSection(String sectionPath, String prefix, String label) {
+        Map<String, Kit> kits = new LinkedHashMap<>();
+        ConfigurationSection section = plugin.getConfigManager().getConfig().getConfigurationSection(sectionPath);
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                String path = sectionPath + "." + key;
+                kits.put(key, new Kit(prefix + key, compileItems(path + ".items", label),
+                    compileEquipment(path + ".equipment")));
+            }
+        }
+        return kits;
+    }
+
+    /**
+     * The kit given to new players
+     */
+    public Kit getStarterKit() {
+        return starterKit;
+    }
+
+    /**
+     * The starter kit's items packed into one container, built once per kit load. Clone it
+     * before giving it out.
+     *
+     * @return the container, or null if packaging is off or the items do not fit
+     */
+    public ItemStack getStarterPackage() {
+        return starterPackage;
+    }
+
+    /**
+     * The version of the loaded kits: the leading bits of their cache key, so it changes
+     * whenever the config, server or plugin does. Zero if the config could not be read.
+     */
+    public long getKitVersion() {
+        return kitVersion;
+    }
+
+    /**
+     * The kit given on respawn when {@code respawn-kit} is enabled; empty if none is configured
+     */
+    public Kit getRespawnKit() {
+        return respawnKit;
+    }
+
+    /**
+     * The kit for a playtime milestone, by its key under {@code milestones.kits}; empty if
+     * the milestone has no items configured
+     */
+    public Kit getMilestoneKit(String milestone) {
+        Kit kit = milestoneKits.get(milestone);
+        return kit != null ? kit : new Kit(MILESTONE_KIT_PREFIX + milestone, List.of(), EquipmentPlan.empty());
+    }
+
+    /**
+     * The kit for an onboarding step, by its key under {@code onboarding.steps}; empty if
+     * the step has no items configured
+     */
+    public Kit getOnboardingKit(String step) {
+        Kit kit = onboardingKits.get(step);
+        return kit != null ? kit : new Kit(ONBOARDING_KIT_PREFIX + step, List.of(), EquipmentPlan.empty());
+    }
+
+    /**
+     * A kit by name: {@value #STARTER_KIT}, {@value #RESPAWN_KIT}, a milestone kit or an onboarding kit
+     *
+     * @return the kit, or null if no kit has that name
+     */
+    public Kit getKit(String name) {
+        if (name.equals(STARTER_KIT)) {
+            return starterKit;
+        }
+        if (name.equals(RESPAWN_KIT)) {
+            return respawnKit;
+        }
+        if (name.startsWith(MILESTONE_KIT_PREFIX)) {
+            return milestoneKits.get(name.substring(MILESTONE_KIT_PREFIX.length()));
+        }
+        if (name.startsWith(ONBOARDING_KIT_PREFIX)) {
+            return onboardingKits.get(name.substring(ONBOARDING_KIT_PREFIX.length()));
+        }
+        return null;
+    }
+
+    /**
+     * Names of the kits in use: the starter kit, the respawn kit when enabled, and any
+     * milestone or onboarding kits when those are enabled
+     */
+    public List<String> getKitNames() {
+        List<String> names = new ArrayList<>();
+        names.add(STARTER_KIT);
+        if (plugin.getConfigManager().isRespawnKitEnabled()) {
+            names.add(RESPAWN_KIT);
+        }
+        if (plugin.getConfigManager().isMilestonesEnabled()) {
+            for (Kit kit : milestoneKits.values()) {
+                names.add(kit.getName());
+            }
+        }
+        if (plugin.getConfigManager().isOnboardingEnabled()) {
+            for (Kit kit : onboardingKits.values()) {
+                names.add(kit.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Compile an equipment list into a slot plan
+     */
+    private EquipmentPlan compileEquipment(String path) {
+        Map<EquipmentSlot, ItemStack> slots = new EnumMap<>(EquipmentSlot.class);
+        List<ItemStack> unslotted = new ArrayList<>();
+
+        List<?> equipmentList = plugin.getConfigManager().getConfig().getList(path);
+        if (equipmentList == null) {
+            return EquipmentPlan.empty();
+        }
+
+        for (int i = 0; i < equipmentList.size(); i++) {
+            Map<String, Object> itemMap = asItemMap(equipmentList.get(i), i, "equipment");
+            if (itemMap == null) {
+                continue;
+            }
+
+            ItemStack item;
+            try {
+                item = createItemFromMap(itemMap);
+            } catch (Exception e) {
+                warn("Failed to create equipment item from config index " + i + ": " + e.getMessage());
+                continue;
+            }
+            if (item == null) {
+                continue;
+            }
+
+            EquipmentSlot slot = resolveSlot(itemMap.get("slot"), item.getType(), i);
+            if (slot == null) {
+                unslotted.add(item);
+                continue;
+            }
+
+            ItemStack previous = slots.put(slot, item);
+            if (previous != null) {
+                warn("Equipment slot " + slot + " is configured more than once; giving "
+                    + previous.getType() + " as an inventory item instead");
+                unslotted.add(previous);
+            }
+        }
+
+        return new EquipmentPlan(slots, unslotted);
+    }
+
+    /**
+     * Work out an equipment item's slot from its {@code slot} key, or from its material
+     * when no slot is configured. Returns null when the item belongs in the inventory.
+     */
+    private EquipmentSlot resolveSlot(Object configuredSlot, Material material, int index) {
+        if (configuredSlot instanceof String slotName) {
+            switch (slotName.toLowerCase()) {
+                case "helmet":
+                    return EquipmentSlot.HEAD;
+                case "chestplate":
+                    return EquipmentSlot.CHEST;
+                case "leggings":
+                    return EquipmentSlot.LEGS;
+                case "boots":
+                    return EquipmentSlot.FEET;
+                case "mainhand":
+                    return EquipmentSlot.HAND;
+                case "offhand":
+                    return EquipmentSlot.OFF_HAND;
+                default:
+                    warn("Unknown equipment slot at index " + index + ": " + slotName);
+                    return null;
+            }
+        }
+
+        String name = material.name();
+        if (name.contains("_HELMET")) {
+            return EquipmentSlot.HEAD;
+        } else if (name.contains("_CHESTPLATE")) {
+            return EquipmentSlot.CHEST;
+        } else if (name.contains("_LEGGINGS")) {
+            return EquipmentSlot.LEGS;
+        } else if (name.contains("_BOOTS")) {
+            return EquipmentSlot.FEET;
+        } else if (StarterPackManager.isWeaponOrTool(material)) {
+            return EquipmentSlot.HAND;
+        }
+        return null;
+    }
+
+    /**
+     * Compile a list of item maps into items
+     */
+    private List<ItemStack> compileItems(String path, String label) {
+        List<ItemStack> items = new ArrayList<>();
+
+        List<?> itemsList = plugin.getConfigManager().getConfig().getList(path);
+        if (itemsList == null) {
+            return items;
+        }
+
+        for (int i = 0; i < itemsList.size(); i++) {
+            Map<String, Object> itemMap = asItemMap(itemsList.get(i), i, label);
+            if (itemMap == null) {
+                continue;
+            }
+
+            try {
+                ItemStack item = createItemFromMap(itemMap);
+                if (item != null) {
+                    items.add(item);
+                }
+            } catch (Exception e) {
+                warn("Failed to create " + label + " from config index " + i + ": " + e.getMessage());
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Each list entry should be a map (ConfigurationSection)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> asItemMap(Object itemObj, int index, String label) {
+        if (itemObj instanceof Map) {
+            return (Map<String, Object>) itemObj;
+        }
+        warn("Invalid " + label + " configuration at index " + index + ": expected map, got "
+            + (itemObj == null ? "nothing" : itemObj.getClass().getSimpleName()));
+        return null;
+    }
+
+    /**
+     * Create an ItemStack from a map (YAML list item)
+     */
+    ItemStack createItemFromMap(Map<String, Object> itemMap) {
+        String materialName = (String) itemMap.get("material");
+        if (materialName == null) {
+            warn("Missing material in item configuration");
+            return null;
+        }
+
+        Material material;
+        try {
+            material = Material.valueOf(materialName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            warn("Invalid material: " + materialName);
+            return null;
+        }
+
+        int amount = 1;
+        if (itemMap.containsKey("amount")) {
+            Object amountObj = itemMap.get("amount");
+            if (amountObj instanceof Number) {
+                amount = ((Number) amountObj).intValue();
+            }
+        }
+
+        ItemStack item = new ItemStack(material, amount);
+
+        // Set custom name, lore and enchantments
+        if (itemMap.containsKey("name") || itemMap.containsKey("lore") || itemMap.containsKey("enchantments")) {
+            ItemMeta meta = item.getItemMeta();
+            if (meta != null) {
+                // Set display name
+                if (itemMap.containsKey("name")) {
+                    String name = (String) itemMap.get("name");
+                    Component displayName = LegacyComponentSerializer.legacyAmpersand().deserialize(name);
+                    meta.displayName(displayName);
+                }
+
+                // Set lore
+                if (itemMap.containsKey("lore")) {
+                    Object loreObj = itemMap.get("lore");
+                    if (loreObj instanceof List) {
+                        @SuppressWarnings("unchecked")
+                        List<String> loreList = (List<String>) loreObj;
+                        List<Component> coloredLore = new ArrayList<>();
+                        for (String line : loreList) {
+                            coloredLore.add(LegacyComponentSerializer.legacyAmpersand().deserialize(line));
+                        }
+                        meta.lore(coloredLore);
+                    }
+                }
+
+                // Add enchantments
+                if (itemMap.containsKey("enchantments")) {
+                    Object enchantObj = itemMap.get("enchantments");
+                    if (enchantObj instanceof Map) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> enchantMap = (Map<String, Object>) enchantObj;
+
+                        for (Map.Entry<String, Object> enchantEntry : enchantMap.entrySet()) {
+                            String enchantName = enchantEntry.getKey();
+                            Object levelObj = enchantEntry.getValue();
+
+                            try {
+                                Enchantment enchant = Enchantment.getByKey(NamespacedKey.minecraft(enchantName.toLowerCase()));
+                                if (enchant != null) {
+                                    int level = 1;
+                                    if (levelObj instanceof Number) {
+                                        level = ((Number) levelObj).intValue();
+                                    }
+                                    meta.addEnchant(enchant, level, true);
+                                } else {
+                                    warn("Unknown enchantment: " + enchantName);
+                                }
+                            } catch (Exception e) {
+                                warn("Failed to apply enchantment " + enchantName + ": " + e.getMessage());
+                            }
+                        }
+                    }
+                }
+
+                item.setItemMeta(meta);
+            }
+        }
+
+        return item;
+    }
+
+    /**
+     * Log a problem found compiling the config, and keep it for the cache
+     */
+    private void warn(String message) {
+        compileWarnings.add(message);
+        plugin.getLogger().warning(message);
+    }
+}
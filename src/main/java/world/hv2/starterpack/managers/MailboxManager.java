@@ -0,0 +1,165 @@
+package world.hv2.starterpack.managers;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Starter packs given to players who were offline, waiting for their next join.
+ *
+ * <p>Pending players are held in a hash set, so the check every join makes is a single
+ * probe that allocates nothing. The set is saved to the data folder as 16 bytes per
+ * player, so a queued pack survives a restart. A change only marks the mailbox dirty: a
+ * second later it is copied on the main thread and written in the background, so a bulk
+ * give writes the file once and no write blocks a tick. {@link #flush()} writes anything
+ * still unsaved at once, on disable. Main thread only, apart from those writes.
+ */
+public class MailboxManager {
+
+    /** Mailbox file name in the data folder. */
+    private static final String MAILBOX_FILE = "mailbox.dat";
+    /** Ticks between the first unsaved change and the save that collects it. */
+    static final long SAVE_DELAY = 20L;
+
+    private final StarterPackPlugin plugin;
+    private final Set<UUID> pending = new HashSet<>();
+    private final Path mailboxFile;
+
+    // Main thread: changes made so far, and whether a save is on its way
+    private long changes;
+    private boolean saveScheduled;
+    // The changes the file holds; guarded by this, as is the file itself
+    private long savedChanges;
+
+    public MailboxManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.mailboxFile = new File(plugin.getDataFolder(), MAILBOX_FILE).toPath();
+    }
+
+    /**
+     * Whether a starter pack is waiting for this player
+     */
+    public boolean hasPending(UUID player) {
+        return pending.contains(player);
+    }
+
+    /**
+     * Queue a starter pack for an offline player
+     *
+     * @return false if one was already queued
+     */
+    public boolean enqueue(UUID player) {
+        if (!pending.add(player)) {
+            return false;
+        }
+        markDirty();
+        return true;
+    }
+
+    /**
+     * Take a player's queued starter pack out of the mailbox
+     *
+     * @return whether one was queued
+     */
+    public boolean take(UUID player) {
+        if (!pending.remove(player)) {
+            return false;
+        }
+        markDirty();
+        return true;
+    }
+
+    /**
+     * Number of starter packs waiting
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Load the mailbox from the data folder. A missing file means it is empty.
+     */
+    public void load() {
+        pending.clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(mailboxFile)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                pending.add(new UUID(in.readLong(), in.readLong()));
+            }
+            plugin.debugLog(() -> "Loaded " + pending.size() + " queued starter packs");
+        } catch (NoSuchFileException e) {
+            // Nothing has been queued yet
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load starter pack mailbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write any unsaved changes now, on the calling thread, e.g. on disable
+     */
+    public void flush() {
+        write(snapshot(), changes);
+    }
+
+    /**
+     * Save the mailbox in the background once the current burst of changes is over
+     */
+    private void markDirty() {
+        changes++;
+        if (!saveScheduled) {
+            saveScheduled = true;
+            plugin.getServer().getScheduler().runTaskLater(plugin, this::saveAsync, SAVE_DELAY);
+        }
+    }
+
+    private void saveAsync() {
+        saveScheduled = false;
+        byte[] contents = snapshot();
+        long upTo = changes;
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> write(contents, upTo));
+    }
+
+    /**
+     * The mailbox as saved: a count, then each player's UUID as two longs
+     */
+    private byte[] snapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + pending.size() * 2 * Long.BYTES);
+        buffer.putInt(pending.size());
+        for (UUID player : pending) {
+            buffer.putLong(player.getMostSignificantBits());
+            buffer.putLong(player.getLeastSignificantBits());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Replace the file with a snapshot, unless it already holds one as recent
+     *
+     * @param upTo the number of changes the snapshot includes
+     */
+    private synchronized void write(byte[] contents, long upTo) {
+        if (upTo <= savedChanges) {
+            return;
+        }
+        try {
+            Files.createDirectories(mailboxFile.getParent());
+            Path temp = mailboxFile.resolveSibling(MAILBOX_FILE + ".tmp");
+            Files.write(temp, contents);
+            Files.move(temp, mailboxFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            savedChanges = upTo;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save starter pack mailbox: " + e.getMessage());
+        }
+    }
+}
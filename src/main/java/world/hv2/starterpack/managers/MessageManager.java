@@ -0,0 +1,244 @@
+package world.hv2.starterpack.managers;
+
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.messages.BroadcastScope;
+import world.hv2.starterpack.messages.MessageBundle;
+import world.hv2.starterpack.messages.MessageCatalog;
+import world.hv2.starterpack.messages.MessageTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles the welcome and broadcast messages per locale and delivers them to the
+ * configured broadcast scope
+ *
+ * <p>Who may receive a broadcast is worked out per player when it can change, not per
+ * broadcast: on join and quit, when they mute or unmute, change language or may have had
+ * their permissions changed, and for everyone on reload. Recipients are kept grouped by
+ * the message bundle they read, each group behind one {@link Audience} over a live set, so
+ * a global broadcast is one {@code sendMessage} per language with no permission checks.
+ * Broadcast state is confined to the main thread.
+ */
+public class MessageManager {
+
+    /** Broadcast recipients who read the same bundle, addressed as one audience. */
+    private static final class Recipients {
+        final Set<Player> players = new LinkedHashSet<>();
+        final Audience audience = Audience.audience(players);
+    }
+
+    private final StarterPackPlugin plugin;
+    private final NamespacedKey broadcastsMutedKey;
+    private final Set<UUID> mutedBroadcasts = ConcurrentHashMap.newKeySet();
+    private volatile MessageCatalog catalog = new MessageCatalog(
+        new MessageBundle(MessageTemplate.compile(null), MessageTemplate.compile(null)), Map.of());
+    private final Map<UUID, MessageBundle> recipientBundles = new HashMap<>();
+    private final Map<MessageBundle, Recipients> recipients = new IdentityHashMap<>();
+
+    public MessageManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.broadcastsMutedKey = new NamespacedKey(plugin, "broadcasts_muted");
+    }
+
+    /**
+     * Compile the configured messages and their translations, replacing the previous ones
+     */
+    public void loadMessages() {
+        ConfigManager config = plugin.getConfigManager();
+        MessageBundle defaults = new MessageBundle(
+            MessageTemplate.compile(config.getWelcomeMessage()),
+            MessageTemplate.compile(config.getBroadcastMessage()));
+
+        Map<String, MessageBundle> bundles = new HashMap<>();
+        ConfigurationSection locales = config.getConfig().getConfigurationSection("starter-pack.locales");
+        if (locales != null) {
+            for (String key : locales.getKeys(false)) {
+                ConfigurationSection section = locales.getConfigurationSection(key);
+                if (section == null) {
+                    plugin.getLogger().warning("Invalid locale configuration for '" + key + "': expected a section");
+                    continue;
+                }
+                bundles.put(MessageCatalog.normalize(key), new MessageBundle(
+                    compileOr(section.getString("welcome-message"), defaults.welcome()),
+                    compileOr(section.getString("broadcast-message"), defaults.broadcast())));
+            }
+        }
+
+        catalog = new MessageCatalog(defaults, bundles);
+        plugin.debugLog(() -> "Compiled messages for " + bundles.size() + " locales");
+        refreshRecipients();
+    }
+
+    /**
+     * Send the welcome message to a player in their own language
+     */
+    public void sendWelcome(Player player) {
+        MessageTemplate welcome = catalog.forLocale(player.locale()).welcome();
+        if (!welcome.isEmpty()) {
+            player.sendMessage(welcome.render(player.getName()));
+        }
+    }
+
+    /**
+     * Announce a player's starter pack to the configured broadcast scope. Each group of
+     * recipients reading the same bundle is one {@link Audience} sent one component
+     * rendered once; for the global scope those audiences are the cached ones.
+     */
+    public void broadcastStarterPack(Player player) {
+        String name = player.getName();
+        ConfigManager config = plugin.getConfigManager();
+        if (config.getBroadcastScope() == BroadcastScope.GLOBAL) {
+            for (Map.Entry<MessageBundle, Recipients> group : recipients.entrySet()) {
+                if (!group.getValue().players.isEmpty()) {
+                    group.getValue().audience.sendMessage(group.getKey().broadcast().render(name));
+                }
+            }
+        } else {
+            Map<MessageBundle, List<Player>> groups = new IdentityHashMap<>();
+            for (Player candidate : scopedCandidates(player, config)) {
+                MessageBundle bundle = recipientBundles.get(candidate.getUniqueId());
+                if (bundle != null) {
+                    groups.computeIfAbsent(bundle, b -> new ArrayList<>()).add(candidate);
+                }
+            }
+            for (Map.Entry<MessageBundle, List<Player>> group : groups.entrySet()) {
+                Audience.audience(group.getValue()).sendMessage(group.getKey().broadcast().render(name));
+            }
+        }
+
+        MessageTemplate consoleBroadcast = catalog.defaults().broadcast();
+        if (!consoleBroadcast.isEmpty()) {
+            plugin.getServer().getConsoleSender().sendMessage(consoleBroadcast.render(name));
+        }
+    }
+
+    /**
+     * The players a world or radius broadcast about {@code player} could reach, before
+     * checking which of them are recipients
+     */
+    private Collection<? extends Player> scopedCandidates(Player player, ConfigManager config) {
+        if (config.getBroadcastScope() == BroadcastScope.WORLD) {
+            return player.getWorld().getPlayers();
+        }
+        double radius = config.getBroadcastRadius();
+        Location origin = player.getLocation();
+        double radiusSquared = radius * radius;
+        // getNearbyPlayers searches a box; trim its corners to a sphere
+        return player.getWorld().getNearbyPlayers(origin, radius).stream()
+            .filter(nearby -> nearby.getLocation().distanceSquared(origin) <= radiusSquared)
+            .toList();
+    }
+
+    /**
+     * Work out again whether a player receives broadcasts, and in which language, e.g.
+     * when they join or their permissions may have changed
+     */
+    public void updateRecipient(Player player) {
+        updateRecipient(player, player.locale());
+    }
+
+    /**
+     * Work out again whether a player receives broadcasts, reading them in {@code locale},
+     * e.g. when their client reports a new language before the player reflects it
+     */
+    public void updateRecipient(Player player, Locale locale) {
+        removeRecipient(player);
+        ConfigManager config = plugin.getConfigManager();
+        if (config.isBroadcastOptOutAllowed() && mutedBroadcasts.contains(player.getUniqueId())) {
+            return;
+        }
+        String permission = config.getBroadcastPermission();
+        if (!permission.isEmpty() && !player.hasPermission(permission)) {
+            return;
+        }
+        MessageBundle bundle = catalog.forLocale(locale);
+        if (!bundle.broadcast().isEmpty()) {
+            recipientBundles.put(player.getUniqueId(), bundle);
+            recipients.computeIfAbsent(bundle, b -> new Recipients()).players.add(player);
+        }
+    }
+
+    /**
+     * Stop sending broadcasts to a player, e.g. when they quit
+     */
+    public void removeRecipient(Player player) {
+        MessageBundle bundle = recipientBundles.remove(player.getUniqueId());
+        if (bundle != null) {
+            recipients.get(bundle).players.remove(player);
+        }
+    }
+
+    /**
+     * Work out every online player's broadcasts again, e.g. after the config or messages
+     * were reloaded
+     */
+    public void refreshRecipients() {
+        recipientBundles.clear();
+        recipients.clear();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            updateRecipient(player);
+        }
+    }
+
+    /**
+     * Load a player's broadcast preference, e.g. when they join
+     */
+    public void loadBroadcastPreference(Player player) {
+        if (player.getPersistentDataContainer().has(broadcastsMutedKey, PersistentDataType.BYTE)) {
+            mutedBroadcasts.add(player.getUniqueId());
+        } else {
+            mutedBroadcasts.remove(player.getUniqueId());
+        }
+        updateRecipient(player);
+    }
+
+    /**
+     * Forget a player's cached broadcast preference, e.g. when they quit
+     */
+    public void unloadBroadcastPreference(Player player) {
+        mutedBroadcasts.remove(player.getUniqueId());
+        removeRecipient(player);
+    }
+
+    /**
+     * Whether a player has muted starter pack broadcasts
+     */
+    public boolean hasMutedBroadcasts(Player player) {
+        return mutedBroadcasts.contains(player.getUniqueId());
+    }
+
+    /**
+     * Mute or unmute starter pack broadcasts for a player; the choice persists across sessions
+     */
+    public void setBroadcastsMuted(Player player, boolean muted) {
+        if (muted) {
+            player.getPersistentDataContainer().set(broadcastsMutedKey, PersistentDataType.BYTE, (byte) 1);
+            mutedBroadcasts.add(player.getUniqueId());
+        } else {
+            player.getPersistentDataContainer().remove(broadcastsMutedKey);
+            mutedBroadcasts.remove(player.getUniqueId());
+        }
+        updateRecipient(player);
+    }
+
+    private static MessageTemplate compileOr(String legacy, MessageTemplate fallback) {
+        return legacy == null ? fallback : MessageTemplate.compile(legacy);
+    }
+}
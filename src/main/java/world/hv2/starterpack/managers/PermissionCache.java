@@ -0,0 +1,137 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers each online player's answer for the plugin's own permissions, so joins,
+ * grants, the {@code /starterpack} use check and every tab completion keystroke ask the
+ * permission plugin at most once per player until something may have changed. Running an
+ * admin command is not a hot path and checks {@code starterpack.admin} live; a cached
+ * {@link Node#ADMIN} answer only decides which suggestions tab completion offers.
+ *
+ * <p>A player's decisions are packed into one int: a known bit and an allowed bit per
+ * {@link Node}, with a version in the high bits that {@link #invalidate} bumps. A decision
+ * raced by an invalidation is returned but not stored, so a stale answer is never cached.
+ * Senders other than tracked players are asked directly. Safe to use from any thread,
+ * since tab completion runs asynchronously.
+ */
+public class PermissionCache {
+
+    /** The permissions worth caching. */
+    public enum Node {
+        USE("starterpack.use"),
+        ADMIN("starterpack.admin"),
+        BYPASS("starterpack.bypass");
+
+        private final String permission;
+
+        Node(String permission) {
+            this.permission = permission;
+        }
+
+        public String getPermission() {
+            return permission;
+        }
+
+        private int knownBit() {
+            return 1 << (ordinal() * 2);
+        }
+
+        private int allowedBit() {
+            return 1 << (ordinal() * 2 + 1);
+        }
+    }
+
+    private static final int DECISION_MASK = 0xFFFF;
+    private static final int VERSION_STEP = 1 << 16;
+
+    private final Map<UUID, AtomicInteger> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * Start caching for a player, dropping anything remembered from an earlier session
+     */
+    public void track(Player player) {
+        decisions.put(player.getUniqueId(), new AtomicInteger());
+    }
+
+    /**
+     * Stop caching for a player who has left
+     */
+    public void forget(Player player) {
+        decisions.remove(player.getUniqueId());
+    }
+
+    /**
+     * Forget every player's decisions, e.g. after a reload
+     */
+    public void invalidateAll() {
+        for (AtomicInteger state : decisions.values()) {
+            clear(state);
+        }
+    }
+
+    /**
+     * Forget a player's decisions because their permissions may have changed
+     *
+     * @return whether their {@link Node#USE} or {@link Node#ADMIN} answer changed, which
+     *         means the command tree they were sent is out of date
+     */
+    public boolean invalidate(Player player) {
+        AtomicInteger state = decisions.get(player.getUniqueId());
+        if (state == null) {
+            return false;
+        }
+        int before = clear(state);
+        return changed(player, Node.USE, before) || changed(player, Node.ADMIN, before);
+    }
+
+    /**
+     * Whether the sender has the node's permission, asking the permission plugin only
+     * if the answer is not cached
+     */
+    public boolean has(CommandSender sender, Node node) {
+        if (!(sender instanceof Player player)) {
+            return sender.hasPermission(node.permission);
+        }
+        AtomicInteger state = decisions.get(player.getUniqueId());
+        if (state == null) {
+            return player.hasPermission(node.permission);
+        }
+
+        int current = state.get();
+        if ((current & node.knownBit()) != 0) {
+            return (current & node.allowedBit()) != 0;
+        }
+        boolean allowed = player.hasPermission(node.permission);
+        // Fails if the entry changed meanwhile; the answer is then simply not kept
+        state.compareAndSet(current, current | node.knownBit() | (allowed ? node.allowedBit() : 0));
+        return allowed;
+    }
+
+    /**
+     * Clear the decisions and bump the version
+     *
+     * @return the state before clearing
+     */
+    private static int clear(AtomicInteger state) {
+        while (true) {
+            int current = state.get();
+            if (state.compareAndSet(current, (current & ~DECISION_MASK) + VERSION_STEP)) {
+                return current;
+            }
+        }
+    }
+
+    private boolean changed(Player player, Node node, int before) {
+        if ((before & node.knownBit()) == 0) {
+            return false;
+        }
+        return has(player, node) != ((before & node.allowedBit()) != 0);
+    }
+}
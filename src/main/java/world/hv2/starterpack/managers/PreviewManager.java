@@ -0,0 +1,62 @@
+package world.hv2.starterpack.managers;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.kits.KitPreview;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one shared {@link KitPreview} per kit, so {@code /starterpack preview} opens the
+ * same inventory for every viewer instead of building a chest per open. A view is rebuilt
+ * only when its kit has been recompiled. Main thread only.
+ */
+public class PreviewManager {
+
+    private final StarterPackPlugin plugin;
+    private final Map<String, KitPreview> previews = new HashMap<>();
+
+    public PreviewManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Open the named kit's preview for a player
+     *
+     * @return false if there is no kit by that name
+     */
+    public boolean open(Player player, String kitName) {
+        Kit kit = plugin.getKitManager().getKit(kitName);
+        if (kit == null) {
+            return false;
+        }
+
+        KitPreview preview = previews.get(kitName);
+        if (preview == null || preview.getKit() != kit) {
+            if (preview != null) {
+                preview.closeAll();
+            }
+            preview = new KitPreview(plugin.getServer(), kit,
+                Component.text("Kit preview: " + kitName, NamedTextColor.DARK_GREEN));
+            previews.put(kitName, preview);
+            plugin.debugLog(() -> "Built preview for kit '" + kitName + "'");
+        }
+        preview.open(player);
+        return true;
+    }
+
+    /**
+     * Drop every view and close it for its viewers, after kits are reloaded
+     */
+    public void invalidate() {
+        for (KitPreview preview : previews.values()) {
+            preview.closeAll();
+        }
+        previews.clear();
+    }
+}
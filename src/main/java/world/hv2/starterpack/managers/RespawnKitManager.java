@@ -0,0 +1,127 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.entity.Player;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.util.CooldownMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Gives the respawn kit and tracks each player's cooldown for it. Cooldowns live in a
+ * {@link CooldownMap} and are saved to the data folder on shutdown, so a restart does not
+ * hand everyone a fresh kit.
+ */
+public class RespawnKitManager {
+
+    /** Cooldown file name in the data folder. */
+    private static final String COOLDOWN_FILE = "respawn-cooldowns.dat";
+
+    private final StarterPackPlugin plugin;
+    private final CooldownMap cooldowns = new CooldownMap();
+    private final Path cooldownFile;
+
+    public RespawnKitManager(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.cooldownFile = new File(plugin.getDataFolder(), COOLDOWN_FILE).toPath();
+    }
+
+    /**
+     * Give the respawn kit if it is enabled, the player qualifies, and their cooldown has ended
+     *
+     * @return whether the kit was given
+     */
+    public boolean giveRespawnKit(Player player) {
+        ConfigManager config = plugin.getConfigManager();
+        if (!config.isRespawnKitEnabled()) {
+            return false;
+        }
+
+        Kit kit = plugin.getKitManager().getRespawnKit();
+        if (kit.getItems().isEmpty() && kit.getEquipment().isEmpty()) {
+            return false;
+        }
+
+        if (config.isRespawnKitOnlyIfEmpty() && !player.getInventory().isEmpty()) {
+            plugin.debugLog(() -> "Player " + player.getName() + " respawned with items, not giving respawn kit");
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        long remaining = cooldowns.remaining(player.getUniqueId(), now);
+        if (remaining > 0) {
+            plugin.debugLog(() -> "Respawn kit for " + player.getName() + " is on cooldown for " + (remaining / 1000L) + "s");
+            return false;
+        }
+
+        try {
+            plugin.getStarterPackManager().deliverKit(player, kit);
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error giving respawn kit to " + player.getName() + ": " + e.getMessage());
+            return false;
+        }
+
+        long cooldown = config.getRespawnKitCooldownMillis();
+        if (cooldown > 0) {
+            cooldowns.put(player.getUniqueId(), now + cooldown, now);
+        }
+        plugin.debugLog(() -> "Gave respawn kit to " + player.getName());
+        return true;
+    }
+
+    /**
+     * Milliseconds left on a player's respawn kit cooldown, or zero
+     */
+    public long getRemainingCooldown(Player player) {
+        return cooldowns.remaining(player.getUniqueId(), System.currentTimeMillis());
+    }
+
+    /**
+     * Clear a player's respawn kit cooldown
+     */
+    public boolean resetCooldown(Player player) {
+        return cooldowns.remove(player.getUniqueId());
+    }
+
+    /**
+     * Load cooldowns saved by {@link #saveCooldowns()}. A missing file means none are running.
+     */
+    public void loadCooldowns() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cooldownFile)))) {
+            cooldowns.read(in, System.currentTimeMillis());
+            plugin.debugLog(() -> "Loaded " + cooldowns.size() + " respawn kit cooldowns");
+        } catch (NoSuchFileException e) {
+            cooldowns.clear();
+        } catch (IOException e) {
+            cooldowns.clear();
+            plugin.getLogger().warning("Failed to load respawn kit cooldowns: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save the cooldowns still running. Ended ones are dropped, so the file only grows
+     * with players actually cooling down.
+     */
+    public void saveCooldowns() {
+        try {
+            Files.createDirectories(cooldownFile.getParent());
+            Path temp = cooldownFile.resolveSibling(COOLDOWN_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                cooldowns.write(out, System.currentTimeMillis());
+            }
+            Files.move(temp, cooldownFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save respawn kit cooldowns: " + e.getMessage());
+        }
+    }
+}
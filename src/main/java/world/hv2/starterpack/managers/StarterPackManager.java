@@ -2,21 +2,21 @@ package world.hv2.starterpack.managers;
 
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.persistence.PersistentDataType;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.api.GrantCause;
+import world.hv2.starterpack.api.GrantResult;
+import world.hv2.starterpack.api.StarterPackGrantEvent;
+import world.hv2.starterpack.kits.EquipmentPlan;
+import world.hv2.starterpack.kits.Kit;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -49,9 +49,23 @@ public class StarterPackManager {
             return true;
         }
         
+        // Granted on another server and imported; applied now rather than at import
+        if (plugin.getGrantLedger().takeImported(player)) {
+            markPlayerAsReceived(player);
+            plugin.debugLog(() -> "Applied imported starter pack status for " + player.getName());
+            return true;
+        }
+        
         return false;
     }
     
+    /**
+     * The persistent data key that marks a player as having received their starter pack
+     */
+    public NamespacedKey getReceivedKey() {
+        return starterPackKey;
+    }
+    
     /**
      * Mark a player as having received their starter pack
      */
@@ -71,29 +85,46 @@ public class StarterPackManager {
      * Give starter pack to a player with optional equipment
      */
     public boolean giveStarterPackWithEquipment(Player player, boolean equipItems) {
+        return grant(player, equipItems, true, GrantCause.FIRST_JOIN) == GrantResult.GRANTED;
+    }
+    
+    /**
+     * Give the starter pack, firing a {@link StarterPackGrantEvent} that may veto it or
+     * change its items, and record it
+     *
+     * @param equipItems     whether to equip the kit if the player has no equipment
+     * @param ignoreReceived whether to give it to a player who already received one
+     * @param cause          why the pack is being given, for event listeners
+     */
+    public GrantResult grant(Player player, boolean equipItems, boolean ignoreReceived, GrantCause cause) {
         if (!plugin.getConfigManager().isStarterPackEnabled()) {
-            plugin.debugLog("Starter pack is disabled, not giving to " + player.getName());
-            return false;
+            plugin.debugLog(() -> "Starter pack is disabled, not giving to " + player.getName());
+            return GrantResult.DISABLED;
         }
 
         // Check if player has bypass permission
-        if (player.hasPermission("starterpack.bypass")) {
-            plugin.debugLog("Player " + player.getName() + " has bypass permission, not giving starter pack");
-            return false;
+        if (plugin.getPermissionCache().has(player, PermissionCache.Node.BYPASS)) {
+            plugin.debugLog(() -> "Player " + player.getName() + " has bypass permission, not giving starter pack");
+            return GrantResult.BYPASSED;
+        }
+
+        if (!ignoreReceived && hasReceivedStarterPack(player)) {
+            return GrantResult.ALREADY_RECEIVED;
         }
 
         try {
-            List<ItemStack> items = createStarterPackItems();
+            // Let other plugins veto the grant or change its items
+            StarterPackGrantEvent event = new StarterPackGrantEvent(player, cause, starterItems());
+            plugin.getServer().getPluginManager().callEvent(event);
+            if (event.isCancelled()) {
+                plugin.debugLog(() -> "Starter pack for " + player.getName() + " was cancelled by a listener");
+                return GrantResult.CANCELLED;
+            }
             
-            // Give items to player
-            for (ItemStack item : items) {
+            // Give items to player, dropping any that don't fit
+            for (ItemStack item : event.getItems()) {
                 if (item != null) {
-                    // Try to add to inventory, drop if full
-                    if (player.getInventory().firstEmpty() != -1) {
-                        player.getInventory().addItem(item);
-                    } else {
-                        player.getWorld().dropItem(player.getLocation(), item);
-                    }
+                    addToInventoryOrDrop(player, item);
                 }
             }
             
@@ -104,29 +135,42 @@ public class StarterPackManager {
             
             // Mark player as received
             markPlayerAsReceived(player);
+            plugin.getAltFilterManager().recordGrant(player);
+            plugin.getGrantLedger().record(player);
+            plugin.getOnboardingDrip().enroll(player);
             
             // Send welcome message
-            String welcomeMessage = plugin.getConfigManager().getWelcomeMessage();
-            welcomeMessage = welcomeMessage.replace("{player}", player.getName());
-            plugin.sendMessage(player, welcomeMessage);
+            plugin.getMessageManager().sendWelcome(player);
             
             // Broadcast if enabled
             if (plugin.getConfigManager().isBroadcastEnabled()) {
-                String broadcastMessage = plugin.getConfigManager().getBroadcastMessage();
-                broadcastMessage = broadcastMessage.replace("{player}", player.getName());
-                plugin.broadcastMessage(broadcastMessage);
+                plugin.getMessageManager().broadcastStarterPack(player);
             }
             
-            plugin.debugLog("Successfully gave starter pack to " + player.getName());
-            return true;
+            plugin.debugLog(() -> "Successfully gave starter pack to " + player.getName());
+            return GrantResult.GRANTED;
             
         } catch (Exception e) {
             plugin.getLogger().severe("Error giving starter pack to " + player.getName() + ": " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return GrantResult.FAILED;
         }
     }
     
+    /**
+     * Fresh copies of the starter pack's items: the one packaged container when
+     * {@code starter-pack.packaging} is set and the items fit, otherwise each item
+     */
+    private List<ItemStack> starterItems() {
+        ItemStack packaged = plugin.getKitManager().getStarterPackage();
+        if (packaged == null) {
+            return plugin.getKitManager().getStarterKit().copyItems();
+        }
+        List<ItemStack> items = new ArrayList<>(1);
+        items.add(packaged.clone());
+        return items;
+    }
+    
     /**
      * Check if player has any armor or tools equipped
      */
@@ -137,17 +181,17 @@ public class StarterPackManager {
         ItemStack leggings = player.getInventory().getLeggings();
         ItemStack boots = player.getInventory().getBoots();
         
-        if (helmet != null && !helmet.getType().isAir()) return true;
-        if (chestplate != null && !chestplate.getType().isAir()) return true;
-        if (leggings != null && !leggings.getType().isAir()) return true;
-        if (boots != null && !boots.getType().isAir()) return true;
+        if (helmet != null && !helmet.isEmpty()) return true;
+        if (chestplate != null && !chestplate.isEmpty()) return true;
+        if (leggings != null && !leggings.isEmpty()) return true;
+        if (boots != null && !boots.isEmpty()) return true;
         
         // Check main hand and off hand
         ItemStack mainHand = player.getInventory().getItemInMainHand();
         ItemStack offHand = player.getInventory().getItemInOffHand();
         
-        if (mainHand != null && !mainHand.getType().isAir() && isWeaponOrTool(mainHand.getType())) return true;
-        if (offHand != null && !offHand.getType().isAir() && isWeaponOrTool(offHand.getType())) return true;
+        if (mainHand != null && !mainHand.isEmpty() && isWeaponOrTool(mainHand.getType())) return true;
+        if (offHand != null && !offHand.isEmpty() && isWeaponOrTool(offHand.getType())) return true;
         
         return false;
     }
@@ -155,7 +199,7 @@ public class StarterPackManager {
     /**
      * Check if a material is a weapon or tool
      */
-    private boolean isWeaponOrTool(Material material) {
+    static boolean isWeaponOrTool(Material material) {
         String name = material.name();
         return name.contains("_SWORD") || name.contains("_AXE") || name.contains("_PICKAXE") || 
                name.contains("_SHOVEL") || name.contains("_HOE") || name.contains("BOW") || 
@@ -163,19 +207,15 @@ public class StarterPackManager {
     }
     
     /**
-     * Equip starter items on player
+     * Equip starter items on player. Anything already in a slot the kit equips is moved
+     * to the inventory rather than overwritten, so the same call serves both equip and
+     * force; callers that should leave geared players alone check
+     * {@link #hasAnyEquipment(Player)} first.
      */
     public boolean equipStarterItems(Player player) {
         try {
-            List<ItemStack> equipmentItems = createStarterEquipmentItems();
-            
-            for (ItemStack item : equipmentItems) {
-                if (item != null) {
-                    equipItemOnPlayer(player, item);
-                }
-            }
-            
-            plugin.debugLog("Successfully equipped starter items on " + player.getName());
+            applyEquipment(player);
+            plugin.debugLog(() -> "Successfully equipped starter items on " + player.getName());
             return true;
             
         } catch (Exception e) {
@@ -186,153 +226,35 @@ public class StarterPackManager {
     }
     
     /**
-     * Force equip items on player, overriding existing equipment
+     * Give a kit's items and equipment the way a starter pack is given: items go to the
+     * inventory or drop at the player's feet when it is full, and equipment displaces
+     * whatever it replaces into the inventory. Unlike a starter pack, nothing is recorded
+     * and no message is sent.
      */
-    public boolean forceEquipStarterItems(Player player) {
-        try {
-            List<ItemStack> equipmentItems = createStarterEquipmentItems();
-            
-            // First, move existing equipment to inventory if possible
-            moveEquipmentToInventory(player);
-            
-            for (ItemStack item : equipmentItems) {
-                if (item != null) {
-                    equipItemOnPlayer(player, item);
-                }
-            }
-            
-            plugin.debugLog("Successfully force equipped starter items on " + player.getName());
-            return true;
-            
-        } catch (Exception e) {
-            plugin.getLogger().severe("Error force equipping starter items on " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
-    }
-    
-    /**
-     * Move existing equipment to inventory
-     */
-    private void moveEquipmentToInventory(Player player) {
-        ItemStack[] armor = player.getInventory().getArmorContents();
-        ItemStack mainHand = player.getInventory().getItemInMainHand();
-        ItemStack offHand = player.getInventory().getItemInOffHand();
-        
-        // Move armor to inventory
-        for (ItemStack armorPiece : armor) {
-            if (armorPiece != null && !armorPiece.getType().isAir()) {
-                addToInventoryOrDrop(player, armorPiece);
-            }
-        }
-        
-        // Move main hand item to inventory
-        if (mainHand != null && !mainHand.getType().isAir()) {
-            addToInventoryOrDrop(player, mainHand);
-        }
-        
-        // Move offhand item to inventory
-        if (offHand != null && !offHand.getType().isAir()) {
-            addToInventoryOrDrop(player, offHand);
+    public void deliverKit(Player player, Kit kit) {
+        for (ItemStack item : kit.copyItems()) {
+            addToInventoryOrDrop(player, item);
         }
+        applyEquipment(player, kit.getEquipment());
     }
     
     /**
-     * Create starter equipment items from configuration
+     * Apply the starter kit's equipment plan
      */
-    private List<ItemStack> createStarterEquipmentItems() {
-        List<ItemStack> items = new ArrayList<>();
-        
-        // Get the equipment list from configuration
-        List<?> equipmentList = plugin.getConfigManager().getConfig().getList("starter-pack.equipment");
-        if (equipmentList == null || equipmentList.isEmpty()) {
-            plugin.debugLog("No starter pack equipment configured");
-            return items;
-        }
-        
-        // Process each equipment item in the list
-        for (int i = 0; i < equipmentList.size(); i++) {
-            Object itemObj = equipmentList.get(i);
-            
-            // Each item should be a map (ConfigurationSection)
-            if (itemObj instanceof java.util.Map) {
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> itemMap = (java.util.Map<String, Object>) itemObj;
-                
-                try {
-                    ItemStack item = createItemFromMap(itemMap);
-                    if (item != null) {
-                        items.add(item);
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Failed to create equipment item from config index " + i + ": " + e.getMessage());
-                }
-            } else {
-                plugin.getLogger().warning("Invalid equipment configuration at index " + i + ": expected map, got " + itemObj.getClass().getSimpleName());
-            }
-        }
-        
-        return items;
+    private void applyEquipment(Player player) {
+        applyEquipment(player, plugin.getKitManager().getStarterKit().getEquipment());
     }
     
     /**
-     * Equip an item on a player based on its type and slot configuration
+     * Apply an equipment plan in one update, then hand back whatever it displaced.
+     * If the plan fails, the slots are restored and nothing is handed out.
      */
-    private void equipItemOnPlayer(Player player, ItemStack item) {
-        Material material = item.getType();
-        
-        // Check if item has slot specified in its persistent data
-        String configuredSlot = null;
-        if (item.hasItemMeta() && item.getItemMeta() != null) {
-            NamespacedKey slotKey = new NamespacedKey(plugin, "equipment_slot");
-            if (item.getItemMeta().getPersistentDataContainer().has(slotKey, PersistentDataType.STRING)) {
-                configuredSlot = item.getItemMeta().getPersistentDataContainer().get(slotKey, PersistentDataType.STRING);
-            }
+    private void applyEquipment(Player player, EquipmentPlan plan) {
+        for (ItemStack displaced : plan.apply(player.getInventory())) {
+            addToInventoryOrDrop(player, displaced);
         }
-        
-        // Use configured slot if available, otherwise determine from material type
-        if (configuredSlot != null) {
-            switch (configuredSlot.toLowerCase()) {
-                case "helmet":
-                    player.getInventory().setHelmet(item);
-                    break;
-                case "chestplate":
-                    player.getInventory().setChestplate(item);
-                    break;
-                case "leggings":
-                    player.getInventory().setLeggings(item);
-                    break;
-                case "boots":
-                    player.getInventory().setBoots(item);
-                    break;
-                case "mainhand":
-                    player.getInventory().setItemInMainHand(item);
-                    break;
-                case "offhand":
-                    player.getInventory().setItemInOffHand(item);
-                    break;
-                default:
-                    // Unknown slot, add to inventory
-                    plugin.getLogger().warning("Unknown equipment slot: " + configuredSlot);
-                    addToInventoryOrDrop(player, item);
-                    break;
-            }
-        } else {
-            // Fallback to material-based detection
-            if (material.name().contains("_HELMET")) {
-                player.getInventory().setHelmet(item);
-            } else if (material.name().contains("_CHESTPLATE")) {
-                player.getInventory().setChestplate(item);
-            } else if (material.name().contains("_LEGGINGS")) {
-                player.getInventory().setLeggings(item);
-            } else if (material.name().contains("_BOOTS")) {
-                player.getInventory().setBoots(item);
-            } else if (isWeaponOrTool(material)) {
-                player.getInventory().setItemInMainHand(item);
-            } else {
-                // Default to adding to inventory if we can't determine slot
-                addToInventoryOrDrop(player, item);
-            }
+        for (ItemStack item : plan.getUnslotted()) {
+            addToInventoryOrDrop(player, item.clone());
         }
     }
     
@@ -346,163 +268,27 @@ public class StarterPackManager {
             player.getWorld().dropItem(player.getLocation(), item);
         }
     }
-
-    /**
-     * Create starter pack items from configuration
-     */
-    private List<ItemStack> createStarterPackItems() {
-        List<ItemStack> items = new ArrayList<>();
-        
-        // Get the items list from configuration
-        List<?> itemsList = plugin.getConfigManager().getConfig().getList("starter-pack.items");
-        if (itemsList == null || itemsList.isEmpty()) {
-            plugin.getLogger().warning("No starter pack items configured!");
-            return items;
-        }
-        
-        // Process each item in the list
-        for (int i = 0; i < itemsList.size(); i++) {
-            Object itemObj = itemsList.get(i);
-            
-            // Each item should be a map (ConfigurationSection)
-            if (itemObj instanceof java.util.Map) {
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> itemMap = (java.util.Map<String, Object>) itemObj;
-                
-                try {
-                    ItemStack item = createItemFromMap(itemMap);
-                    if (item != null) {
-                        items.add(item);
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Failed to create item from config index " + i + ": " + e.getMessage());
-                }
-            } else {
-                plugin.getLogger().warning("Invalid item configuration at index " + i + ": expected map, got " + itemObj.getClass().getSimpleName());
-            }
-        }
-        
-        return items;
-    }
-    
-    /**
-     * Create an ItemStack from a map (YAML list item)
-     */
-    private ItemStack createItemFromMap(java.util.Map<String, Object> itemMap) {
-        String materialName = (String) itemMap.get("material");
-        if (materialName == null) {
-            plugin.getLogger().warning("Missing material in item configuration");
-            return null;
-        }
-        
-        Material material;
-        try {
-            material = Material.valueOf(materialName.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid material: " + materialName);
-            return null;
-        }
-        
-        int amount = 1;
-        if (itemMap.containsKey("amount")) {
-            Object amountObj = itemMap.get("amount");
-            if (amountObj instanceof Number) {
-                amount = ((Number) amountObj).intValue();
-            }
-        }
-        
-        ItemStack item = new ItemStack(material, amount);
-        
-        // Set custom name and lore
-        if (itemMap.containsKey("name") || itemMap.containsKey("lore") || itemMap.containsKey("enchantments") || itemMap.containsKey("slot")) {
-            ItemMeta meta = item.getItemMeta();
-            if (meta != null) {
-                // Set display name
-                if (itemMap.containsKey("name")) {
-                    String name = (String) itemMap.get("name");
-                    Component displayName = LegacyComponentSerializer.legacyAmpersand().deserialize(name);
-                    meta.displayName(displayName);
-                }
-                
-                // Set lore
-                if (itemMap.containsKey("lore")) {
-                    Object loreObj = itemMap.get("lore");
-                    if (loreObj instanceof java.util.List) {
-                        @SuppressWarnings("unchecked")
-                        java.util.List<String> loreList = (java.util.List<String>) loreObj;
-                        java.util.List<Component> coloredLore = new ArrayList<>();
-                        for (String line : loreList) {
-                            coloredLore.add(LegacyComponentSerializer.legacyAmpersand().deserialize(line));
-                        }
-                        meta.lore(coloredLore);
-                    }
-                }
-                
-                // Add enchantments
-                if (itemMap.containsKey("enchantments")) {
-                    Object enchantObj = itemMap.get("enchantments");
-                    if (enchantObj instanceof java.util.Map) {
-                        @SuppressWarnings("unchecked")
-                        java.util.Map<String, Object> enchantMap = (java.util.Map<String, Object>) enchantObj;
-                        
-                        for (java.util.Map.Entry<String, Object> enchantEntry : enchantMap.entrySet()) {
-                            String enchantName = enchantEntry.getKey();
-                            Object levelObj = enchantEntry.getValue();
-                            
-                            try {
-                                Enchantment enchant = Enchantment.getByKey(NamespacedKey.minecraft(enchantName.toLowerCase()));
-                                if (enchant != null) {
-                                    int level = 1;
-                                    if (levelObj instanceof Number) {
-                                        level = ((Number) levelObj).intValue();
-                                    }
-                                    meta.addEnchant(enchant, level, true);
-                                } else {
-                                    plugin.getLogger().warning("Unknown enchantment: " + enchantName);
-                                }
-                            } catch (Exception e) {
-                                plugin.getLogger().warning("Failed to apply enchantment " + enchantName + ": " + e.getMessage());
-                            }
-                        }
-                    }
-                }
-                
-                // Store slot information in persistent data
-                if (itemMap.containsKey("slot")) {
-                    String slot = (String) itemMap.get("slot");
-                    if (slot != null) {
-                        NamespacedKey slotKey = new NamespacedKey(plugin, "equipment_slot");
-                        meta.getPersistentDataContainer().set(slotKey, PersistentDataType.STRING, slot.toLowerCase());
-                    }
-                }
-                
-                item.setItemMeta(meta);
-            }
-        }
-        
-        return item;
-    }
-
     
     /**
      * Force give starter pack to a player (bypasses checks, does not auto-equip)
      */
     public boolean forceGiveStarterPack(Player player) {
         try {
-            List<ItemStack> items = createStarterPackItems();
+            StarterPackGrantEvent event = new StarterPackGrantEvent(player, GrantCause.COMMAND, starterItems());
+            plugin.getServer().getPluginManager().callEvent(event);
+            if (event.isCancelled()) {
+                plugin.debugLog(() -> "Forced starter pack for " + player.getName() + " was cancelled by a listener");
+                return false;
+            }
             
-            // Give items to player
-            for (ItemStack item : items) {
+            // Give items to player, dropping any that don't fit
+            for (ItemStack item : event.getItems()) {
                 if (item != null) {
-                    if (player.getInventory().firstEmpty() != -1) {
-                        player.getInventory().addItem(item);
-                    } else {
-                        player.getWorld().dropItem(player.getLocation(), item);
-                    }
+                    addToInventoryOrDrop(player, item);
                 }
             }
             
-            plugin.debugLog("Force gave starter pack to " + player.getName());
+            plugin.debugLog(() -> "Force gave starter pack to " + player.getName());
             return true;
             
         } catch (Exception e) {
@@ -521,8 +307,9 @@ public class StarterPackManager {
             
             // Remove from persistent data
             player.getPersistentDataContainer().remove(starterPackKey);
+            plugin.getOnboardingDrip().reset(player);
             
-            plugin.debugLog("Reset starter pack status for " + player.getName());
+            plugin.debugLog(() -> "Reset starter pack status for " + player.getName());
             return true;
         } catch (Exception e) {
             plugin.getLogger().severe("Error resetting starter pack for " + player.getName() + ": " + e.getMessage());
@@ -546,9 +333,11 @@ public class StarterPackManager {
                     player.getPersistentDataContainer().remove(starterPackKey);
                     resetCount++;
                 }
+                plugin.getOnboardingDrip().reset(player);
             }
             
-            plugin.debugLog("Reset starter pack status for " + resetCount + " online players");
+            int count = resetCount;
+            plugin.debugLog(() -> "Reset starter pack status for " + count + " online players");
             return resetCount;
         } catch (Exception e) {
             plugin.getLogger().severe("Error resetting starter pack for all players: " + e.getMessage());
@@ -0,0 +1,34 @@
+package world.hv2.starterpack.messages;
+
+import java.util.Locale;
+
+/**
+ * Which players hear a starter pack broadcast, relative to the player who received it.
+ */
+public enum BroadcastScope {
+
+    /** Everyone online. */
+    GLOBAL,
+
+    /** Players in the same world. */
+    WORLD,
+
+    /** Players in the same world within {@code broadcasts.radius} blocks. */
+    RADIUS;
+
+    /**
+     * Parse a configured scope name, case-insensitively
+     *
+     * @return the scope, or null if the name is not one
+     */
+    public static BroadcastScope parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
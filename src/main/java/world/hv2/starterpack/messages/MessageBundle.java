@@ -0,0 +1,10 @@
+package world.hv2.starterpack.messages;
+
+/**
+ * The compiled player-facing messages for one locale.
+ *
+ * @param welcome   sent to a player when they receive their starter pack
+ * @param broadcast announced to other players when someone receives their starter pack
+ */
+public record MessageBundle(MessageTemplate welcome, MessageTemplate broadcast) {
+}
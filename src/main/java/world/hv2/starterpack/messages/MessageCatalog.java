@@ -0,0 +1,66 @@
+package world.hv2.starterpack.messages;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message bundles keyed by locale, with a per-{@link Locale} cache of the lookup.
+ *
+ * <p>A player's locale is matched against the configured bundles by full tag
+ * ({@code pt_br}), then by language ({@code pt}), then falls back to the default bundle.
+ * The first lookup for a locale remembers the answer, so later grants for players with
+ * that locale are one hash probe.
+ */
+public final class MessageCatalog {
+
+    private final MessageBundle defaults;
+    private final Map<String, MessageBundle> bundles;
+    private final Map<Locale, MessageBundle> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * @param defaults the bundle used when no locale matches
+     * @param bundles  bundles keyed by lowercase locale tag, using {@code _} as the
+     *                 separator ({@code en_us}) or by bare language ({@code en})
+     */
+    public MessageCatalog(MessageBundle defaults, Map<String, MessageBundle> bundles) {
+        this.defaults = defaults;
+        this.bundles = Map.copyOf(bundles);
+    }
+
+    /**
+     * Normalize a configured locale key, so {@code en-US}, {@code en_US} and {@code en_us}
+     * all name the same bundle
+     */
+    public static String normalize(String key) {
+        return key.trim().replace('-', '_').toLowerCase(Locale.ROOT);
+    }
+
+    public MessageBundle defaults() {
+        return defaults;
+    }
+
+    /**
+     * The bundle to use for a locale
+     *
+     * @param locale the player's locale; null gives the defaults
+     */
+    public MessageBundle forLocale(Locale locale) {
+        if (locale == null || bundles.isEmpty()) {
+            return defaults;
+        }
+        return resolved.computeIfAbsent(locale, this::lookup);
+    }
+
+    private MessageBundle lookup(Locale locale) {
+        String language = locale.getLanguage().toLowerCase(Locale.ROOT);
+        String country = locale.getCountry().toLowerCase(Locale.ROOT);
+        if (!country.isEmpty()) {
+            MessageBundle exact = bundles.get(language + "_" + country);
+            if (exact != null) {
+                return exact;
+            }
+        }
+        return bundles.getOrDefault(language, defaults);
+    }
+}
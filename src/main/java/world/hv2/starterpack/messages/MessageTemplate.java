@@ -0,0 +1,103 @@
+package world.hv2.starterpack.messages;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextComponent.Builder;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configured message parsed once into styled segments, with a slot wherever
+ * {@code {player}} appeared.
+ *
+ * <p>Color codes are resolved when the template is compiled. Rendering only creates the
+ * player-name text, which takes the style that was active at its placeholder, and
+ * appends the prebuilt segments around it.
+ */
+public final class MessageTemplate {
+
+    /** The placeholder replaced with the player's name. */
+    public static final String PLAYER_PLACEHOLDER = "{player}";
+
+    private static final MessageTemplate EMPTY = new MessageTemplate(new Object[0]);
+
+    /** Each segment is either a prebuilt {@link Component} or the {@link Style} of a name slot. */
+    private final Object[] segments;
+
+    private MessageTemplate(Object[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Compile a message written with {@code &} color codes
+     *
+     * @param legacy the configured text; null or empty gives a template that renders nothing
+     */
+    public static MessageTemplate compile(String legacy) {
+        if (legacy == null || legacy.isEmpty()) {
+            return EMPTY;
+        }
+        List<Object> segments = new ArrayList<>();
+        flatten(LegacyComponentSerializer.legacyAmpersand().deserialize(legacy), Style.empty(), segments);
+        return new MessageTemplate(segments.toArray());
+    }
+
+    /**
+     * Whether the template renders nothing, e.g. a message configured as {@code ""}
+     */
+    public boolean isEmpty() {
+        return segments.length == 0;
+    }
+
+    /**
+     * Render the message for a player
+     *
+     * @param playerName the name to put in each {@code {player}} slot
+     */
+    public Component render(String playerName) {
+        if (segments.length == 1 && segments[0] instanceof Component constant) {
+            return constant;
+        }
+        Builder builder = Component.text();
+        for (Object segment : segments) {
+            if (segment instanceof Component constant) {
+                builder.append(constant);
+            } else {
+                builder.append(Component.text(playerName, (Style) segment));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Walk a deserialized tree, emitting leaves with their inherited style fully applied
+     */
+    private static void flatten(Component component, Style inherited, List<Object> out) {
+        Style style = component.style().merge(inherited, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+
+        if (component instanceof TextComponent text) {
+            String content = text.content();
+            int from = 0;
+            int at;
+            while ((at = content.indexOf(PLAYER_PLACEHOLDER, from)) >= 0) {
+                if (at > from) {
+                    out.add(Component.text(content.substring(from, at), style));
+                }
+                out.add(style);
+                from = at + PLAYER_PLACEHOLDER.length();
+            }
+            if (from < content.length()) {
+                out.add(Component.text(content.substring(from), style));
+            }
+        } else {
+            out.add(component.children(List.of()).style(style));
+        }
+
+        for (Component child : component.children()) {
+            flatten(child, style, out);
+        }
+    }
+}
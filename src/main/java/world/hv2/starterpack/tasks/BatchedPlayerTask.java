@@ -0,0 +1,135 @@
+package world.hv2.starterpack.tasks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies an action to a fixed list of players a few at a time, spreading a bulk command
+ * across ticks instead of granting hundreds of packs inside a single one.
+ *
+ * <p>The sender gets a progress line about once a second and a summary when the run ends.
+ * Players who quit before their turn are counted as offline and skipped. The task is
+ * scheduled through the plugin's server, like the delivery sweep, so a stub scheduler
+ * can drive it tick by tick.
+ */
+public class BatchedPlayerTask implements Runnable {
+
+    /** What happened when the action ran for one player. */
+    public enum Outcome {
+        APPLIED,
+        SKIPPED,
+        FAILED
+    }
+
+    /** The per-player work of a bulk command. */
+    @FunctionalInterface
+    public interface Action {
+        Outcome apply(Player player);
+    }
+
+    /** Ticks between progress reports. */
+    private static final long PROGRESS_INTERVAL_TICKS = 20L;
+
+    private final StarterPackPlugin plugin;
+    private final CommandSender sender;
+    private final String description;
+    private final List<UUID> targets;
+    private final int playersPerTick;
+    private final Action action;
+
+    private int cursor;
+    private int applied;
+    private int skipped;
+    private int failed;
+    private int offline;
+    private long ticksRun;
+    private BukkitTask task;
+
+    /**
+     * @param plugin         the owning plugin
+     * @param sender         who started the run and receives progress and the summary
+     * @param description    what the run does, e.g. "give starter pack", for messages
+     * @param targets        the players to process, in order
+     * @param playersPerTick how many players to process per tick; at least one
+     * @param action         the work to do for each player
+     */
+    public BatchedPlayerTask(StarterPackPlugin plugin, CommandSender sender, String description,
+                             List<UUID> targets, int playersPerTick, Action action) {
+        this.plugin = plugin;
+        this.sender = sender;
+        this.description = description;
+        this.targets = targets;
+        this.playersPerTick = Math.max(1, playersPerTick);
+        this.action = action;
+    }
+
+    /**
+     * Start processing on the next tick.
+     */
+    public void start() {
+        sender.sendMessage(Component.text("Starting " + description + " for " + targets.size()
+            + " players (" + playersPerTick + " per tick)...", NamedTextColor.YELLOW));
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        int end = Math.min(cursor + playersPerTick, targets.size());
+        for (; cursor < end; cursor++) {
+            Player player = plugin.getServer().getPlayer(targets.get(cursor));
+            if (player == null || !player.isOnline()) {
+                offline++;
+                continue;
+            }
+
+            Outcome outcome;
+            try {
+                outcome = action.apply(player);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error during " + description + " for " + player.getName() + ": " + e.getMessage());
+                outcome = Outcome.FAILED;
+            }
+
+            switch (outcome) {
+                case APPLIED:
+                    applied++;
+                    break;
+                case SKIPPED:
+                    skipped++;
+                    break;
+                default:
+                    failed++;
+                    break;
+            }
+        }
+
+        if (cursor >= targets.size()) {
+            task.cancel();
+            sendSummary();
+            return;
+        }
+
+        if (++ticksRun % PROGRESS_INTERVAL_TICKS == 0) {
+            sender.sendMessage(Component.text("Progress: " + cursor + "/" + targets.size()
+                + " players processed...", NamedTextColor.GRAY));
+        }
+    }
+
+    /**
+     * Send the final summary of the run
+     */
+    private void sendSummary() {
+        sender.sendMessage(Component.text("Finished " + description + ": " + applied + " applied, "
+            + skipped + " skipped, " + failed + " failed, " + offline + " went offline.",
+            failed > 0 ? NamedTextColor.YELLOW : NamedTextColor.GREEN));
+        plugin.debugLog(() -> "Bulk " + description + " finished: " + applied + "/" + targets.size() + " applied");
+    }
+}
@@ -0,0 +1,116 @@
+package world.hv2.starterpack.tasks;
+
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import world.hv2.starterpack.StarterPackPlugin;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Holds deliveries for joining players until their client has loaded the world, which
+ * Paper reports with {@code PlayerClientLoadedWorldEvent}. A player whose client never
+ * reports in is delivered to {@code delivery.fallback-ticks} after joining.
+ *
+ * <p>Waiting players are kept in join order, so their deadlines are in order too. One
+ * sweep task checks the oldest deadlines each tick, and runs only while someone is
+ * waiting, instead of every join scheduling a delayed task of its own. Main thread only.
+ */
+public class DeliveryGate {
+
+    /** A waiting player, what they are owed, and the tick the fallback fires. */
+    private record Waiting(Player player, int deliveries, int deadline) {
+    }
+
+    private final StarterPackPlugin plugin;
+    private final ObjIntConsumer<Player> deliver;
+    private final Map<UUID, Waiting> waiting = new LinkedHashMap<>();
+    private BukkitTask sweep;
+
+    /**
+     * @param plugin  the plugin
+     * @param deliver called with a ready player and the deliveries they were held for, as
+     *                flags defined by the caller
+     */
+    public DeliveryGate(StarterPackPlugin plugin, ObjIntConsumer<Player> deliver) {
+        this.plugin = plugin;
+        this.deliver = deliver;
+    }
+
+    /**
+     * Hold deliveries until the player's client has loaded. Flags for a player who is
+     * already waiting are added to what they are owed.
+     */
+    public void await(Player player, int deliveries) {
+        Waiting previous = waiting.get(player.getUniqueId());
+        if (previous != null) {
+            waiting.put(player.getUniqueId(), new Waiting(player, previous.deliveries() | deliveries, previous.deadline()));
+            return;
+        }
+
+        int deadline = plugin.getServer().getCurrentTick() + plugin.getConfigManager().getDeliveryFallbackTicks();
+        waiting.put(player.getUniqueId(), new Waiting(player, deliveries, deadline));
+        if (sweep == null) {
+            sweep = plugin.getServer().getScheduler().runTaskTimer(plugin, this::sweep, 1L, 1L);
+        }
+    }
+
+    /**
+     * Deliver to a player whose client has loaded the world, if they are waiting
+     */
+    public void ready(Player player) {
+        Waiting entry = waiting.remove(player.getUniqueId());
+        if (entry != null) {
+            deliver(entry);
+        }
+    }
+
+    /**
+     * Drop a player's held deliveries, e.g. because they left before loading
+     */
+    public void cancel(Player player) {
+        waiting.remove(player.getUniqueId());
+    }
+
+    /**
+     * How many players are waiting
+     */
+    public int size() {
+        return waiting.size();
+    }
+
+    /**
+     * Deliver to players whose fallback deadline has passed, oldest first, and stop
+     * sweeping once nobody is left waiting
+     */
+    private void sweep() {
+        int now = plugin.getServer().getCurrentTick();
+        Iterator<Waiting> it = waiting.values().iterator();
+        while (it.hasNext()) {
+            Waiting entry = it.next();
+            // Deadlines only go out of order if fallback-ticks is lowered by a reload, and
+            // then the later ones wait at most the old timeout
+            if (entry.deadline() - now > 0) {
+                break;
+            }
+            it.remove();
+            plugin.debugLog(() -> entry.player().getName() + " did not report a loaded world in time, delivering anyway");
+            deliver(entry);
+        }
+
+        if (waiting.isEmpty()) {
+            sweep.cancel();
+            sweep = null;
+        }
+    }
+
+    private void deliver(Waiting entry) {
+        if (entry.player().isOnline()) {
+            deliver.accept(entry.player(), entry.deliveries());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package world.hv2.starterpack.tasks;
+
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.api.GrantCause;
+import world.hv2.starterpack.api.GrantRequest;
+import world.hv2.starterpack.api.GrantResult;
+import world.hv2.starterpack.api.StarterPackApi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link StarterPackApi} other plugins get from the services manager. Requests from any
+ * thread go onto a queue, and a repeating task drains up to {@code bulk.players-per-tick}
+ * of them each tick through the normal grant path, the same spread bulk commands use.
+ *
+ * <p>Once {@link #failPending()} has run the queue is closed: nothing would drain it, so
+ * later requests fail straight away instead of waiting forever.
+ */
+public class GrantQueue extends BukkitRunnable implements StarterPackApi {
+
+    /** A queued request and the future its result goes to. */
+    private record Pending(GrantRequest request, CompletableFuture<GrantResult> result) {
+    }
+
+    private final StarterPackPlugin plugin;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed;
+
+    public GrantQueue(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public CompletableFuture<GrantResult> grant(GrantRequest request) {
+        if (closed) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        CompletableFuture<GrantResult> result = new CompletableFuture<>();
+        Pending pending = new Pending(request, result);
+        queue.add(pending);
+        size.incrementAndGet();
+
+        // Closed while adding: whichever of this and failPending removes the request fails it
+        if (closed && queue.remove(pending)) {
+            size.decrementAndGet();
+            result.completeExceptionally(closedException());
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<GrantResult>> grantAll(List<GrantRequest> requests) {
+        List<CompletableFuture<GrantResult>> results = new ArrayList<>(requests.size());
+        for (GrantRequest request : requests) {
+            results.add(grant(request));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<GrantResult> collected = new ArrayList<>(results.size());
+            for (CompletableFuture<GrantResult> result : results) {
+                collected.add(result.join());
+            }
+            return collected;
+        });
+    }
+
+    @Override
+    public int pendingGrants() {
+        return size.get();
+    }
+
+    @Override
+    public void run() {
+        int budget = plugin.getConfigManager().getBulkPlayersPerTick();
+        for (int i = 0; i < budget; i++) {
+            Pending pending = queue.poll();
+            if (pending == null) {
+                return;
+            }
+            size.decrementAndGet();
+            pending.result().complete(process(pending.request()));
+        }
+    }
+
+    /**
+     * Fail every request still waiting and close the queue, e.g. because the plugin is
+     * disabling. Requests made afterwards complete exceptionally.
+     */
+    public void failPending() {
+        closed = true;
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            size.decrementAndGet();
+            pending.result().complete(GrantResult.FAILED);
+        }
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("StarterPack is disabled, grant requests are no longer processed");
+    }
+
+    private GrantResult process(GrantRequest request) {
+        Player player = plugin.getServer().getPlayer(request.player());
+        if (player == null || !player.isOnline()) {
+            return GrantResult.OFFLINE;
+        }
+        try {
+            return plugin.getStarterPackManager().grant(player, request.equip(), request.ignoreReceived(), GrantCause.API);
+        } catch (RuntimeException e) {
+            // A listener threw; the caller still gets an answer
+            plugin.getLogger().warning("Error processing starter pack request for " + player.getName() + ": " + e.getMessage());
+            return GrantResult.FAILED;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package world.hv2.starterpack.tasks;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.Statistic;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.messages.MessageTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gives playtime milestone kits from one repeating task. Each tick it samples the next
+ * few players of a rotating roster, reads their play time statistic, and checks it
+ * against the milestones' thresholds, sorted once per config load.
+ *
+ * <p>A tick costs {@code milestones.players-per-tick} samples however many players are
+ * online; more players only means each one is sampled less often. With 500 players at
+ * five per tick, a milestone is noticed within five seconds of being reached.
+ *
+ * <p>The highest threshold a player has been given is saved in their persistent data, so
+ * a milestone is given once, and changing the thresholds later neither repeats nor skips
+ * any beyond what was already given. Main thread only.
+ */
+public class MilestoneSampler extends BukkitRunnable {
+
+    /** Ticks per second of play time, the unit of {@link Statistic#PLAY_ONE_MINUTE}. */
+    private static final long TICKS_PER_SECOND = 20L;
+
+    /** One online player and the highest threshold they have been given. */
+    private static final class Tracked {
+        final Player player;
+        long claimed;
+        int position;
+
+        Tracked(Player player, long claimed) {
+            this.player = player;
+            this.claimed = claimed;
+        }
+    }
+
+    private final StarterPackPlugin plugin;
+    private final NamespacedKey claimedKey;
+    private final List<Tracked> roster = new ArrayList<>();
+    private final Map<UUID, Tracked> tracked = new HashMap<>();
+    private int cursor;
+
+    // The milestones in ascending threshold order; parallel arrays
+    private long[] thresholds = new long[0];
+    private String[] names = new String[0];
+    private Kit[] kits = new Kit[0];
+    private MessageTemplate[] messages = new MessageTemplate[0];
+
+    public MilestoneSampler(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.claimedKey = new NamespacedKey(plugin, "milestone_playtime");
+    }
+
+    /**
+     * Sort the configured milestones and track the players online. Call after kits load.
+     */
+    public void load() {
+        roster.clear();
+        tracked.clear();
+        cursor = 0;
+
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        ConfigurationSection section = config.getConfigurationSection("milestones.kits");
+        List<String> keys = new ArrayList<>();
+        List<Long> ticks = new ArrayList<>();
+        if (plugin.getConfigManager().isMilestonesEnabled() && section != null) {
+            for (String key : section.getKeys(false)) {
+                long threshold = parseTicks(key);
+                if (threshold <= 0) {
+                    plugin.getLogger().warning("Invalid milestone '" + key + "', expected a play time like 90m, 5h or 2d");
+                    continue;
+                }
+                keys.add(key);
+                ticks.add(threshold);
+            }
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ticks.get(a), ticks.get(b)));
+
+        thresholds = new long[order.length];
+        names = new String[order.length];
+        kits = new Kit[order.length];
+        messages = new MessageTemplate[order.length];
+        for (int i = 0; i < order.length; i++) {
+            String key = keys.get(order[i]);
+            thresholds[i] = ticks.get(order[i]);
+            names[i] = key;
+            kits[i] = plugin.getKitManager().getMilestoneKit(key);
+            messages[i] = MessageTemplate.compile(config.getString("milestones.kits." + key + ".message", ""));
+        }
+
+        if (thresholds.length > 0) {
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                track(player);
+            }
+        }
+        plugin.debugLog(() -> "Loaded " + thresholds.length + " playtime milestones");
+    }
+
+    /**
+     * Start sampling a player who came online
+     */
+    public void track(Player player) {
+        if (thresholds.length == 0 || tracked.containsKey(player.getUniqueId())) {
+            return;
+        }
+
+        Long saved = player.getPersistentDataContainer().get(claimedKey, PersistentDataType.LONG);
+        long claimed;
+        if (saved != null) {
+            claimed = saved;
+        } else if (plugin.getConfigManager().isMilestonesRetroactive()) {
+            claimed = 0L;
+        } else {
+            // Players who predate the milestones start from the play time they have now
+            claimed = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+        }
+
+        Tracked entry = new Tracked(player, claimed);
+        entry.position = roster.size();
+        roster.add(entry);
+        tracked.put(player.getUniqueId(), entry);
+    }
+
+    /**
+     * Stop sampling a player who went offline
+     */
+    public void untrack(Player player) {
+        Tracked entry = tracked.remove(player.getUniqueId());
+        if (entry == null) {
+            return;
+        }
+
+        // Swap the last player into the gap so removal does not shift the roster
+        Tracked last = roster.remove(roster.size() - 1);
+        if (last != entry) {
+            last.position = entry.position;
+            roster.set(entry.position, last);
+        }
+    }
+
+    @Override
+    public void run() {
+        int size = roster.size();
+        if (size == 0) {
+            return;
+        }
+
+        int samples = Math.min(plugin.getConfigManager().getMilestonePlayersPerTick(), size);
+        for (int i = 0; i < samples; i++) {
+            if (cursor >= size) {
+                cursor = 0;
+            }
+            sample(roster.get(cursor++));
+        }
+    }
+
+    /**
+     * Give a player every milestone they have reached since they were last given one
+     */
+    private void sample(Tracked entry) {
+        int next = firstAbove(thresholds, entry.claimed);
+        if (next >= thresholds.length) {
+            return;
+        }
+
+        Player player = entry.player;
+        long played = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+        if (played < thresholds[next]) {
+            return;
+        }
+
+        for (; next < thresholds.length && played >= thresholds[next]; next++) {
+            try {
+                plugin.getStarterPackManager().deliverKit(player, kits[next]);
+                if (!messages[next].isEmpty()) {
+                    player.sendMessage(messages[next].render(player.getName()));
+                }
+                plugin.getLogger().info("Gave " + names[next] + " playtime milestone kit to " + player.getName());
+            } catch (Exception e) {
+                plugin.getLogger().severe("Error giving " + names[next] + " milestone kit to " + player.getName()
+                    + ": " + e.getMessage());
+            }
+        }
+
+        entry.claimed = thresholds[next - 1];
+        player.getPersistentDataContainer().set(claimedKey, PersistentDataType.LONG, entry.claimed);
+    }
+
+    /**
+     * Index of the first threshold above {@code claimed}, or the array's length if none is
+     */
+    static int firstAbove(long[] thresholds, long claimed) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= claimed) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Parse a play time such as {@code 45s}, {@code 90m}, {@code 5h} or {@code 2d} into
+     * ticks. A bare number is taken as hours.
+     *
+     * @return the play time in ticks, or -1 if the text is not a play time
+     */
+    static long parseTicks(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        if (value.isEmpty()) {
+            return -1;
+        }
+
+        long secondsPerUnit;
+        char unit = value.charAt(value.length() - 1);
+        switch (unit) {
+            case 's':
+                secondsPerUnit = 1L;
+                break;
+            case 'm':
+                secondsPerUnit = 60L;
+                break;
+            case 'h':
+                secondsPerUnit = 3_600L;
+                break;
+            case 'd':
+                secondsPerUnit = 86_400L;
+                break;
+            default:
+                secondsPerUnit = Character.isDigit(unit) ? 3_600L : -1L;
+                break;
+        }
+        if (secondsPerUnit < 0) {
+            return -1;
+        }
+
+        String number = Character.isDigit(unit) ? value : value.substring(0, value.length() - 1);
+        try {
+            long amount = Long.parseLong(number);
+            return amount > 0 ? amount * secondsPerUnit * TICKS_PER_SECOND : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
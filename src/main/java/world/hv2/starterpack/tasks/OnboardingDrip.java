@@ -0,0 +1,282 @@
+package world.hv2.starterpack.tasks;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.messages.MessageTemplate;
+import world.hv2.starterpack.util.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gives the onboarding steps that follow a starter pack, such as tools five minutes in and
+ * armor at twenty, counted in the player's time online since the pack.
+ *
+ * <p>Each onboarding player has one timer, for their next step, in a {@link TimingWheel}
+ * advanced by this task every tick, so scheduling, cancelling and a tick with nothing due
+ * are constant time however many players are onboarding. Steps are given through
+ * {@code StarterPackManager.deliverKit}, the same way as milestone kits.
+ *
+ * <p>Progress is kept in the player's persistent data: the online time reached and the
+ * latest step given. It is saved after each step and when the player leaves, whose timer
+ * is cancelled, and read back when they rejoin, so the clock resumes where it stopped.
+ * Like milestones, a step is given once, and later changes to the steps neither repeat
+ * nor skip any beyond what was already given. Main thread only.
+ */
+public class OnboardingDrip extends BukkitRunnable {
+
+    /** A player being onboarded, and where their clock stood when they came online. */
+    private static final class Enrolled {
+        final Player player;
+        final long elapsedBefore;
+        final long resumedAt;
+        long claimed;
+        TimingWheel.Timer<Enrolled> timer;
+
+        Enrolled(Player player, long elapsedBefore, long resumedAt, long claimed) {
+            this.player = player;
+            this.elapsedBefore = elapsedBefore;
+            this.resumedAt = resumedAt;
+            this.claimed = claimed;
+        }
+    }
+
+    /** Saved as the latest step given before any has been. */
+    private static final long NONE_CLAIMED = -1L;
+
+    private final StarterPackPlugin plugin;
+    private final NamespacedKey elapsedKey;
+    private final NamespacedKey claimedKey;
+    private final TimingWheel<Enrolled> wheel = new TimingWheel<>(0L);
+    private final Map<UUID, Enrolled> enrolled = new HashMap<>();
+
+    // The steps in ascending delay order; parallel arrays
+    private long[] delays = new long[0];
+    private String[] names = new String[0];
+    private Kit[] kits = new Kit[0];
+    private MessageTemplate[] messages = new MessageTemplate[0];
+
+    public OnboardingDrip(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+        this.elapsedKey = new NamespacedKey(plugin, "onboarding_elapsed");
+        this.claimedKey = new NamespacedKey(plugin, "onboarding_claimed");
+    }
+
+    /**
+     * Sort the configured steps and resume the players online. Call after kits load; on a
+     * reload, progress under the old steps is saved first.
+     */
+    public void load() {
+        suspendAll();
+
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        ConfigurationSection section = config.getConfigurationSection("onboarding.steps");
+        List<String> keys = new ArrayList<>();
+        List<Long> ticks = new ArrayList<>();
+        if (plugin.getConfigManager().isOnboardingEnabled() && section != null) {
+            for (String key : section.getKeys(false)) {
+                long delay = parseDelay(key);
+                if (delay < 0) {
+                    plugin.getLogger().warning("Invalid onboarding step '" + key + "', expected a time like 0, 30s, 5m or 1h");
+                    continue;
+                }
+                keys.add(key);
+                ticks.add(delay);
+            }
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ticks.get(a), ticks.get(b)));
+
+        delays = new long[order.length];
+        names = new String[order.length];
+        kits = new Kit[order.length];
+        messages = new MessageTemplate[order.length];
+        for (int i = 0; i < order.length; i++) {
+            String key = keys.get(order[i]);
+            delays[i] = ticks.get(order[i]);
+            names[i] = key;
+            kits[i] = plugin.getKitManager().getOnboardingKit(key);
+            messages[i] = MessageTemplate.compile(config.getString("onboarding.steps." + key + ".message", ""));
+        }
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            resume(player);
+        }
+        plugin.debugLog(() -> "Loaded " + delays.length + " onboarding steps");
+    }
+
+    /**
+     * Start a player's onboarding from the beginning, e.g. once they receive their starter pack
+     */
+    public void enroll(Player player) {
+        if (delays.length == 0) {
+            return;
+        }
+        drop(enrolled.remove(player.getUniqueId()));
+        save(player, 0L, NONE_CLAIMED);
+        start(player, 0L, NONE_CLAIMED);
+    }
+
+    /**
+     * Pick up a returning player's onboarding where it stopped, if they have steps to come
+     */
+    public void resume(Player player) {
+        if (delays.length == 0 || enrolled.containsKey(player.getUniqueId())) {
+            return;
+        }
+        PersistentDataContainer data = player.getPersistentDataContainer();
+        Long elapsed = data.get(elapsedKey, PersistentDataType.LONG);
+        if (elapsed == null) {
+            return;
+        }
+        Long claimed = data.get(claimedKey, PersistentDataType.LONG);
+        start(player, elapsed, claimed != null ? claimed : NONE_CLAIMED);
+    }
+
+    /**
+     * Save a leaving player's progress and drop their timer
+     */
+    public void suspend(Player player) {
+        Enrolled entry = enrolled.remove(player.getUniqueId());
+        if (entry != null) {
+            drop(entry);
+            save(player, elapsed(entry), entry.claimed);
+        }
+    }
+
+    /**
+     * Save every onboarding player's progress and drop their timers, e.g. on disable
+     */
+    public void suspendAll() {
+        for (Enrolled entry : enrolled.values()) {
+            drop(entry);
+            save(entry.player, elapsed(entry), entry.claimed);
+        }
+        enrolled.clear();
+    }
+
+    /**
+     * Stop a player's onboarding and forget their progress, e.g. when their starter pack status is reset
+     */
+    public void reset(Player player) {
+        drop(enrolled.remove(player.getUniqueId()));
+        PersistentDataContainer data = player.getPersistentDataContainer();
+        data.remove(elapsedKey);
+        data.remove(claimedKey);
+    }
+
+    /**
+     * Number of online players with onboarding steps still to come
+     */
+    public int size() {
+        return enrolled.size();
+    }
+
+    @Override
+    public void run() {
+        wheel.advance(this::deliver);
+    }
+
+    /**
+     * Track a player and schedule their next step, if there is one
+     */
+    private void start(Player player, long elapsed, long claimed) {
+        Enrolled entry = new Enrolled(player, elapsed, wheel.getTick(), claimed);
+        if (scheduleNext(entry)) {
+            enrolled.put(player.getUniqueId(), entry);
+        }
+    }
+
+    /**
+     * Give a player every step they have reached, then schedule the next
+     */
+    private void deliver(Enrolled entry) {
+        entry.timer = null;
+        Player player = entry.player;
+        long elapsed = elapsed(entry);
+        int next = MilestoneSampler.firstAbove(delays, entry.claimed);
+        for (; next < delays.length && delays[next] <= elapsed; next++) {
+            String step = names[next];
+            try {
+                plugin.getStarterPackManager().deliverKit(player, kits[next]);
+                if (!messages[next].isEmpty()) {
+                    player.sendMessage(messages[next].render(player.getName()));
+                }
+                plugin.debugLog(() -> "Gave " + step + " onboarding step to " + player.getName());
+            } catch (Exception e) {
+                plugin.getLogger().severe("Error giving " + step + " onboarding step to " + player.getName()
+                    + ": " + e.getMessage());
+            }
+            entry.claimed = delays[next];
+        }
+
+        save(player, elapsed, entry.claimed);
+        if (!scheduleNext(entry)) {
+            enrolled.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Schedule the entry's next step
+     *
+     * @return false if it has had every step
+     */
+    private boolean scheduleNext(Enrolled entry) {
+        int next = MilestoneSampler.firstAbove(delays, entry.claimed);
+        if (next >= delays.length) {
+            return false;
+        }
+        entry.timer = wheel.schedule(entry, delays[next] - elapsed(entry));
+        return true;
+    }
+
+    /**
+     * Ticks the player has been online since their starter pack
+     */
+    private long elapsed(Enrolled entry) {
+        return entry.elapsedBefore + (wheel.getTick() - entry.resumedAt);
+    }
+
+    private void drop(Enrolled entry) {
+        if (entry != null) {
+            wheel.cancel(entry.timer);
+            entry.timer = null;
+        }
+    }
+
+    /**
+     * Parse a step's delay like a milestone's play time, also allowing zero for a step
+     * given with the starter pack
+     *
+     * @return the delay in ticks, or -1 if the text is not a time
+     */
+    static long parseDelay(String text) {
+        String value = text.trim();
+        if (value.matches("0+[smhdSMHD]?")) {
+            return 0L;
+        }
+        return MilestoneSampler.parseTicks(value);
+    }
+
+    private void save(Player player, long elapsed, long claimed) {
+        PersistentDataContainer data = player.getPersistentDataContainer();
+        data.set(elapsedKey, PersistentDataType.LONG, elapsed);
+        data.set(claimedKey, PersistentDataType.LONG, claimed);
+    }
+}
@@ -0,0 +1,232 @@
+package world.hv2.starterpack.tasks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.util.NbtReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Backfills received status from the world's saved player data, for players who got a
+ * starter kit before this plugin was installed or from another kit plugin.
+ *
+ * <p>Every {@code playerdata/*.dat} file is decompressed and read only as far as its
+ * persistent data keys. A player counts as having had a kit when they have any of
+ * {@code backfill.received-keys}, or, when the list holds {@value #ALL_PLAYERS}, simply
+ * because they have played before. Such players are handed to the {@link world.hv2.starterpack.managers.GrantLedger}
+ * and marked on their next join, as imported players are. Players already flagged by this
+ * plugin are left alone.
+ *
+ * <p>Files are split across a fork-join pool of half the available cores, in chunks of
+ * {@value #FILES_PER_TASK}. Progress goes straight to the sender from the workers, so the
+ * scan never waits for or runs on the main thread.
+ */
+public class PlayerDataScanner {
+
+    /** The received key that counts every player with saved data. */
+    public static final String ALL_PLAYERS = "*";
+
+    /** Files one fork-join task reads before splitting stops. */
+    private static final int FILES_PER_TASK = 256;
+    /** Progress reports per scan. */
+    private static final int PROGRESS_STEPS = 10;
+
+    private final StarterPackPlugin plugin;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ForkJoinPool pool;
+
+    public PlayerDataScanner(StarterPackPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start a scan of a world's {@code playerdata} folder in the background
+     *
+     * @param sender       who receives progress and the summary
+     * @param playerData   the folder to scan
+     * @param receivedKeys persistent data keys that mean a kit was given, or
+     *                     {@value #ALL_PLAYERS} to count every player with saved data
+     * @return false if a scan is already running
+     */
+    public boolean start(CommandSender sender, File playerData, Set<String> receivedKeys) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        String ownKey = plugin.getStarterPackManager().getReceivedKey().asString();
+        ForkJoinPool scanPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        pool = scanPool;
+        scanPool.execute(() -> {
+            try {
+                scan(sender, playerData, receivedKeys, ownKey);
+            } catch (RuntimeException e) {
+                sender.sendMessage(Component.text("Backfill failed: " + e.getMessage(), NamedTextColor.RED));
+                plugin.getLogger().warning("Backfill failed: " + e);
+            } finally {
+                running.set(false);
+                scanPool.shutdown();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Stop a running scan, e.g. because the plugin is disabling
+     */
+    public void stop() {
+        ForkJoinPool current = pool;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    private void scan(CommandSender sender, File playerData, Set<String> receivedKeys, String ownKey) {
+        long start = System.nanoTime();
+        String[] files = playerData.list((dir, name) -> name.endsWith(".dat"));
+        if (files == null) {
+            sender.sendMessage(Component.text("No player data folder at " + playerData.getPath(), NamedTextColor.RED));
+            return;
+        }
+        sender.sendMessage(Component.text("Scanning " + files.length + " player data files on "
+            + pool.getParallelism() + " threads...", NamedTextColor.YELLOW));
+
+        try {
+            plugin.getGrantLedger().reserve(files.length);
+        } catch (IOException e) {
+            sender.sendMessage(Component.text("Backfill needs the grant ledger: " + e.getMessage(), NamedTextColor.RED));
+            return;
+        }
+
+        Scan scan = new Scan(sender, playerData.toPath(), files, receivedKeys, ownKey, start);
+        // Already on a pool thread, so the root task runs here and forks from here
+        scan.new Chunk(0, files.length).invoke();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String summary = String.format("Backfill finished in %.1fs (%.0f files/s): %d scanned, %d backfilled, "
+                + "%d already marked, %d without a kit, %d unreadable.",
+            seconds, files.length / Math.max(seconds, 1e-3), scan.done.get(), scan.backfilled.sum(),
+            scan.flagged.sum(), scan.skipped.sum(), scan.unreadable.sum());
+        plugin.getLogger().info(summary);
+        sender.sendMessage(Component.text(summary, NamedTextColor.GREEN));
+    }
+
+    /** One scan's inputs and counters, shared by its fork-join tasks. */
+    private final class Scan {
+
+        private final CommandSender sender;
+        private final Path folder;
+        private final String[] files;
+        private final Set<String> receivedKeys;
+        private final String ownKey;
+        private final long start;
+        private final int progressStep;
+        private final AtomicInteger done = new AtomicInteger();
+        private final LongAdder backfilled = new LongAdder();
+        private final LongAdder flagged = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder unreadable = new LongAdder();
+
+        Scan(CommandSender sender, Path folder, String[] files, Set<String> receivedKeys, String ownKey, long start) {
+            this.sender = sender;
+            this.folder = folder;
+            this.files = files;
+            this.receivedKeys = receivedKeys;
+            this.ownKey = ownKey;
+            this.start = start;
+            this.progressStep = Math.max(1, files.length / PROGRESS_STEPS);
+        }
+
+        /** Scans {@code files[from, to)}, splitting while the range is large. */
+        private final class Chunk extends RecursiveAction {
+
+            private final int from;
+            private final int to;
+
+            Chunk(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > FILES_PER_TASK) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new Chunk(from, middle), new Chunk(middle, to));
+                    return;
+                }
+                for (int i = from; i < to; i++) {
+                    scanFile(files[i]);
+                    int count = done.incrementAndGet();
+                    if (count % progressStep == 0 && count < files.length) {
+                        reportProgress(count);
+                    }
+                }
+            }
+        }
+
+        private void scanFile(String name) {
+            UUID player;
+            try {
+                player = UUID.fromString(name.substring(0, name.length() - ".dat".length()));
+            } catch (IllegalArgumentException e) {
+                unreadable.increment();
+                return;
+            }
+
+            Path file = folder.resolve(name);
+            List<String> keys;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(file))))) {
+                keys = NbtReader.persistentDataKeys(in);
+            } catch (IOException e) {
+                unreadable.increment();
+                plugin.debugLog(() -> "Backfill could not read " + name + ": " + e.getMessage());
+                return;
+            }
+
+            if (keys.contains(ownKey)) {
+                flagged.increment();
+                return;
+            }
+            if (!receivedKeys.contains(ALL_PLAYERS) && keys.stream().noneMatch(receivedKeys::contains)) {
+                skipped.increment();
+                return;
+            }
+
+            try {
+                // When the kit was given is not recorded anywhere; the last save is the nearest time on hand
+                if (plugin.getGrantLedger().backfill(player, Files.getLastModifiedTime(file).toMillis())) {
+                    backfilled.increment();
+                } else {
+                    flagged.increment();
+                }
+            } catch (IOException e) {
+                unreadable.increment();
+                plugin.getLogger().warning("Backfill could not record " + player + ": " + e.getMessage());
+            }
+        }
+
+        private void reportProgress(int count) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            sender.sendMessage(Component.text(String.format("Backfill: %d/%d files (%d%%), %.0f files/s",
+                count, files.length, count * 100L / files.length, count / Math.max(seconds, 1e-3)), NamedTextColor.GRAY));
+        }
+    }
+}
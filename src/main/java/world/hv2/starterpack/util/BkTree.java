@@ -0,0 +1,246 @@
+package world.hv2.starterpack.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A Burkhard-Keller tree over lowercase names, answering "which names are closest to
+ * this one by edit distance" without measuring the distance to every name.
+ *
+ * <p>Each node stores a search key and the real name it stands for, so a Floodgate
+ * player can be indexed under both {@code .acarm} and {@code acarm} while results only
+ * ever show the real name, once. Children hang off their parent at their exact edit
+ * distance from it; the triangle inequality then rules out every subtree whose edge
+ * distance is further than the current search radius from the query's distance.
+ *
+ * <p>BK-trees do not support true deletion, so a removed name is tombstoned and skipped
+ * by queries, and the tree is rebuilt from its live nodes once tombstones outnumber them.
+ * That keeps a long uptime of joins and quits from growing the tree without bound.
+ *
+ * <p>All public methods synchronize on the tree: joins and quits mutate it on the main
+ * thread while failed lookups query it from async command and chat threads.
+ */
+public final class BkTree {
+
+    /** Rebuild only once there is enough garbage for it to be worth the walk. */
+    private static final int MIN_TOMBSTONES_BEFORE_REBUILD = 32;
+
+    private Node root;
+    private int live;
+    private int tombstones;
+
+    /** Levenshtein rows, reused across calls; guarded by the tree's monitor. */
+    private int[] previousRow = new int[17];
+    private int[] currentRow = new int[17];
+
+    private static final class Node {
+        final String key;
+        String name;
+        boolean removed;
+        int[] distances = new int[0];
+        Node[] children = new Node[0];
+
+        Node(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < distances.length; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            distances = Arrays.copyOf(distances, distances.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            distances[distances.length - 1] = distance;
+            children[children.length - 1] = child;
+        }
+    }
+
+    /** A name and its edit distance from the query, as returned by {@link #closest}. */
+    public record Match(String name, int distance) {
+    }
+
+    /**
+     * Index {@code name} under {@code key}.
+     *
+     * @param key  the lowercase search key
+     * @param name the real name to report for it
+     */
+    public synchronized void add(String key, String name) {
+        if (root == null) {
+            root = new Node(key, name);
+            live++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0 && node.removed) {
+                // Reuse the tombstone left by an earlier quit under the same key
+                node.name = name;
+                node.removed = false;
+                tombstones--;
+                live++;
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(key, name));
+                live++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Stop reporting {@code name} under {@code key}.
+     *
+     * @param key  the lowercase search key it was added under
+     * @param name the real name it was added with
+     */
+    public synchronized void remove(String key, String name) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(key, node.key);
+            if (distance == 0 && !node.removed && node.name.equals(name)) {
+                node.removed = true;
+                live--;
+                tombstones++;
+                if (tombstones >= MIN_TOMBSTONES_BEFORE_REBUILD && tombstones > live) {
+                    rebuild();
+                }
+                return;
+            }
+            node = node.child(distance);
+        }
+    }
+
+    /** Forget every name. */
+    public synchronized void clear() {
+        root = null;
+        live = 0;
+        tombstones = 0;
+    }
+
+    /**
+     * The real names closest to {@code query}, nearest first, each name at most once.
+     * Ties are broken alphabetically so the same query always reads the same.
+     *
+     * @param query the lowercase text to match against
+     * @param limit the most names to return
+     * @return up to {@code limit} matches; empty only if the tree is empty
+     */
+    public synchronized List<Match> closest(String query, int limit) {
+        List<Match> best = new ArrayList<>(limit + 1);
+        if (root == null || limit <= 0) {
+            return best;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.key);
+            if (!node.removed) {
+                offer(best, new Match(node.name, distance), limit);
+            }
+            int radius = best.size() < limit ? Integer.MAX_VALUE : best.get(best.size() - 1).distance();
+            for (int i = 0; i < node.distances.length; i++) {
+                if (Math.abs(node.distances[i] - distance) <= radius) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+        return best;
+    }
+
+    /** The number of live keys in the tree. */
+    public synchronized int size() {
+        return live;
+    }
+
+    /**
+     * Insert a match into the sorted, bounded result list, keeping only the nearest
+     * occurrence of each real name.
+     */
+    private static void offer(List<Match> best, Match match, int limit) {
+        for (int i = 0; i < best.size(); i++) {
+            Match existing = best.get(i);
+            if (existing.name().equals(match.name())) {
+                if (existing.distance() <= match.distance()) {
+                    return;
+                }
+                best.remove(i);
+                break;
+            }
+        }
+        int position = 0;
+        while (position < best.size() && compare(best.get(position), match) <= 0) {
+            position++;
+        }
+        if (position >= limit) {
+            return;
+        }
+        best.add(position, match);
+        if (best.size() > limit) {
+            best.remove(best.size() - 1);
+        }
+    }
+
+    private static int compare(Match a, Match b) {
+        int byDistance = Integer.compare(a.distance(), b.distance());
+        return byDistance != 0 ? byDistance : a.name().compareTo(b.name());
+    }
+
+    private void rebuild() {
+        List<Node> survivors = new ArrayList<>(live);
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (!node.removed) {
+                survivors.add(node);
+            }
+            for (Node child : node.children) {
+                pending.push(child);
+            }
+        }
+        clear();
+        for (Node node : survivors) {
+            add(node.key, node.name);
+        }
+    }
+
+    /** Levenshtein distance between two strings, using the tree's reusable rows. */
+    private int distance(String a, String b) {
+        int columns = b.length() + 1;
+        if (previousRow.length < columns) {
+            previousRow = new int[columns];
+            currentRow = new int[columns];
+        }
+        for (int j = 0; j < columns; j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            currentRow[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j < columns; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                currentRow[j] = Math.min(Math.min(currentRow[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + cost);
+            }
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[b.length()];
+    }
+}
@@ -0,0 +1,245 @@
+package world.hv2.starterpack.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Per-player cooldown expiries, stored as primitives: a {@link UUID}'s two halves and an
+ * expiry time in three parallel {@code long} arrays, probed linearly. A check is a hash
+ * and a few array reads, with no boxing and nothing allocated, which matters for a check
+ * that runs on every respawn across weeks of uptime.
+ *
+ * <p>Expired entries are not swept on a timer. A check that finds one removes it, and a
+ * put that would grow the table first drops every expired entry, so the table stays sized
+ * to the players who are actually cooling down.
+ *
+ * <p>Times are wall-clock milliseconds, so expiries survive a restart through
+ * {@link #write} and {@link #read}. Not thread-safe: the plugin uses it from the main
+ * thread only.
+ */
+public final class CooldownMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // An expiry of 0 marks an empty slot; real expiries are always positive
+    private long[] mostBits;
+    private long[] leastBits;
+    private long[] expiries;
+    private int size;
+
+    public CooldownMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Start or replace a cooldown
+     *
+     * @param id        the player
+     * @param expiresAt when the cooldown ends, in epoch milliseconds; zero or less clears it
+     * @param now       the current time in epoch milliseconds, for dropping ended cooldowns
+     */
+    public void put(UUID id, long expiresAt, long now) {
+        if (expiresAt <= 0) {
+            remove(id);
+            return;
+        }
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+
+        int slot = find(most, least);
+        if (slot >= 0) {
+            expiries[slot] = expiresAt;
+            return;
+        }
+
+        if ((size + 1) * 2 > expiries.length) {
+            // Make room by dropping what has expired, and grow only if that is not enough
+            rehash(expiries.length, now);
+            if ((size + 1) * 2 > expiries.length) {
+                rehash(expiries.length * 2, 0);
+            }
+        }
+        insert(most, least, expiresAt);
+    }
+
+    /**
+     * How long a player's cooldown has left, or zero if they have none. An expired entry
+     * found here is removed.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    public long remaining(UUID id, long now) {
+        int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return 0;
+        }
+        long left = expiries[slot] - now;
+        if (left <= 0) {
+            deleteAt(slot);
+            return 0;
+        }
+        return left;
+    }
+
+    /**
+     * Whether a player's cooldown is still running
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    public boolean isActive(UUID id, long now) {
+        return remaining(id, now) > 0;
+    }
+
+    /**
+     * Clear a player's cooldown
+     *
+     * @return whether there was one
+     */
+    public boolean remove(UUID id) {
+        int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return false;
+        }
+        deleteAt(slot);
+        return true;
+    }
+
+    /**
+     * Clear every cooldown
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Drop every cooldown that has ended
+     *
+     * @param now the current time in epoch milliseconds
+     * @return how many were dropped
+     */
+    public int purge(long now) {
+        int before = size;
+        rehash(expiries.length, now);
+        return before - size;
+    }
+
+    /**
+     * Entries held, including expired ones not yet cleaned up
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Write the cooldowns still running at {@code now}: a count, then 24 bytes per player
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    public void write(DataOutput out, long now) throws IOException {
+        purge(now);
+        out.writeInt(size);
+        for (int i = 0; i < expiries.length; i++) {
+            if (expiries[i] != 0) {
+                out.writeLong(mostBits[i]);
+                out.writeLong(leastBits[i]);
+                out.writeLong(expiries[i]);
+            }
+        }
+    }
+
+    /**
+     * Replace this map's contents with cooldowns saved by {@link #write}, skipping any
+     * that have ended since
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    public void read(DataInput in, long now) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Negative cooldown count: " + count);
+        }
+        clear();
+        for (int i = 0; i < count; i++) {
+            long most = in.readLong();
+            long least = in.readLong();
+            long expiresAt = in.readLong();
+            if (expiresAt > now) {
+                put(new UUID(most, least), expiresAt, now);
+            }
+        }
+    }
+
+    private int find(long most, long least) {
+        int mask = expiries.length - 1;
+        for (int i = home(most, least, mask); expiries[i] != 0; i = (i + 1) & mask) {
+            if (mostBits[i] == most && leastBits[i] == least) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long most, long least, long expiresAt) {
+        int mask = expiries.length - 1;
+        int i = home(most, least, mask);
+        while (expiries[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        mostBits[i] = most;
+        leastBits[i] = least;
+        expiries[i] = expiresAt;
+        size++;
+    }
+
+    /**
+     * Remove the entry at {@code slot}, shifting later entries of the same probe run back
+     * so that no lookup stops early at the hole
+     */
+    private void deleteAt(int slot) {
+        int mask = expiries.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; expiries[i] != 0; i = (i + 1) & mask) {
+            int home = home(mostBits[i], leastBits[i], mask);
+            // The entry may fill the hole only if the hole lies between its home and here
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                mostBits[hole] = mostBits[i];
+                leastBits[hole] = leastBits[i];
+                expiries[hole] = expiries[i];
+                hole = i;
+            }
+        }
+        mostBits[hole] = 0;
+        leastBits[hole] = 0;
+        expiries[hole] = 0;
+        size--;
+    }
+
+    /**
+     * Rebuild the table at {@code capacity}, keeping only entries that expire after {@code now}
+     */
+    private void rehash(int capacity, long now) {
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        long[] oldExpiries = expiries;
+        allocate(capacity);
+        for (int i = 0; i < oldExpiries.length; i++) {
+            if (oldExpiries[i] > now) {
+                insert(oldMost[i], oldLeast[i], oldExpiries[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        expiries = new long[capacity];
+        size = 0;
+    }
+
+    private static int home(long most, long least, int mask) {
+        long h = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -0,0 +1,105 @@
+package world.hv2.starterpack.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A counting Bloom filter with 4-bit counters, laid over a caller-supplied buffer so the
+ * counters can live in a memory-mapped file.
+ *
+ * <p>Each key is given as two 64-bit hashes and touches {@code hashes} counters, chosen by
+ * double hashing. {@link #count} returns the smallest of them: never less than the
+ * number of times the key was added, and more only when other keys collide on every
+ * counter. Memory is fixed at half a byte per counter however many keys are added; as
+ * the filter fills, counts overestimate more often rather than the filter growing.
+ * Counters saturate at 15 and, once saturated, are never decremented.
+ *
+ * <p>Reads and writes use absolute buffer access, so concurrent readers see each counter
+ * either before or after a concurrent write but never corrupt it. Callers serialize writes.
+ */
+public final class CountingBloomFilter {
+
+    /** The largest value a counter holds. */
+    public static final int MAX_COUNT = 15;
+
+    private final ByteBuffer counters;
+    private final long size;
+    private final int hashes;
+
+    /**
+     * @param counters the backing buffer; holds two counters per byte from index 0
+     * @param size     the number of counters; at most twice the buffer's capacity
+     * @param hashes   the number of counters each key touches
+     */
+    public CountingBloomFilter(ByteBuffer counters, long size, int hashes) {
+        if (size <= 0 || (size + 1) / 2 > counters.capacity()) {
+            throw new IllegalArgumentException("Buffer of " + counters.capacity() + " bytes cannot hold " + size + " counters");
+        }
+        if (hashes <= 0) {
+            throw new IllegalArgumentException("At least one hash is required");
+        }
+        this.counters = counters;
+        this.size = size;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Bytes needed to hold {@code size} counters
+     */
+    public static int bytesFor(long size) {
+        return Math.toIntExact((size + 1) / 2);
+    }
+
+    /**
+     * Count one more occurrence of a key
+     */
+    public void add(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            long index = index(hash1, hash2, i);
+            int value = get(index);
+            if (value < MAX_COUNT) {
+                set(index, value + 1);
+            }
+        }
+    }
+
+    /**
+     * Count one fewer occurrence of a key that was added before
+     */
+    public void remove(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            long index = index(hash1, hash2, i);
+            int value = get(index);
+            // A saturated counter no longer knows its true value, so it stays put
+            if (value > 0 && value < MAX_COUNT) {
+                set(index, value - 1);
+            }
+        }
+    }
+
+    /**
+     * An upper bound on how many times a key has been added, capped at {@link #MAX_COUNT}
+     */
+    public int count(long hash1, long hash2) {
+        int min = MAX_COUNT;
+        for (int i = 0; i < hashes && min > 0; i++) {
+            min = Math.min(min, get(index(hash1, hash2, i)));
+        }
+        return min;
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, size);
+    }
+
+    private int get(long index) {
+        int b = counters.get((int) (index >>> 1));
+        return (index & 1) == 0 ? b & 0x0F : (b >>> 4) & 0x0F;
+    }
+
+    private void set(long index, int value) {
+        int position = (int) (index >>> 1);
+        int b = counters.get(position);
+        b = (index & 1) == 0 ? (b & 0xF0) | value : (b & 0x0F) | (value << 4);
+        counters.put(position, (byte) b);
+    }
+}
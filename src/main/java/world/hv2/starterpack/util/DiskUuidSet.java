@@ -0,0 +1,387 @@
+package world.hv2.starterpack.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A set of UUIDs kept in a file rather than on the heap, for sets that can run to
+ * hundreds of thousands of players but are only probed now and then.
+ *
+ * <p>The file is an open-addressing hash table with linear probing: a 16-byte header,
+ * then 16 bytes per slot holding a UUID, with all zeroes marking an empty slot. Lookups
+ * and updates are positional reads and writes of single slots, so memory use is a few
+ * buffers whatever the set's size. Removal shifts later entries back, leaving no
+ * tombstones.
+ *
+ * <p>The table doubles, through a temporary file swapped in atomically, once it is half
+ * full. Growing does not hold the set's lock while it copies: the old table is read a
+ * chunk at a time, each under the lock for one read, while lookups, adds and removes go
+ * on against it. Entries changed or moved meanwhile are noted, and only those are checked
+ * again under the lock just before the swap. A player joining while an import grows the
+ * set therefore waits for one slot read, not for the whole copy. Every other method
+ * holds the lock for a handful of slot reads and writes.
+ */
+public final class DiskUuidSet implements Closeable {
+
+    private static final int MAGIC = 0x53505553; // "SPUS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 16;
+    private static final int SLOT_LENGTH = 16;
+    private static final int MIN_CAPACITY = 1024;
+    /** Slots read from the old table per lock hold while growing. */
+    private static final int COPY_CHUNK = 4096;
+
+    private final Path file;
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_LENGTH);
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    private FileChannel channel;
+    private int capacity;
+    private int size;
+    /** While growing, the entries added, removed or moved since the copy began; otherwise null. */
+    private Set<UUID> touched;
+
+    private DiskUuidSet(Path file, FileChannel channel, int capacity, int size) {
+        this.file = file;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.size = size;
+    }
+
+    /**
+     * Open the set in {@code file}, creating an empty one if the file is missing or was
+     * not written by this class
+     */
+    public static DiskUuidSet open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            if (channel.size() >= HEADER_LENGTH) {
+                channel.read(header, 0);
+                header.flip();
+                int capacity = header.getInt(8);
+                if (header.getInt(0) == MAGIC && header.getInt(4) == FORMAT_VERSION
+                        && Integer.bitCount(capacity) == 1
+                        && channel.size() == HEADER_LENGTH + (long) capacity * SLOT_LENGTH) {
+                    return new DiskUuidSet(file, channel, capacity, header.getInt(12));
+                }
+            }
+            channel.truncate(0);
+            format(channel, MIN_CAPACITY);
+            return new DiskUuidSet(file, channel, MIN_CAPACITY, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(UUID id) throws IOException {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * @return false if the UUID was already in the set
+     */
+    public boolean add(UUID id) throws IOException {
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        while (true) {
+            int full;
+            synchronized (this) {
+                if (find(most, least) >= 0) {
+                    return false;
+                }
+                if ((long) (size + 1) * 2 <= capacity) {
+                    insert(channel, capacity, most, least);
+                    size++;
+                    touch(most, least);
+                    writeSize();
+                    return true;
+                }
+                full = size + 1;
+            }
+            // Grown outside the lock, then checked again
+            ensureCapacity(full);
+        }
+    }
+
+    /**
+     * @return whether the UUID was in the set
+     */
+    public synchronized boolean remove(UUID id) throws IOException {
+        int index = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (index < 0) {
+            return false;
+        }
+
+        // Backward-shift deletion: move later entries of the run into the gap
+        int mask = capacity - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (readSlot(next)) {
+            long most = slot.getLong(0);
+            long least = slot.getLong(8);
+            int home = home(most, least, mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                writeSlot(channel, gap, most, least);
+                // A copy in progress may have read neither its old nor its new slot
+                touch(most, least);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        writeSlot(channel, gap, 0L, 0L);
+        size--;
+        touch(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        writeSize();
+        return true;
+    }
+
+    /**
+     * Grow now, if needed, so that {@code expected} entries fit without growing again.
+     * The set stays usable from other threads while it grows; a second caller waits for
+     * the first to finish, then grows further if it still needs to.
+     */
+    public void ensureCapacity(int expected) throws IOException {
+        int oldCapacity;
+        int newCapacity;
+        synchronized (this) {
+            while (touched != null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted waiting for the set to grow");
+                }
+            }
+            newCapacity = capacity;
+            while ((long) expected * 2 > newCapacity) {
+                newCapacity <<= 1;
+            }
+            if (newCapacity == capacity) {
+                return;
+            }
+            oldCapacity = capacity;
+            touched = new HashSet<>();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            grow(temp, oldCapacity, newCapacity);
+        } finally {
+            // Before the next grower can start and reuse the temporary file
+            try {
+                Files.deleteIfExists(temp);
+            } finally {
+                synchronized (this) {
+                    touched = null;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    private int find(long most, long least) throws IOException {
+        if (most == 0L && least == 0L) {
+            // The empty-slot marker; no player has this UUID
+            return -1;
+        }
+        int mask = capacity - 1;
+        int index = home(most, least, mask);
+        while (readSlot(index)) {
+            if (slot.getLong(0) == most && slot.getLong(8) == least) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Copy every entry into a table of {@code newCapacity} slots in {@code temp} and swap
+     * it in. Called with {@link #touched} set and without the lock, which is taken for each
+     * chunk read and for the swap.
+     */
+    private void grow(Path temp, int oldCapacity, int newCapacity) throws IOException {
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            format(target, newCapacity);
+            ByteBuffer chunk = ByteBuffer.allocate(COPY_CHUNK * SLOT_LENGTH);
+            for (int start = 0; start < oldCapacity; start += COPY_CHUNK) {
+                chunk.clear().limit(Math.min(COPY_CHUNK, oldCapacity - start) * SLOT_LENGTH);
+                synchronized (this) {
+                    readFully(channel, chunk, HEADER_LENGTH + (long) start * SLOT_LENGTH);
+                }
+                chunk.flip();
+                while (chunk.remaining() >= SLOT_LENGTH) {
+                    long most = chunk.getLong();
+                    long least = chunk.getLong();
+                    if (most != 0L || least != 0L) {
+                        insert(target, newCapacity, most, least);
+                    }
+                }
+            }
+
+            synchronized (this) {
+                // The old table is the truth; bring the entries that changed mid-copy in line with it
+                for (UUID id : touched) {
+                    long most = id.getMostSignificantBits();
+                    long least = id.getLeastSignificantBits();
+                    if (find(most, least) >= 0) {
+                        insert(target, newCapacity, most, least);
+                    } else {
+                        delete(target, newCapacity, most, least);
+                    }
+                }
+                ByteBuffer count = ByteBuffer.allocate(4).putInt(0, size);
+                target.write(count, 12);
+                target.force(false);
+                target.close();
+
+                // Closed first, since an open file cannot be replaced on every platform
+                channel.close();
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                capacity = newCapacity;
+            }
+        }
+    }
+
+    /**
+     * Note an entry changed while the set is growing
+     */
+    private void touch(long most, long least) {
+        if (touched != null) {
+            touched.add(new UUID(most, least));
+        }
+    }
+
+    /**
+     * Put an entry in {@code target} unless it is there already
+     */
+    private static void insert(FileChannel target, int targetCapacity, long most, long least) throws IOException {
+        int mask = targetCapacity - 1;
+        int index = home(most, least, mask);
+        ByteBuffer probe = ByteBuffer.allocate(SLOT_LENGTH);
+        while (true) {
+            probe.clear();
+            target.read(probe, HEADER_LENGTH + (long) index * SLOT_LENGTH);
+            long slotMost = probe.getLong(0);
+            long slotLeast = probe.getLong(8);
+            if (slotMost == most && slotLeast == least) {
+                return;
+            }
+            if (slotMost == 0L && slotLeast == 0L) {
+                writeSlot(target, index, most, least);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Take an entry out of {@code target}, if it is there, shifting later entries back
+     */
+    private static void delete(FileChannel target, int targetCapacity, long most, long least) throws IOException {
+        int mask = targetCapacity - 1;
+        int gap = home(most, least, mask);
+        ByteBuffer probe = ByteBuffer.allocate(SLOT_LENGTH);
+        while (true) {
+            probe.clear();
+            target.read(probe, HEADER_LENGTH + (long) gap * SLOT_LENGTH);
+            if (probe.getLong(0) == 0L && probe.getLong(8) == 0L) {
+                return;
+            }
+            if (probe.getLong(0) == most && probe.getLong(8) == least) {
+                break;
+            }
+            gap = (gap + 1) & mask;
+        }
+
+        int next = (gap + 1) & mask;
+        while (true) {
+            probe.clear();
+            target.read(probe, HEADER_LENGTH + (long) next * SLOT_LENGTH);
+            long nextMost = probe.getLong(0);
+            long nextLeast = probe.getLong(8);
+            if (nextMost == 0L && nextLeast == 0L) {
+                break;
+            }
+            int home = home(nextMost, nextLeast, mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                writeSlot(target, gap, nextMost, nextLeast);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        writeSlot(target, gap, 0L, 0L);
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("unexpected end of set file");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Read slot {@code index} into {@link #slot}
+     *
+     * @return whether the slot holds an entry
+     */
+    private boolean readSlot(int index) throws IOException {
+        slot.clear();
+        channel.read(slot, HEADER_LENGTH + (long) index * SLOT_LENGTH);
+        return slot.getLong(0) != 0L || slot.getLong(8) != 0L;
+    }
+
+    private static void writeSlot(FileChannel target, int index, long most, long least) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(SLOT_LENGTH).putLong(0, most).putLong(8, least);
+        target.write(entry, HEADER_LENGTH + (long) index * SLOT_LENGTH);
+    }
+
+    private void writeSize() throws IOException {
+        header.clear();
+        header.putInt(0, size).limit(4);
+        channel.write(header, 12);
+    }
+
+    private static void format(FileChannel target, int capacity) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+            .putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, capacity).putInt(12, 0);
+        target.write(header, 0);
+        // Writing the last byte sizes the file; the slots in between read back as zeroes
+        target.write(ByteBuffer.allocate(1), HEADER_LENGTH + (long) capacity * SLOT_LENGTH - 1);
+    }
+
+    private static int home(long most, long least, int mask) {
+        long hash = most ^ least;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,155 @@
+package world.hv2.starterpack.util;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Text formats for exported grant records, one record per line so files of any size can
+ * be written and read a line at a time.
+ *
+ * <p>Each record is a player's UUID, when the pack was given as epoch milliseconds, and
+ * the version of the kit they got as 16 hex digits:
+ * <pre>
+ * NDJSON: {"uuid":"069a79f4-44e9-4726-a5be-fca90e38aaf5","granted_at":1718000000000,"kit_version":"9f2c4e0b7a1d3c58"}
+ * CSV:    069a79f4-44e9-4726-a5be-fca90e38aaf5,1718000000000,9f2c4e0b7a1d3c58 (after a header line)
+ * </pre>
+ */
+public enum GrantRecordFormat {
+
+    NDJSON("ndjson"),
+    CSV("csv");
+
+    /** One parsed record. */
+    public record Entry(UUID player, long grantedAt, long kitVersion) {
+    }
+
+    private static final String CSV_HEADER = "uuid,granted_at,kit_version";
+
+    private final String extension;
+
+    GrantRecordFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * The format named by {@code name}, or null if there is none
+     */
+    public static GrantRecordFormat parse(String name) {
+        for (GrantRecordFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The format a file's extension names, or null if it names none
+     */
+    public static GrantRecordFormat forFile(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? null : parse(fileName.substring(dot + 1));
+    }
+
+    /**
+     * The line written before the first record, or null if the format has none
+     */
+    public String header() {
+        return this == CSV ? CSV_HEADER : null;
+    }
+
+    /**
+     * Append one record, without a line ending
+     */
+    public void format(StringBuilder out, UUID player, long grantedAt, long kitVersion) {
+        if (this == CSV) {
+            out.append(player).append(',').append(grantedAt).append(',');
+            appendHex(out, kitVersion);
+        } else {
+            out.append("{\"uuid\":\"").append(player)
+                .append("\",\"granted_at\":").append(grantedAt)
+                .append(",\"kit_version\":\"");
+            appendHex(out, kitVersion);
+            out.append("\"}");
+        }
+    }
+
+    private static void appendHex(StringBuilder out, long value) {
+        String hex = Long.toHexString(value);
+        for (int i = hex.length(); i < 16; i++) {
+            out.append('0');
+        }
+        out.append(hex);
+    }
+
+    /**
+     * Parse one line
+     *
+     * @return the record, or null for a blank line, the header, or a line that is not a
+     *         record in this format
+     */
+    public Entry parseLine(CharSequence line) {
+        String text = line.toString().strip();
+        if (text.isEmpty() || text.equalsIgnoreCase(CSV_HEADER)) {
+            return null;
+        }
+        try {
+            if (this == CSV) {
+                String[] fields = text.split(",", -1);
+                if (fields.length < 2) {
+                    return null;
+                }
+                long kitVersion = fields.length > 2 && !fields[2].isBlank() ? Long.parseUnsignedLong(fields[2].strip(), 16) : 0L;
+                return new Entry(UUID.fromString(fields[0].strip()), Long.parseLong(fields[1].strip()), kitVersion);
+            }
+
+            String uuid = jsonValue(text, "uuid");
+            String grantedAt = jsonValue(text, "granted_at");
+            if (uuid == null || grantedAt == null) {
+                return null;
+            }
+            String kitVersion = jsonValue(text, "kit_version");
+            return new Entry(UUID.fromString(uuid), Long.parseLong(grantedAt),
+                kitVersion != null && !kitVersion.isEmpty() ? Long.parseUnsignedLong(kitVersion, 16) : 0L);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The value of a top-level string or number field in a flat JSON object, without its
+     * quotes, or null if the field is missing. Enough for the records this class writes
+     * and for the same fields written by other tools.
+     */
+    static String jsonValue(String json, String field) {
+        String key = "\"" + field + "\"";
+        int at = json.indexOf(key);
+        if (at < 0) {
+            return null;
+        }
+        int colon = json.indexOf(':', at + key.length());
+        if (colon < 0) {
+            return null;
+        }
+        int start = colon + 1;
+        while (start < json.length() && Character.isWhitespace(json.charAt(start))) {
+            start++;
+        }
+        if (start >= json.length()) {
+            return null;
+        }
+        if (json.charAt(start) == '"') {
+            int end = json.indexOf('"', start + 1);
+            return end < 0 ? null : json.substring(start + 1, end);
+        }
+        int end = start;
+        while (end < json.length() && ",} \t".indexOf(json.charAt(end)) < 0) {
+            end++;
+        }
+        return json.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
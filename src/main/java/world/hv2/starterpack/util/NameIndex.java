@@ -0,0 +1,213 @@
+package world.hv2.starterpack.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A lowercase index of online player names, kept current from join and quit events so
+ * that lookups are hash probes and tab completion is a range query, instead of sweeps
+ * over every online player.
+ *
+ * <p>Each name is indexed under its lowercase form and, for a Floodgate-prefixed name,
+ * also under the unprefixed form -- so typing {@code acarm} completes {@code .acarm}, the
+ * same courtesy {@link PlayerLookup#targetNameCandidates} extends to lookups. Keys carry
+ * the real name after a {@code \0} separator, which keeps {@code Steve} and a Bedrock
+ * {@code .steve} from colliding on the shared key {@code steve}.
+ *
+ * <p>Alongside the sorted map, two hash maps answer whole-name lookups: one keyed by the
+ * lowercase name and one keyed by the lowercase unprefixed alias. {@link PlayerLookup}
+ * builds its exact, case-insensitive, and Floodgate tiers on those probes. A {@link BkTree}
+ * over the same keys answers "did you mean" when a lookup fails.
+ *
+ * <p>The value type is left open so the index holds whatever the caller resolves a name
+ * to; the plugin keeps {@code Player} handles, and tests use plain strings. Every backing
+ * map is concurrent, so lookups and completion may run on async command and chat threads
+ * while joins and quits update the index on the main thread.
+ *
+ * @param <T> what each name maps to
+ */
+public final class NameIndex<T> {
+
+    /** Separates the search key from the real name; sorts below every printable character. */
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentSkipListMap<String, Entry<T>> sorted = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Entry<T>> byName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry<T>> byAlias = new ConcurrentHashMap<>();
+    private final BkTree similar = new BkTree();
+
+    /** One indexed key: the real name, what it maps to, and whether the key is the unprefixed alias. */
+    record Entry<T>(String name, T value, boolean alias) {
+    }
+
+    /**
+     * Index a name that just came online.
+     *
+     * @param name  the player's real username
+     * @param value what the name resolves to
+     */
+    public void add(String name, T value) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        Entry<T> entry = new Entry<>(name, value, false);
+        sorted.put(lower + SEPARATOR + name, entry);
+        // A replaced entry is the same name's older session, already in the tree
+        if (byName.put(lower, entry) == null) {
+            similar.add(lower, name);
+        }
+        if (isPrefixed(name)) {
+            String alias = lower.substring(PlayerLookup.FLOODGATE_PREFIX.length());
+            Entry<T> aliasEntry = new Entry<>(name, value, true);
+            sorted.put(alias + SEPARATOR + name, aliasEntry);
+            if (byAlias.put(alias, aliasEntry) == null) {
+                similar.add(alias, name);
+            }
+        }
+    }
+
+    /**
+     * Drop a name that went offline. Only the entries still mapping to {@code value} are
+     * removed, so a quit that races a reconnect cannot evict the new session.
+     *
+     * @param name  the player's real username
+     * @param value what the name was indexed with
+     */
+    public void remove(String name, T value) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        Entry<T> entry = new Entry<>(name, value, false);
+        if (!byName.remove(lower, entry)) {
+            // A newer session owns the name; leave every structure pointing at it
+            return;
+        }
+        sorted.remove(lower + SEPARATOR + name, entry);
+        similar.remove(lower, name);
+        if (isPrefixed(name)) {
+            String alias = lower.substring(PlayerLookup.FLOODGATE_PREFIX.length());
+            Entry<T> aliasEntry = new Entry<>(name, value, true);
+            sorted.remove(alias + SEPARATOR + name, aliasEntry);
+            byAlias.remove(alias, aliasEntry);
+            similar.remove(alias, name);
+        }
+    }
+
+    /** Forget every name, e.g. when the plugin is disabled. */
+    public void clear() {
+        sorted.clear();
+        byName.clear();
+        byAlias.clear();
+        similar.clear();
+    }
+
+    /** The number of indexed players. */
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * The online names closest to {@code typed} by edit distance, nearest first. A
+     * Floodgate player is measured by both their real and unprefixed name, so a bare
+     * name typed by a Bedrock player still surfaces the prefixed form.
+     *
+     * @param typed what the sender typed
+     * @param limit the most names to return
+     * @return up to {@code limit} real names; empty only if nobody is online
+     */
+    public List<String> closest(String typed, int limit) {
+        List<String> names = new ArrayList<>(limit);
+        for (BkTree.Match match : similar.closest(typed.trim().toLowerCase(Locale.ROOT), limit)) {
+            names.add(match.name());
+        }
+        return names;
+    }
+
+    /**
+     * The player whose name, ignoring case, is {@code lowerName}.
+     *
+     * @param lowerName a name already lowercased with {@link Locale#ROOT}
+     * @return the entry, or null if nobody online has that name
+     */
+    Entry<T> byName(String lowerName) {
+        return byName.get(lowerName);
+    }
+
+    /**
+     * The Floodgate player whose name without the prefix, ignoring case, is
+     * {@code lowerAlias}.
+     *
+     * @param lowerAlias an unprefixed name already lowercased with {@link Locale#ROOT}
+     * @return the entry, or null if no prefixed player has that alias
+     */
+    Entry<T> byAlias(String lowerAlias) {
+        return byAlias.get(lowerAlias);
+    }
+
+    /**
+     * The shortest name or alias starting with {@code lowerPrefix} -- the same tie-break
+     * {@code Bukkit.getPlayer(String)} applies to partial names.
+     *
+     * @param lowerPrefix a partial name already lowercased with {@link Locale#ROOT}
+     * @return the closest entry, or null if nothing starts with the prefix
+     */
+    Entry<T> shortestWithPrefix(String lowerPrefix) {
+        Entry<T> best = null;
+        int bestDelta = Integer.MAX_VALUE;
+        for (Entry<T> entry : sorted.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, false).values()) {
+            int keyLength = entry.alias()
+                ? entry.name().length() - PlayerLookup.FLOODGATE_PREFIX.length()
+                : entry.name().length();
+            int delta = keyLength - lowerPrefix.length();
+            if (delta < bestDelta) {
+                best = entry;
+                bestDelta = delta;
+                if (delta == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The real names whose name or unprefixed alias starts with {@code typed}, ignoring
+     * case, in sorted key order.
+     *
+     * @param typed the partial name the sender has typed so far
+     * @param out   where matching names are added
+     */
+    public void complete(String typed, Collection<? super String> out) {
+        String prefix = typed.toLowerCase(Locale.ROOT);
+        if (prefix.isEmpty()) {
+            // Every player matches an empty prefix; skip aliases so nobody is listed twice
+            for (Entry<T> entry : sorted.values()) {
+                if (!entry.alias()) {
+                    out.add(entry.name());
+                }
+            }
+            return;
+        }
+        NavigableMap<String, Entry<T>> range = sorted.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Entry<T> entry : range.values()) {
+            out.add(entry.name());
+        }
+    }
+
+    /**
+     * As {@link #complete(String, Collection)}, into a new list.
+     *
+     * @param typed the partial name the sender has typed so far
+     * @return the matching real names
+     */
+    public List<String> complete(String typed) {
+        List<String> names = new ArrayList<>();
+        complete(typed, names);
+        return names;
+    }
+
+    private static boolean isPrefixed(String name) {
+        return name.length() > PlayerLookup.FLOODGATE_PREFIX.length() && name.startsWith(PlayerLookup.FLOODGATE_PREFIX);
+    }
+}
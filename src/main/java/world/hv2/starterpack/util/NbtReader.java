@@ -0,0 +1,131 @@
+package world.hv2.starterpack.util;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Just enough of Minecraft's NBT format to find the persistent data keys in a player
+ * data file, without building the rest of the file in memory.
+ *
+ * <p>Bukkit keeps a player's persistent data container in a compound named
+ * {@code BukkitValues} at the top of the player's NBT. The reader walks the root compound,
+ * skipping every other tag's payload, and stops as soon as that compound has been read.
+ */
+public final class NbtReader {
+
+    /** Name of the compound Bukkit stores persistent data in. */
+    public static final String PERSISTENT_DATA_TAG = "BukkitValues";
+
+    private static final int TAG_END = 0;
+    private static final int TAG_BYTE = 1;
+    private static final int TAG_SHORT = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_INT_ARRAY = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    private NbtReader() {
+    }
+
+    /**
+     * Read the keys of a player's persistent data container from uncompressed NBT
+     *
+     * @param in the NBT, positioned at the root tag
+     * @return the container's keys, such as {@code starterpack:received_starter_pack};
+     *         empty if the player has no persistent data
+     * @throws IOException if the data ends early or is not NBT
+     */
+    public static List<String> persistentDataKeys(DataInput in) throws IOException {
+        if (in.readUnsignedByte() != TAG_COMPOUND) {
+            throw new IOException("Root tag is not a compound");
+        }
+        skipString(in);
+
+        int type;
+        while ((type = in.readUnsignedByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (type == TAG_COMPOUND && name.equals(PERSISTENT_DATA_TAG)) {
+                return compoundKeys(in);
+            }
+            skipPayload(in, type);
+        }
+        return List.of();
+    }
+
+    /**
+     * Read the names of a compound's entries, skipping their values
+     */
+    private static List<String> compoundKeys(DataInput in) throws IOException {
+        List<String> keys = new ArrayList<>();
+        int type;
+        while ((type = in.readUnsignedByte()) != TAG_END) {
+            keys.add(in.readUTF());
+            skipPayload(in, type);
+        }
+        return keys;
+    }
+
+    private static void skipPayload(DataInput in, int type) throws IOException {
+        switch (type) {
+            case TAG_BYTE -> skipFully(in, 1);
+            case TAG_SHORT -> skipFully(in, 2);
+            case TAG_INT, TAG_FLOAT -> skipFully(in, 4);
+            case TAG_LONG, TAG_DOUBLE -> skipFully(in, 8);
+            case TAG_BYTE_ARRAY -> skipFully(in, length(in));
+            case TAG_STRING -> skipString(in);
+            case TAG_LIST -> {
+                int elementType = in.readUnsignedByte();
+                int length = length(in);
+                for (int i = 0; i < length; i++) {
+                    skipPayload(in, elementType);
+                }
+            }
+            case TAG_COMPOUND -> {
+                int entryType;
+                while ((entryType = in.readUnsignedByte()) != TAG_END) {
+                    skipString(in);
+                    skipPayload(in, entryType);
+                }
+            }
+            case TAG_INT_ARRAY -> skipFully(in, (long) length(in) * 4);
+            case TAG_LONG_ARRAY -> skipFully(in, (long) length(in) * 8);
+            default -> throw new IOException("Unknown tag type " + type);
+        }
+    }
+
+    private static int length(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative length " + length);
+        }
+        return length;
+    }
+
+    private static void skipString(DataInput in) throws IOException {
+        skipFully(in, in.readUnsignedShort());
+    }
+
+    /**
+     * Skip exactly {@code count} bytes; {@link DataInput#skipBytes} may skip fewer on a
+     * compressed stream
+     */
+    private static void skipFully(DataInput in, long count) throws IOException {
+        while (count > 0) {
+            int skipped = in.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                // skipBytes gives up at the end of a stream chunk; readByte tells the two apart
+                in.readByte();
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+}
@@ -3,8 +3,8 @@ package world.hv2.starterpack.util;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -23,14 +23,18 @@ import java.util.Optional;
  * <p>This matters more than an ordinary lookup nicety because Bedrock players get no tab
  * completion at all: Geyser bakes the whole command tree into one login packet and never
  * sends command-suggestion packets, so a Bedrock player cannot discover the prefixed
- * form. That is also why {@link #noSuchPlayerMessage} names who *is* online instead of
- * dead-ending -- it is the only channel through which the correct name reaches them.
+ * form. That is also why {@link #noSuchPlayerMessage} names the closest online players
+ * instead of dead-ending -- it is the only channel through which the correct name reaches
+ * them.
  *
  * <p>The prefix is hardcoded to Floodgate's default rather than made configurable. A
  * plugin config key would be a second, unvalidatable source of truth for a value owned by
  * a different plugin's config, and it would silently rot if the server changed one and not
- * the other. A server that has reconfigured the prefix still resolves through the
- * case-insensitive sweep in {@link #resolve}.
+ * the other. A server that has reconfigured the prefix still resolves the full name through
+ * the case-insensitive tier in {@link #resolve}.
+ *
+ * <p>Lookups go through a {@link NameIndex} maintained from join and quit events rather
+ * than through Bukkit's own lookups, which sweep every online player.
  *
  * <p>Deliberately duplicated per plugin rather than extracted to a shared library; see
  * the ecosystem design note on why no shared module exists across these repositories.
@@ -38,13 +42,17 @@ import java.util.Optional;
 public final class PlayerLookup {
 
     /** The Floodgate default prefix on a Bedrock account's Java-side username. */
-    private static final String FLOODGATE_PREFIX = ".";
+    static final String FLOODGATE_PREFIX = ".";
+
+    /** How many "did you mean" names a failed lookup offers. */
+    private static final int SUGGESTION_LIMIT = 5;
 
     private PlayerLookup() {
     }
 
     /**
-     * The usernames to try, in order, for a typed target name.
+     * The usernames to try, in order, for a typed target name. This is the order
+     * {@link #resolve} probes the index in.
      *
      * @param typed the raw name argument
      * @return candidate usernames, most likely first; empty for a null or blank input
@@ -68,76 +76,94 @@ public final class PlayerLookup {
      *
      * <p>Naming who <em>is</em> online turns a dead end into a usable correction: it is
      * the only way a Bedrock player discovers a Floodgate-prefixed username without
-     * knowing Floodgate exists.
+     * knowing Floodgate exists. Only the closest few names are offered, so the message
+     * stays readable on a server with hundreds of players online.
      *
      * @param typed       the name the sender typed
-     * @param onlineNames the usernames currently online
+     * @param suggestions the closest online usernames, nearest first
      */
-    public static String noSuchPlayerMessage(String typed, List<String> onlineNames) {
-        if (onlineNames == null || onlineNames.isEmpty()) {
+    public static String noSuchPlayerMessage(String typed, List<String> suggestions) {
+        if (suggestions == null || suggestions.isEmpty()) {
             return "No player matches '" + typed + "'; no players are online.";
         }
-        return "No player matches '" + typed + "'. Online: " + String.join(", ", onlineNames);
+        return "No player matches '" + typed + "'. Did you mean: " + String.join(", ", suggestions) + "?";
+    }
+
+    /**
+     * As {@link #noSuchPlayerMessage(String, List)}, with the suggestions drawn from the
+     * online players closest to {@code typed} by edit distance.
+     *
+     * @param index the online-player name index
+     * @param typed the name the sender typed
+     */
+    public static String noSuchPlayerMessage(NameIndex<?> index, String typed) {
+        return noSuchPlayerMessage(typed, index.closest(typed, SUGGESTION_LIMIT));
     }
 
     /**
      * Resolves a typed name to an online player, trying each candidate exactly, then
      * case-insensitively.
      *
+     * <p>Each tier is a hash probe into {@code index}: the typed name against the
+     * lowercase-name map, then against the unprefixed-alias map, which is the same
+     * candidate order {@link #targetNameCandidates} spells out without building the
+     * prefixed string. Safe to call from async command and chat threads.
+     *
+     * @param index the online-player name index
      * @param typed the raw name argument
+     * @param <T>   what the index maps names to
      * @return the matching online player, or empty if none matches
      */
-    public static Optional<Player> resolve(String typed) {
-        List<String> candidates = targetNameCandidates(typed);
-        for (String candidate : candidates) {
-            Player player = Bukkit.getPlayerExact(candidate);
-            if (player != null) {
-                return Optional.of(player);
-            }
+    public static <T> Optional<T> resolve(NameIndex<T> index, String typed) {
+        if (typed == null) {
+            return Optional.empty();
+        }
+        String trimmed = typed.trim();
+        if (trimmed.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = trimmed.toLowerCase(Locale.ROOT);
+        NameIndex.Entry<T> byName = index.byName(key);
+        if (byName != null && byName.name().equals(trimmed)) {
+            return Optional.of(byName.value());
+        }
+        NameIndex.Entry<T> byAlias = trimmed.startsWith(FLOODGATE_PREFIX) ? null : index.byAlias(key);
+        if (byAlias != null && byAlias.name().startsWith(trimmed, FLOODGATE_PREFIX.length())) {
+            return Optional.of(byAlias.value());
+        }
+        // Neither matched exactly: take a case-insensitive hit, the plain name first. This
+        // also covers a server that has reconfigured Floodgate's username prefix, as long
+        // as the full name is typed.
+        if (byName != null) {
+            return Optional.of(byName.value());
         }
-        // Last resort: a case-insensitive sweep, which also covers a server that has
-        // reconfigured Floodgate's username prefix away from the default.
-        for (String candidate : candidates) {
-            for (Player online : Bukkit.getOnlinePlayers()) {
-                if (online.getName().equalsIgnoreCase(candidate)) {
-                    return Optional.of(online);
-                }
-            }
+        if (byAlias != null) {
+            return Optional.of(byAlias.value());
         }
         return Optional.empty();
     }
 
     /**
-     * As {@link #resolve}, plus Bukkit's own partial-name matching as a final tier.
+     * As {@link #resolve}, plus partial-name matching as a final tier.
      *
      * <p>For call sites that previously used {@link Bukkit#getPlayer(String)}. That
      * method prefix-matches, so operators may already be typing partial names; dropping
      * to exact-only would be an unrequested regression on top of the Floodgate fix. The
-     * partial tier runs last so an exact match always wins over a partial one.
+     * partial tier runs last so an exact match always wins over a partial one, and it
+     * keeps Bukkit's tie-break of the shortest matching name. It is a range query over
+     * the index's sorted keys rather than Bukkit's sweep of every online player.
      *
+     * @param index the online-player name index
      * @param typed the raw name argument
+     * @param <T>   what the index maps names to
      * @return the matching online player, or empty if none matches
      */
-    public static Optional<Player> resolveAllowingPartial(String typed) {
-        Optional<Player> exact = resolve(typed);
-        if (exact.isPresent()) {
+    public static <T> Optional<T> resolveAllowingPartial(NameIndex<T> index, String typed) {
+        Optional<T> exact = resolve(index, typed);
+        if (exact.isPresent() || typed == null || typed.isBlank()) {
             return exact;
         }
-        for (String candidate : targetNameCandidates(typed)) {
-            Player player = Bukkit.getPlayer(candidate);
-            if (player != null) {
-                return Optional.of(player);
-            }
-        }
-        return Optional.empty();
-    }
-
-    /** The names of every online player, for {@link #noSuchPlayerMessage}. */
-    public static List<String> onlineNames() {
-        List<String> names = new ArrayList<>();
-        for (Player online : Bukkit.getOnlinePlayers()) {
-            names.add(online.getName());
-        }
-        return names;
+        NameIndex.Entry<T> partial = index.shortestWithPrefix(typed.trim().toLowerCase(Locale.ROOT));
+        return partial == null ? Optional.empty() : Optional.of(partial.value());
     }
 }
@@ -0,0 +1,209 @@
+package world.hv2.starterpack.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel: timers scheduled in ticks and expired by advancing the
+ * wheel one tick at a time, as a single repeating task can.
+ *
+ * <p>There are {@value #LEVELS} wheels of {@value #SLOTS} slots. The first holds timers due
+ * within 64 ticks, one slot per tick; each further wheel's slots span 64 times as many
+ * ticks as the one below, so four wheels cover about ten days at 20 ticks a second. When
+ * the first wheel comes round, the next wheel's current slot is emptied and its timers
+ * re-filed below, and so on up. Scheduling and cancelling are O(1): each slot is an
+ * intrusive doubly linked list, and a {@link Timer} knows its slot. A tick costs one slot
+ * plus, every 64 ticks, the timers cascading down. Timers further out than the wheels
+ * reach wait in the top wheel and are re-filed each time round until they are in range.
+ *
+ * <p>Not thread-safe; the owner confines it to one thread.
+ */
+public final class TimingWheel<T> {
+
+    /** Number of wheels. */
+    public static final int LEVELS = 4;
+
+    /** Slots per wheel. */
+    public static final int SLOTS = 64;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /** Ticks the wheels reach; one beyond the furthest deadline that is filed exactly. */
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /** A scheduled value, its deadline, and its place in a slot's list. */
+    public static final class Timer<T> {
+        private final T value;
+        private long deadline;
+        private int slot = -1;
+        private Timer<T> previous;
+        private Timer<T> next;
+
+        private Timer(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * The tick the timer expires on
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Whether the timer is waiting: scheduled and neither expired nor cancelled
+         */
+        public boolean isPending() {
+            return slot >= 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Timer<T>[] heads = new Timer[LEVELS * SLOTS];
+    private long tick;
+    private int size;
+
+    /**
+     * @param start the first tick {@link #advance} will process
+     */
+    public TimingWheel(long start) {
+        this.tick = start;
+    }
+
+    /**
+     * The next tick to be processed; a timer scheduled with no delay expires on it
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Number of pending timers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedule a value to expire {@code delay} ticks from {@link #getTick()}
+     *
+     * @param delay ticks to wait; zero or less expires on the next tick processed
+     * @return a handle for {@link #cancel}
+     */
+    public Timer<T> schedule(T value, long delay) {
+        Timer<T> timer = new Timer<>(value);
+        timer.deadline = tick + Math.max(0L, delay);
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancel a pending timer
+     *
+     * @return whether it was pending
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.slot < 0) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Process one tick, passing the value of every timer that expires on it to {@code expired}.
+     * The callback may schedule and cancel timers; anything it schedules expires on a later tick.
+     */
+    public void advance(Consumer<? super T> expired) {
+        int index = (int) (tick & SLOT_MASK);
+        if (index == 0) {
+            cascade();
+        }
+
+        // Detach the slot first, so timers scheduled by the callback are not run this tick
+        Timer<T> timer = heads[index];
+        heads[index] = null;
+        tick++;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            timer.slot = -1;
+            size--;
+            expired.accept(timer.value);
+            timer = next;
+        }
+    }
+
+    /**
+     * Re-file the current slot of each upper wheel whose lower wheels have just come round
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            int slot = level * SLOTS + index;
+            Timer<T> timer = heads[slot];
+            heads[slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                file(timer);
+                timer = next;
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Put a timer in the slot its deadline falls in, relative to the current tick
+     */
+    private void file(Timer<T> timer) {
+        long delta = timer.deadline - tick;
+        long target = timer.deadline;
+        if (delta < 0) {
+            target = tick;
+            delta = 0;
+        } else if (delta >= SPAN) {
+            // Out of reach; park it as far out as the top wheel goes
+            target = tick + SPAN - 1;
+            delta = SPAN - 1;
+        }
+
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        Timer<T> head = heads[slot];
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        heads[slot] = timer;
+        timer.slot = slot;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            heads[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.slot = -1;
+    }
+}
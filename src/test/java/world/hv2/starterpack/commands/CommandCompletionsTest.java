@@ -0,0 +1,82 @@
+package world.hv2.starterpack.commands;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.util.NameIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link CommandCompletions} over a string-valued name index and a fixed world
+ * snapshot -- the same thread-safe state the async tab-complete listener reads.
+ */
+class CommandCompletionsTest {
+
+    private CommandCompletions completions;
+
+    @BeforeEach
+    void setUp() {
+        NameIndex<String> index = new NameIndex<>();
+        index.add("Steve", "steve");
+        index.add(".acarm", "acarm");
+        completions = new CommandCompletions(index);
+        completions.setWorldKeys(List.of("minecraft:overworld", "minecraft:the_nether"));
+        completions.setKitNames(List.of("starter", "respawn", "milestone-1h"));
+    }
+
+    @Test
+    @DisplayName("non-admins are only offered help, version, broadcasts and preview")
+    void nonAdminSubcommands() {
+        assertEquals(List.of("help", "version", "broadcasts", "preview"), completions.complete(false, new String[] {""}));
+        assertTrue(completions.complete(false, new String[] {"give", ""}).isEmpty());
+    }
+
+    @Test
+    @DisplayName("admins are offered every subcommand matching the prefix")
+    void adminSubcommands() {
+        assertEquals(List.of("reload", "reset"), completions.complete(true, new String[] {"re"}));
+        assertEquals(List.of("csv"), completions.complete(true, new String[] {"export", "c"}));
+        assertEquals(List.of(), completions.complete(false, new String[] {"export", ""}));
+    }
+
+    @Test
+    @DisplayName("a targeted subcommand offers bulk targets, selectors and players")
+    void targetedSubcommand() {
+        assertEquals(List.of("@world", "@perm", "@a", "@p", "@r", "@s", ".acarm", "Steve"),
+            completions.complete(true, new String[] {"give", ""}));
+        assertEquals(List.of("@world"), completions.complete(true, new String[] {"force", "@w"}));
+        assertEquals(List.of(".acarm"), completions.complete(true, new String[] {"equip", "ac"}));
+    }
+
+    @Test
+    @DisplayName("broadcasts offers on and off to everyone")
+    void broadcastsToggle() {
+        assertEquals(List.of("off"), completions.complete(false, new String[] {"broadcasts", "of"}));
+        assertEquals(List.of("on", "off"), completions.complete(true, new String[] {"BROADCASTS", ""}));
+    }
+
+    @Test
+    @DisplayName("preview offers kit names to everyone")
+    void previewKits() {
+        assertEquals(List.of("milestone-1h"), completions.complete(false, new String[] {"preview", "m"}));
+        assertEquals(List.of("starter", "respawn", "milestone-1h"), completions.complete(true, new String[] {"preview", ""}));
+    }
+
+    @Test
+    @DisplayName("reset also offers all")
+    void resetOffersAll() {
+        assertEquals(List.of("all"), completions.complete(true, new String[] {"reset", "al"}));
+    }
+
+    @Test
+    @DisplayName("world keys complete with or without the namespace")
+    void worldKeys() {
+        assertEquals(List.of("minecraft:the_nether"), completions.complete(true, new String[] {"give", "@world", "the"}));
+        assertEquals(List.of("minecraft:overworld"), completions.complete(true, new String[] {"give", "@WORLD", "minecraft:o"}));
+    }
+}
@@ -0,0 +1,137 @@
+package world.hv2.starterpack.commands;
+
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.MailboxManager;
+import world.hv2.starterpack.tasks.BatchedPlayerTask;
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises how {@code /starterpack give} treats a target who is not online, what it
+ * queues in the mailbox and what it refuses, how {@code equip} and {@code force}
+ * differ for a player who already wears gear, and which players a bulk target reaches.
+ */
+class StarterPackCommandTest {
+
+    @TempDir
+    File folder;
+
+    private FakeServer server;
+    private MailboxManager mailbox;
+    private StarterPackCommand command;
+    private CommandSender console;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        StarterPackPlugin plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of(), folder);
+        mailbox = plugin.getMailboxManager();
+        command = new StarterPackCommand(plugin);
+        console = server.getConsoleSender();
+    }
+
+    @Test
+    @DisplayName("an offline player is queued by name or UUID, once")
+    void queuesKnownPlayers() {
+        FakePlayer away = server.connect("Away");
+        server.disconnect(away);
+
+        assertTrue(command.giveOffline(console, "away"));
+        assertTrue(mailbox.hasPending(away.getUniqueId()));
+        assertTrue(command.giveOffline(console, away.getUniqueId().toString()), "already queued is still a known player");
+        assertEquals(1, mailbox.size());
+
+        // A UUID needs no lookup, so a player who has never joined can be queued too
+        UUID stranger = UUID.randomUUID();
+        assertTrue(command.giveOffline(console, stranger.toString()));
+        assertTrue(mailbox.hasPending(stranger));
+    }
+
+    @Test
+    @DisplayName("an unknown name or an invalid UUID queues nothing")
+    void refusesUnknown() {
+        assertFalse(command.giveOffline(console, "Nobody"));
+        assertFalse(command.giveOffline(console, "123e4567-e89b-12d3-a456-42661417400z"), "not hex");
+        assertFalse(command.giveOffline(console, "123e4567e89b-12d3-a456-426614174000-"), "dashes out of place");
+        assertEquals(0, mailbox.size());
+    }
+
+    @Test
+    @DisplayName("the UUID of a player who is online gives the pack now instead of queueing it")
+    void onlineByUuid() {
+        FakePlayer here = server.connect("Here");
+
+        assertTrue(command.giveOffline(console, here.getUniqueId().toString()));
+        assertFalse(mailbox.hasPending(here.getUniqueId()));
+        assertTrue(here.inventoryState().itemsAddedCount() > 0);
+    }
+
+    @Test
+    @DisplayName("equip skips a player who wears gear, while force equips them and keeps their gear")
+    void equipAndForce() {
+        FakePlayer geared = server.connect("Geared");
+        ItemStack oldHelmet = FakeItem.stack(Material.IRON_HELMET, 1);
+        geared.asPlayer().getInventory().setArmorContents(new ItemStack[] {null, null, null, oldHelmet});
+
+        assertEquals(BatchedPlayerTask.Outcome.SKIPPED, command.equipAction(console).apply(geared.asPlayer()));
+        assertEquals(oldHelmet, geared.asPlayer().getInventory().getHelmet());
+
+        assertEquals(BatchedPlayerTask.Outcome.APPLIED, command.forceAction(console).apply(geared.asPlayer()));
+        assertEquals(Material.LEATHER_HELMET, geared.asPlayer().getInventory().getHelmet().getType());
+        assertEquals(1, geared.inventoryState().itemsAddedCount(), "the old helmet should be moved to the inventory");
+
+        FakePlayer bare = server.connect("Bare");
+        assertEquals(BatchedPlayerTask.Outcome.APPLIED, command.equipAction(console).apply(bare.asPlayer()));
+        assertEquals(Material.LEATHER_HELMET, bare.asPlayer().getInventory().getHelmet().getType());
+        assertEquals(0, bare.inventoryState().itemsAddedCount());
+    }
+
+    @Test
+    @DisplayName("@perm reaches only online players with the node, in batches, and an empty match starts nothing")
+    void permTarget() {
+        FakePlayer first = server.connect("First");
+        FakePlayer without = server.connect("Without");
+        FakePlayer second = server.connect("Second");
+        FakePlayer gone = server.connect("Gone");
+        first.grantPermission("group.new");
+        second.grantPermission("group.new");
+        gone.grantPermission("group.new");
+        server.disconnect(gone);
+
+        List<UUID> targets = command.withPermission("group.new");
+        assertEquals(List.of(first.getUniqueId(), second.getUniqueId()), targets);
+
+        assertEquals(0, command.startBulk(console, "players with permission 'group.none'",
+            command.withPermission("group.none"), "equip starter items", command.equipAction(console)));
+        assertEquals(0, server.schedulerState().pendingCount());
+
+        assertEquals(1, command.startBulk(console, "players with permission 'group.new'", targets,
+            "equip starter items", command.equipAction(console)));
+        server.schedulerState().tick();
+        assertEquals(Material.LEATHER_HELMET, first.asPlayer().getInventory().getHelmet().getType());
+        assertEquals(Material.LEATHER_HELMET, second.asPlayer().getInventory().getHelmet().getType());
+        assertNull(without.asPlayer().getInventory().getHelmet());
+        assertEquals(0, server.schedulerState().pendingCount());
+    }
+}
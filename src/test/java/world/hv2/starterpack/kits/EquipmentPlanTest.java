@@ -0,0 +1,85 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeWorld;
+import world.hv2.starterpack.testing.TestKits;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applying a compiled {@link EquipmentPlan} to a stub inventory: one armor update, the
+ * displaced items handed back, and every slot restored when an update fails.
+ */
+class EquipmentPlanTest {
+
+    private EquipmentPlan plan;
+    private FakePlayer player;
+    private PlayerInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        plan = TestKits.starterKit().getEquipment();
+        player = new FakePlayer("Steve", new FakeWorld("world"));
+        inventory = player.asPlayer().getInventory();
+    }
+
+    @Test
+    @DisplayName("armor goes on in one update, plus one per hand")
+    void singleArmorUpdate() {
+        assertTrue(plan.apply(inventory).isEmpty());
+
+        assertEquals(3, player.inventoryState().equipmentUpdateCount());
+        assertEquals(Material.LEATHER_HELMET, inventory.getHelmet().getType());
+        assertEquals(Material.LEATHER_BOOTS, inventory.getBoots().getType());
+        assertEquals(Material.STONE_SWORD, inventory.getItemInMainHand().getType());
+        assertEquals(Material.SHIELD, inventory.getItemInOffHand().getType());
+    }
+
+    @Test
+    @DisplayName("items in planned slots are handed back, not overwritten")
+    void returnsDisplacedItems() {
+        ItemStack oldChestplate = FakeItem.stack(Material.IRON_CHESTPLATE, 1);
+        ItemStack torch = FakeItem.stack(Material.TORCH, 12);
+        inventory.setArmorContents(new ItemStack[] {null, null, oldChestplate, null});
+        inventory.setItemInMainHand(torch);
+
+        assertEquals(List.of(oldChestplate, torch), plan.apply(inventory));
+    }
+
+    @Test
+    @DisplayName("a failed hand update restores armor and both hands")
+    void rollsBackOnFailure() {
+        ItemStack oldHelmet = FakeItem.stack(Material.IRON_HELMET, 1);
+        inventory.setArmorContents(new ItemStack[] {null, null, null, oldHelmet});
+        IllegalStateException failure = new IllegalStateException("slot rejected");
+        player.inventoryState().failNextOffHandUpdate(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> plan.apply(inventory)));
+
+        assertSame(oldHelmet, inventory.getHelmet());
+        assertNull(inventory.getChestplate());
+        assertNull(inventory.getItemInMainHand());
+        assertNull(inventory.getItemInOffHand());
+    }
+
+    @Test
+    @DisplayName("an empty plan touches nothing")
+    void emptyPlan() {
+        assertTrue(EquipmentPlan.empty().apply(inventory).isEmpty());
+        assertEquals(0, player.inventoryState().equipmentUpdateCount());
+    }
+}
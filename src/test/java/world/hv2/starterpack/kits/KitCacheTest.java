@@ -0,0 +1,145 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.TestKits;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Round trips through {@link KitCache}, and the files it must refuse. Real item bytes need
+ * a live server, so stub stacks are stored as their material and amount.
+ */
+class KitCacheTest {
+
+    private static final byte[] KEY = KitCache.key("starter-pack: {}".getBytes(StandardCharsets.UTF_8), "1.0", "1.0");
+
+    @TempDir
+    Path folder;
+
+    private Path file;
+    private KitCache cache;
+
+    @BeforeEach
+    void setUp() {
+        file = folder.resolve("kits.cache");
+        cache = new KitCache(file, KitCacheTest::serialize, KitCacheTest::deserialize);
+    }
+
+    @Test
+    @DisplayName("kits and compile warnings read back as written")
+    void hit() throws IOException {
+        Kit starter = TestKits.starterKit();
+        cache.write(KEY, kits(starter), List.of("Invalid material: DIAMOND_SWORDD"));
+
+        KitCache.Contents contents = cache.read(KEY);
+        assertNotNull(contents);
+        assertEquals(List.of("Invalid material: DIAMOND_SWORDD"), contents.warnings());
+
+        Kit read = contents.kits().get(starter.getName());
+        assertEquals(describe(starter.getItems()), describe(read.getItems()));
+        assertEquals(starter.getEquipment().getSlots().keySet(), read.getEquipment().getSlots().keySet());
+        for (EquipmentSlot slot : starter.getEquipment().getSlots().keySet()) {
+            assertEquals(starter.getEquipment().getSlots().get(slot).toString(),
+                read.getEquipment().getSlots().get(slot).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("a cache written for another config, server or plugin version is a miss")
+    void missOnKeyChange() throws IOException {
+        cache.write(KEY, kits(TestKits.starterKit()), List.of());
+
+        byte[] changed = KitCache.key("starter-pack: {}".getBytes(StandardCharsets.UTF_8), "1.0", "1.1");
+        assertFalse(Arrays.equals(KEY, changed));
+        assertNull(cache.read(changed));
+    }
+
+    @Test
+    @DisplayName("a missing, truncated or corrupt file is a miss, not an error")
+    void corrupt() throws IOException {
+        assertNull(cache.read(KEY), "no file yet");
+
+        cache.write(KEY, kits(TestKits.starterKit()), List.of("a warning"));
+        byte[] whole = Files.readAllBytes(file);
+        for (int length : new int[] {0, 3, 40, whole.length / 2, whole.length - 1}) {
+            Files.write(file, Arrays.copyOf(whole, length));
+            assertNull(cache.read(KEY), "truncated to " + length + " bytes");
+        }
+
+        byte[] garbled = whole.clone();
+        Arrays.fill(garbled, 44, 48, (byte) 0x7F);
+        Files.write(file, garbled);
+        assertNull(cache.read(KEY), "a kit name length past the end of the file");
+    }
+
+    @Test
+    @DisplayName("writing replaces the whole file and leaves no temporary file behind")
+    void atomicReplace() throws IOException {
+        cache.write(KEY, kits(TestKits.starterKit()), List.of("old warning"));
+
+        // A write that crashed before its move leaves only a stray temporary file
+        Path temp = folder.resolve("kits.cache.tmp");
+        Files.write(temp, new byte[] {1, 2, 3});
+        assertNotNull(cache.read(KEY));
+
+        Kit smaller = new Kit("starter", List.of(FakeItem.stack(Material.BREAD, 3)), EquipmentPlan.empty());
+        cache.write(KEY, kits(smaller), List.of());
+
+        KitCache.Contents contents = cache.read(KEY);
+        assertEquals(List.of("3xBREAD"), describe(contents.kits().get("starter").getItems()));
+        assertEquals(List.of(), contents.warnings());
+        assertFalse(Files.exists(temp));
+        try (var listing = Files.list(folder)) {
+            assertEquals(List.of(file), listing.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("delete removes the file, and deleting a missing cache is not an error")
+    void delete() throws IOException {
+        cache.write(KEY, kits(TestKits.starterKit()), List.of());
+        cache.delete();
+        assertFalse(Files.exists(file));
+        assertNull(cache.read(KEY));
+        cache.delete();
+    }
+
+    private static Map<String, Kit> kits(Kit kit) {
+        Map<String, Kit> kits = new LinkedHashMap<>();
+        kits.put(kit.getName(), kit);
+        return kits;
+    }
+
+    private static List<String> describe(List<ItemStack> items) {
+        return items.stream().map(ItemStack::toString).toList();
+    }
+
+    private static byte[] serialize(ItemStack item) {
+        return (item.getType().name() + ":" + item.getAmount()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ItemStack deserialize(byte[] bytes) {
+        String[] parts = new String(bytes, StandardCharsets.UTF_8).split(":");
+        return FakeItem.stack(Material.valueOf(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
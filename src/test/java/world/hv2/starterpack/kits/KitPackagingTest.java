@@ -0,0 +1,68 @@
+package world.hv2.starterpack.kits;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.testing.FakeItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which kits {@link KitPackaging} can pack: a bundle by weight, a shulker box by slots.
+ * Building the containers needs a live server, so only the fit rules are covered here.
+ */
+class KitPackagingTest {
+
+    @Test
+    @DisplayName("packaging names parse case-insensitively, and unknown names are rejected")
+    void parse() {
+        assertEquals(KitPackaging.BUNDLE, KitPackaging.parse("Bundle"));
+        assertEquals(KitPackaging.SHULKER, KitPackaging.parse(" shulker "));
+        assertEquals(KitPackaging.NONE, KitPackaging.parse("none"));
+        assertNull(KitPackaging.parse("chest"));
+        assertNull(KitPackaging.parse(null));
+    }
+
+    @Test
+    @DisplayName("a bundle holds one stack's worth, whatever the items' stack sizes")
+    void bundleWeight() {
+        List<ItemStack> food = List.of(FakeItem.stack(Material.COOKED_BEEF, 32, 64),
+            FakeItem.stack(Material.ENDER_PEARL, 8, 16));
+        assertEquals(64, KitPackaging.bundleWeight(food));
+        assertTrue(KitPackaging.BUNDLE.fits(food));
+
+        List<ItemStack> shippedKit = List.of(FakeItem.stack(Material.DIAMOND_PICKAXE, 1, 1),
+            FakeItem.stack(Material.COOKED_BEEF, 16, 64));
+        assertEquals(80, KitPackaging.bundleWeight(shippedKit));
+        assertFalse(KitPackaging.BUNDLE.fits(shippedKit));
+    }
+
+    @Test
+    @DisplayName("a shulker box holds 27 items that each fit one slot")
+    void shulkerSlots() {
+        List<ItemStack> items = new ArrayList<>(Collections.nCopies(27, FakeItem.stack(Material.DIAMOND_PICKAXE, 1, 1)));
+        assertTrue(KitPackaging.SHULKER.fits(items));
+
+        items.add(FakeItem.stack(Material.STONE, 1, 64));
+        assertFalse(KitPackaging.SHULKER.fits(items));
+
+        assertFalse(KitPackaging.SHULKER.fits(List.of(FakeItem.stack(Material.STONE, 128, 64))),
+            "an oversized stack does not fit one slot");
+    }
+
+    @Test
+    @DisplayName("nothing is packed when packaging is off")
+    void none() {
+        assertFalse(KitPackaging.NONE.fits(List.of(FakeItem.stack(Material.STONE, 1, 64))));
+        assertNull(KitPackaging.NONE.pack(List.of(FakeItem.stack(Material.STONE, 1, 64)), null));
+    }
+}
@@ -0,0 +1,148 @@
+package world.hv2.starterpack.listeners;
+
+import com.sun.management.ThreadMXBean;
+import net.kyori.adventure.text.Component;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.StarterPackManager;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes allocated per returning-player join and per grant, measured with the JVM's
+ * per-thread allocation counter and held to {@code allocation-budgets.properties}.
+ *
+ * <p>Most joins are returning players, so that path is budgeted at zero: any string
+ * concatenation, boxing, iterator or config lookup that sneaks onto it fails the build.
+ * Each measurement is warmed up first so the JIT's escape analysis has run, as it would
+ * have on a server that has been up for a while.
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP_RUNS = 20_000;
+    private static final int MEASURED_RUNS = 10_000;
+    private static final int ONLINE_PLAYERS = 100;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private Properties budgets;
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private PlayerJoinListener listener;
+    private NamespacedKey receivedKey;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is missing from test resources");
+            budgets.load(in);
+        }
+
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of());
+        listener = new PlayerJoinListener(plugin);
+        receivedKey = new NamespacedKey(plugin, "received_starter_pack");
+        for (int i = 0; i < ONLINE_PLAYERS - 1; i++) {
+            server.connect("Online" + i);
+        }
+        // They joined without join events; make them broadcast recipients as a reload would
+        plugin.getMessageManager().refreshRecipients();
+    }
+
+    @Test
+    @DisplayName("a returning player already seen this session allocates nothing")
+    void returningJoin() {
+        PlayerJoinEvent event = new PlayerJoinEvent(returningPlayer("Veteran").asPlayer(), Component.empty());
+        listener.onPlayerJoin(event);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            listener.onPlayerJoin(event);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            listener.onPlayerJoin(event);
+        }
+        long perJoin = (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_RUNS;
+
+        assertWithinBudget("returning-join-bytes", perJoin, "per returning join");
+        assertTrue(server.schedulerState().pendingCount() == 0, "a returning player must not be scheduled a grant");
+    }
+
+    @Test
+    @DisplayName("a returning player's first join this session only caches their marker")
+    void firstReturningJoin() {
+        List<PlayerJoinEvent> warmup = returningJoins("Warm", WARMUP_RUNS);
+        List<PlayerJoinEvent> measured = returningJoins("Measured", MEASURED_RUNS);
+
+        for (PlayerJoinEvent event : warmup) {
+            listener.onPlayerJoin(event);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (PlayerJoinEvent event : measured) {
+            listener.onPlayerJoin(event);
+        }
+        long perJoin = (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_RUNS;
+
+        assertWithinBudget("first-returning-join-bytes", perJoin, "per first returning join");
+    }
+
+    @Test
+    @DisplayName("a full grant stays within its allocation budget")
+    void grant() {
+        StarterPackManager manager = plugin.getStarterPackManager();
+        FakePlayer newcomer = server.connect("Newcomer");
+
+        long total = 0;
+        for (int i = 0; i < WARMUP_RUNS + MEASURED_RUNS; i++) {
+            newcomer.inventoryState().reset();
+            newcomer.dataState().reset();
+            manager.resetPlayerStarterPack(newcomer.asPlayer());
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            assertTrue(manager.giveStarterPackWithEquipment(newcomer.asPlayer(), true));
+            if (i >= WARMUP_RUNS) {
+                total += threads.getCurrentThreadAllocatedBytes() - before;
+            }
+        }
+
+        assertWithinBudget("grant-bytes", total / MEASURED_RUNS, "per grant");
+    }
+
+    private FakePlayer returningPlayer(String name) {
+        FakePlayer player = server.connect(name);
+        player.dataState().set(receivedKey, PersistentDataType.BYTE, (byte) 1);
+        return player;
+    }
+
+    private List<PlayerJoinEvent> returningJoins(String prefix, int count) {
+        List<PlayerJoinEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new PlayerJoinEvent(returningPlayer(prefix + i).asPlayer(), Component.empty()));
+        }
+        return events;
+    }
+
+    private void assertWithinBudget(String budget, long measured, String what) {
+        long allowed = Long.parseLong(budgets.getProperty(budget).trim());
+        assertTrue(measured <= allowed, measured + " bytes allocated " + what + ", budget " + allowed + " (" + budget + ")");
+    }
+}
@@ -0,0 +1,296 @@
+package world.hv2.starterpack.listeners;
+
+import io.papermc.paper.event.player.PlayerClientLoadedWorldEvent;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A minute-long join storm against a stub server: 500 first-time and 1,500 returning
+ * players join through the plugin's listeners, report a loaded world a few ticks later,
+ * get their grants, and leave. Checks grant, overflow and scheduling counts.
+ *
+ * <p>The {@code perf} test also holds the plugin's per-tick main-thread time and retained
+ * heap to the budgets in {@code join-storm-budgets.properties}. Those depend on the
+ * machine, so surefire skips the {@code perf} tag unless the {@code benchmark} profile is on.
+ */
+class JoinStormTest {
+
+    private static final int TICKS_PER_MINUTE = 1200;
+    private static final int NEW_PLAYERS = 500;
+    private static final int RETURNING_PLAYERS = 1500;
+    /** One new player in ten arrives with a full inventory. */
+    private static final int FULL_INVENTORY_EVERY = 10;
+    /** Ticks between a join and the client reporting it has loaded the world. */
+    private static final int CLIENT_LOAD_TICKS = 5;
+    /** Ticks to keep running after the last join, for the delayed grants. */
+    private static final int DRAIN_TICKS = 40;
+
+    private Properties budgets;
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private PlayerIndexListener indexListener;
+    private BroadcastPreferenceListener preferenceListener;
+    private PlayerJoinListener joinListener;
+    private long[] tickNanos;
+
+    /**
+     * Run a short storm on a throwaway server first, so class loading and the first JIT
+     * compilations are not billed to the measured ticks. A live server has long since
+     * paid for both by the time a storm arrives.
+     */
+    private static void warmUp() {
+        FakeServer warmServer = new FakeServer();
+        StarterPackPlugin warmPlugin = TestPlugin.create(warmServer, TestKits.starterKit(), Map.of());
+        PlayerIndexListener index = new PlayerIndexListener(warmPlugin);
+        BroadcastPreferenceListener preferences = new BroadcastPreferenceListener(warmPlugin);
+        PlayerJoinListener joins = new PlayerJoinListener(warmPlugin);
+        for (int i = 0; i < 2_000; i++) {
+            PlayerJoinEvent event = new PlayerJoinEvent(warmServer.connect("Warm" + i).asPlayer(), Component.empty());
+            index.onPlayerJoin(event);
+            preferences.onPlayerJoin(event);
+            joins.onPlayerJoin(event);
+            joins.onClientLoadedWorld(new PlayerClientLoadedWorldEvent(event.getPlayer(), false));
+            warmServer.schedulerState().tick();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of());
+        indexListener = new PlayerIndexListener(plugin);
+        preferenceListener = new BroadcastPreferenceListener(plugin);
+        joinListener = new PlayerJoinListener(plugin);
+
+        tickNanos = new long[TICKS_PER_MINUTE + DRAIN_TICKS + 1];
+        server.schedulerState().timeTasksWith(nanos -> tickNanos[(int) server.schedulerState().currentTick()] += nanos);
+    }
+
+    @Test
+    @DisplayName("a minute of joins grants every new player once and leaves nothing scheduled")
+    void joinStorm() {
+        List<FakePlayer> joined = runStorm();
+
+        assertEquals(NEW_PLAYERS, countReceived(joined) - RETURNING_PLAYERS,
+            "every new player should have been granted exactly once");
+        assertEquals(NEW_PLAYERS / FULL_INVENTORY_EVERY * TestKits.starterKit().getItems().size(),
+            server.worldState().dropCount(), "only items that did not fit should have been dropped");
+        assertEquals(0, server.schedulerState().pendingCount(), "no grants should still be waiting");
+
+        for (FakePlayer player : joined) {
+            quit(player);
+        }
+        assertEquals(0, plugin.getPlayerIndex().size(), "everyone who left should be out of the name index");
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("a minute of joins stays within the tick and memory budgets")
+    void joinStormBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = JoinStormTest.class.getResourceAsStream("/join-storm-budgets.properties")) {
+            assertNotNull(in, "join-storm-budgets.properties is missing from test resources");
+            budgets.load(in);
+        }
+        warmUp();
+        long heapBefore = settledHeapUsed();
+
+        List<FakePlayer> joined = runStorm();
+        for (FakePlayer player : joined) {
+            quit(player);
+        }
+        joined.clear();
+        long retained = settledHeapUsed() - heapBefore;
+
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        long worstMicros = sorted[sorted.length - 1] / 1_000;
+        long p99Micros = sorted[(int) (sorted.length * 0.99)] / 1_000;
+
+        assertTrue(worstMicros <= budget("max-tick-micros"),
+            "worst tick took " + worstMicros + "us of plugin time, budget " + budget("max-tick-micros") + "us");
+        assertTrue(p99Micros <= budget("p99-tick-micros"),
+            "99th-percentile tick took " + p99Micros + "us of plugin time, budget " + budget("p99-tick-micros") + "us");
+        assertTrue(retained <= budget("max-retained-bytes"),
+            "plugin retained " + retained + " bytes after everyone left, budget " + budget("max-retained-bytes"));
+    }
+
+    @Test
+    @DisplayName("players who leave before their grant runs are not granted")
+    void quitBeforeGrant() {
+        FakePlayer player = server.connect("Impatient");
+        join(player);
+        quit(player);
+
+        for (int tick = 0; tick < DRAIN_TICKS; tick++) {
+            server.schedulerState().tick();
+        }
+
+        assertEquals(0, player.inventoryState().itemsAddedCount());
+        assertTrue(player.dataState().isEmpty());
+    }
+
+    @Test
+    @DisplayName("a client that never reports a loaded world gets its pack after delivery.fallback-ticks")
+    void fallbackDelivery() {
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of("delivery.fallback-ticks", 30));
+        indexListener = new PlayerIndexListener(plugin);
+        preferenceListener = new BroadcastPreferenceListener(plugin);
+        joinListener = new PlayerJoinListener(plugin);
+        FakePlayer player = server.connect("Silent");
+        join(player);
+
+        for (int tick = 0; tick < 29; tick++) {
+            server.schedulerState().tick();
+        }
+        assertTrue(player.dataState().isEmpty(), "the pack should wait for the client until the deadline");
+
+        server.schedulerState().tick();
+        assertFalse(player.dataState().isEmpty());
+        server.schedulerState().tick();
+        assertEquals(0, server.schedulerState().pendingCount(), "the sweep should stop once nobody is waiting");
+    }
+
+    @Test
+    @DisplayName("a client that reports a loaded world gets its pack at once, with nothing left scheduled")
+    void readyDelivery() {
+        FakePlayer player = server.connect("Quick");
+        join(player);
+        assertTrue(player.dataState().isEmpty(), "nothing is given before the client has loaded");
+
+        loaded(player);
+        assertFalse(player.dataState().isEmpty());
+        server.schedulerState().tick();
+        assertEquals(0, server.schedulerState().pendingCount());
+    }
+
+    /**
+     * Spread the joins evenly over a minute of ticks, new and returning interleaved at
+     * random, then let the grants drain. Each client reports a loaded world
+     * {@link #CLIENT_LOAD_TICKS} after joining.
+     */
+    private List<FakePlayer> runStorm() {
+        List<Boolean> arrivals = new ArrayList<>(NEW_PLAYERS + RETURNING_PLAYERS);
+        for (int i = 0; i < NEW_PLAYERS; i++) {
+            arrivals.add(Boolean.TRUE);
+        }
+        for (int i = 0; i < RETURNING_PLAYERS; i++) {
+            arrivals.add(Boolean.FALSE);
+        }
+        Collections.shuffle(arrivals, new Random(42));
+
+        NamespacedKey receivedKey = new NamespacedKey(plugin, "received_starter_pack");
+        List<FakePlayer> joined = new ArrayList<>(arrivals.size());
+        int next = 0;
+        int loadedSoFar = 0;
+        int newSoFar = 0;
+        int[] joinTicks = new int[arrivals.size()];
+        for (int tick = 1; tick <= TICKS_PER_MINUTE + DRAIN_TICKS; tick++) {
+            for (; loadedSoFar < next && joinTicks[loadedSoFar] + CLIENT_LOAD_TICKS <= tick; loadedSoFar++) {
+                tickNanos[tick] += loaded(joined.get(loadedSoFar));
+            }
+            int due = (int) ((long) arrivals.size() * Math.min(tick, TICKS_PER_MINUTE) / TICKS_PER_MINUTE);
+            for (; next < due; next++) {
+                FakePlayer player = server.connect("Player" + next);
+                if (arrivals.get(next)) {
+                    if (newSoFar++ % FULL_INVENTORY_EVERY == 0) {
+                        player.inventoryState().fillStorage(FakeItem.stack(Material.DIRT, 64));
+                    }
+                } else {
+                    player.dataState().set(receivedKey, PersistentDataType.BYTE, (byte) 1);
+                }
+                tickNanos[tick] += join(player);
+                joinTicks[next] = tick;
+                joined.add(player);
+            }
+            server.schedulerState().tick();
+        }
+        return joined;
+    }
+
+    /**
+     * Fire a join through every plugin listener, returning the time spent in them
+     */
+    private long join(FakePlayer fake) {
+        Player player = fake.asPlayer();
+        PlayerJoinEvent event = new PlayerJoinEvent(player, Component.empty());
+        long start = System.nanoTime();
+        indexListener.onPlayerJoin(event);
+        preferenceListener.onPlayerJoin(event);
+        joinListener.onPlayerJoin(event);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Fire the client's loaded-world signal, returning the time spent in the plugin
+     */
+    private long loaded(FakePlayer fake) {
+        PlayerClientLoadedWorldEvent event = new PlayerClientLoadedWorldEvent(fake.asPlayer(), false);
+        long start = System.nanoTime();
+        joinListener.onClientLoadedWorld(event);
+        return System.nanoTime() - start;
+    }
+
+    private void quit(FakePlayer fake) {
+        PlayerQuitEvent event = new PlayerQuitEvent(fake.asPlayer(), Component.empty(), PlayerQuitEvent.QuitReason.DISCONNECTED);
+        joinListener.onPlayerQuit(event);
+        preferenceListener.onPlayerQuit(event);
+        indexListener.onPlayerQuit(event);
+        server.disconnect(fake);
+    }
+
+    private int countReceived(List<FakePlayer> players) {
+        int received = 0;
+        for (FakePlayer player : players) {
+            if (!player.dataState().isEmpty()) {
+                received++;
+            }
+        }
+        return received;
+    }
+
+    private long budget(String name) {
+        return Long.parseLong(budgets.getProperty(name).trim());
+    }
+
+    private static long settledHeapUsed() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
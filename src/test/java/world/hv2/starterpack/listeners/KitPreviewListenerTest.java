@@ -0,0 +1,112 @@
+package world.hv2.starterpack.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.objenesis.ObjenesisStd;
+
+import world.hv2.starterpack.kits.KitPreview;
+import world.hv2.starterpack.testing.Stubs;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link KitPreviewListener}: a kit preview stays read-only whatever other
+ * plugins do with the click.
+ */
+class KitPreviewListenerTest {
+
+    /** State behind a stub top inventory: only its holder. */
+    public static final class TopInventory {
+        private final InventoryHolder holder;
+
+        TopInventory(InventoryHolder holder) {
+            this.holder = holder;
+        }
+
+        public InventoryHolder getHolder(boolean useSnapshot) {
+            return holder;
+        }
+
+        public InventoryHolder getHolder() {
+            return holder;
+        }
+    }
+
+    /** State behind a stub inventory view: only its top inventory. */
+    public static final class View {
+        private final Inventory top;
+
+        View(InventoryHolder holder) {
+            this.top = Stubs.of(Inventory.class, new TopInventory(holder));
+        }
+
+        public Inventory getTopInventory() {
+            return top;
+        }
+    }
+
+    private final KitPreviewListener listener = new KitPreviewListener();
+
+    @Test
+    @DisplayName("a click in a preview stays cancelled after a lower-priority handler un-cancels it")
+    void clickStaysCancelled() {
+        InventoryClickEvent click = click(preview());
+        // What another plugin's handler might do before ours runs
+        click.setCancelled(false);
+
+        listener.onInventoryClick(click);
+        assertTrue(click.isCancelled());
+
+        InventoryDragEvent drag = new InventoryDragEvent(view(preview()), null, null, false, Map.of());
+        drag.setCancelled(false);
+        listener.onInventoryDrag(drag);
+        assertTrue(drag.isCancelled());
+    }
+
+    @Test
+    @DisplayName("clicks in other inventories are left alone")
+    void otherInventories() {
+        InventoryClickEvent click = click(null);
+        listener.onInventoryClick(click);
+        assertFalse(click.isCancelled());
+    }
+
+    @Test
+    @DisplayName("the handlers run last and see events already cancelled")
+    void runsLast() throws NoSuchMethodException {
+        for (String name : new String[] {"onInventoryClick", "onInventoryDrag"}) {
+            Class<?> type = name.equals("onInventoryClick") ? InventoryClickEvent.class : InventoryDragEvent.class;
+            EventHandler handler = KitPreviewListener.class.getMethod(name, type).getAnnotation(EventHandler.class);
+            assertEquals(EventPriority.HIGHEST, handler.priority(), name);
+            assertFalse(handler.ignoreCancelled(), name);
+        }
+    }
+
+    private static KitPreview preview() {
+        // Only its type matters here; a real one needs a server to build its inventory
+        return new ObjenesisStd(true).newInstance(KitPreview.class);
+    }
+
+    private static InventoryView view(InventoryHolder holder) {
+        return Stubs.of(InventoryView.class, new View(holder));
+    }
+
+    private static InventoryClickEvent click(InventoryHolder holder) {
+        return new InventoryClickEvent(view(holder), InventoryType.SlotType.CONTAINER, 0, ClickType.LEFT,
+            InventoryAction.PICKUP_ALL);
+    }
+}
@@ -0,0 +1,130 @@
+package world.hv2.starterpack.managers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+import world.hv2.starterpack.util.CountingBloomFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link AltFilterManager} over a real {@code alt-filter.dat}: the check, grant,
+ * limited round trip, what survives a restart, and the files it starts over from.
+ */
+class AltFilterManagerTest {
+
+    @TempDir
+    File folder;
+
+    private final FakeServer server = new FakeServer();
+    private final InetSocketAddress shared = address("203.0.113.7");
+    private StarterPackPlugin plugin;
+
+    @Test
+    @DisplayName("an address is limited once it has had max-packs-per-address, and others are not")
+    void checkGrantLimited() {
+        AltFilterManager filter = open(Map.of("alt-filter.max-packs-per-address", 2));
+
+        assertFalse(grantTo(filter, "First", shared));
+        assertFalse(grantTo(filter, "Second", shared));
+        assertTrue(isLimited(filter, "Third", shared), "the third player on the address should be limited");
+        assertFalse(isLimited(filter, "Elsewhere", address("198.51.100.1")));
+    }
+
+    @Test
+    @DisplayName("counts survive a restart, but a file made with other settings or damaged starts over")
+    void restartAndReset() throws IOException {
+        AltFilterManager filter = open(Map.of("alt-filter.max-packs-per-address", 1));
+        grantTo(filter, "First", shared);
+        filter.close();
+
+        filter = open(Map.of("alt-filter.max-packs-per-address", 1));
+        assertTrue(isLimited(filter, "Second", shared), "the grant should have been kept");
+        filter.close();
+
+        filter = open(Map.of("alt-filter.max-packs-per-address", 1, "alt-filter.counters", 2048));
+        assertFalse(isLimited(filter, "Second", shared), "a new counter count should start a new filter");
+        grantTo(filter, "Second", shared);
+        filter.close();
+
+        // Flip a byte of the header's magic number
+        try (RandomAccessFile file = new RandomAccessFile(new File(folder, "alt-filter.dat"), "rw")) {
+            file.seek(0);
+            file.write(file.read() ^ 0xFF);
+        }
+        filter = open(Map.of("alt-filter.max-packs-per-address", 1, "alt-filter.counters", 2048));
+        assertFalse(isLimited(filter, "Third", shared), "a damaged header should start a new filter");
+    }
+
+    @Test
+    @DisplayName("a cap above what the counters can hold is lowered to it, so it can still be reached")
+    void capClamped() {
+        AltFilterManager filter = open(Map.of("alt-filter.max-packs-per-address", 100));
+        assertEquals(CountingBloomFilter.MAX_COUNT, plugin.getConfigManager().getAltFilterMaxPacksPerAddress());
+
+        for (int i = 0; i < CountingBloomFilter.MAX_COUNT; i++) {
+            grantTo(filter, "Alt" + i, shared);
+        }
+        assertTrue(isLimited(filter, "OneTooMany", shared));
+    }
+
+    private AltFilterManager open(Map<String, Object> settings) {
+        plugin = TestPlugin.create(server, TestKits.starterKit(), overrides(settings), folder);
+        AltFilterManager filter = plugin.getAltFilterManager();
+        filter.load();
+        return filter;
+    }
+
+    private static Map<String, Object> overrides(Map<String, Object> settings) {
+        Map<String, Object> overrides = new HashMap<>(Map.of("alt-filter.enabled", true, "alt-filter.counters", 1024));
+        overrides.putAll(settings);
+        return overrides;
+    }
+
+    /**
+     * Check a new player's address, and count a pack for them if they are not limited
+     *
+     * @return whether they were limited
+     */
+    private boolean grantTo(AltFilterManager filter, String name, InetSocketAddress address) {
+        FakePlayer player = server.connect(name);
+        player.useAddress(address);
+        filter.checkAddress(player.getUniqueId(), address.getAddress());
+        boolean limited = filter.isLimited(player.asPlayer());
+        if (!limited) {
+            filter.recordGrant(player.asPlayer());
+        }
+        return limited;
+    }
+
+    private boolean isLimited(AltFilterManager filter, String name, InetSocketAddress address) {
+        FakePlayer player = server.connect(name);
+        player.useAddress(address);
+        filter.checkAddress(player.getUniqueId(), address.getAddress());
+        return filter.isLimited(player.asPlayer());
+    }
+
+    private static InetSocketAddress address(String ip) {
+        try {
+            return new InetSocketAddress(InetAddress.getByName(ip), 25565);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package world.hv2.starterpack.managers;
+
+import io.papermc.paper.event.player.PlayerClientLoadedWorldEvent;
+import net.kyori.adventure.text.Component;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.listeners.PlayerJoinListener;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+import world.hv2.starterpack.util.GrantRecordFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link GrantLedger} over real files: export and import between two servers,
+ * imported players being marked on their next join, and a ledger left with a partial
+ * record by a crash.
+ */
+class GrantLedgerTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    @DisplayName("records exported from one server import into another unchanged, in either format")
+    void exportImportRoundTrip() throws IOException {
+        for (GrantRecordFormat format : GrantRecordFormat.values()) {
+            File sourceFolder = new File(folder, "source-" + format.getExtension());
+            File targetFolder = new File(folder, "target-" + format.getExtension());
+
+            FakeServer source = new FakeServer();
+            StarterPackPlugin sourcePlugin = TestPlugin.create(source, TestKits.starterKit(), Map.of(), sourceFolder);
+            GrantLedger sourceLedger = sourcePlugin.getGrantLedger();
+            sourceLedger.load();
+            sourceLedger.record(source.connect("First").asPlayer());
+            sourceLedger.record(source.connect("Second").asPlayer());
+            Path exported = export(source, sourcePlugin, format);
+            List<String> lines = Files.readAllLines(exported);
+            assertEquals(format.header() == null ? 2 : 3, lines.size(), format.name());
+
+            FakeServer target = new FakeServer();
+            StarterPackPlugin targetPlugin = TestPlugin.create(target, TestKits.starterKit(), Map.of(), targetFolder);
+            targetPlugin.getGrantLedger().load();
+            Path imports = targetFolder.toPath().resolve("imports");
+            Files.createDirectories(imports);
+            Files.copy(exported, imports.resolve(exported.getFileName()));
+            targetPlugin.getGrantLedger().importFile(target.getConsoleSender(), exported.getFileName().toString());
+            ticks(target, 2);
+
+            assertEquals(lines, Files.readAllLines(export(target, targetPlugin, format)), format.name());
+            sourceLedger.close();
+            targetPlugin.getGrantLedger().close();
+        }
+    }
+
+    @Test
+    @DisplayName("an imported player is marked as received on their next join, once, and is given nothing")
+    void importedMarkedOnJoin() throws IOException {
+        FakeServer server = new FakeServer();
+        StarterPackPlugin plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of(), folder);
+        GrantLedger ledger = plugin.getGrantLedger();
+        ledger.load();
+
+        FakePlayer veteran = server.connect("Veteran");
+        server.disconnect(veteran);
+        Path imports = folder.toPath().resolve("imports");
+        Files.createDirectories(imports);
+        Files.writeString(imports.resolve("old.csv"), "uuid,granted_at,kit_version\n"
+            + veteran.getUniqueId() + ",1718000000000,9f2c4e0b7a1d3c58\n"
+            + "not a record\n");
+        ledger.importFile(server.getConsoleSender(), "old.csv");
+        ticks(server, 2);
+
+        PlayerJoinListener joins = new PlayerJoinListener(plugin);
+        FakePlayer back = join(server, joins, "Veteran");
+        assertEquals(0, back.inventoryState().itemsAddedCount(), "an imported player already had their pack");
+        assertEquals((byte) 1, back.dataState().get(plugin.getStarterPackManager().getReceivedKey(), PersistentDataType.BYTE));
+        assertFalse(ledger.takeImported(back.asPlayer()), "the import is used up on the first join");
+
+        FakePlayer newcomer = join(server, joins, "Newcomer");
+        assertTrue(newcomer.inventoryState().itemsAddedCount() > 0, "a player who was not imported still gets a pack");
+        ledger.close();
+    }
+
+    @Test
+    @DisplayName("a partial record left at the end of the ledger is dropped when it is opened")
+    void partialRecordTruncated() throws IOException {
+        FakeServer server = new FakeServer();
+        StarterPackPlugin plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of(), folder);
+        GrantLedger ledger = plugin.getGrantLedger();
+        ledger.load();
+        ledger.record(server.connect("First").asPlayer());
+        ledger.close();
+
+        Path file = folder.toPath().resolve("grants.dat");
+        assertEquals(8 + 32, Files.size(file));
+        // What a crash part way through the second record would leave
+        Files.write(file, new byte[13], StandardOpenOption.APPEND);
+
+        ledger.load();
+        assertEquals(8 + 32, Files.size(file));
+        ledger.record(server.connect("Second").asPlayer());
+        assertEquals(2, Files.readAllLines(export(server, plugin, GrantRecordFormat.NDJSON)).size(),
+            "the second record should follow the first directly");
+        ledger.close();
+        assertEquals(8 + 64, Files.size(file));
+    }
+
+    /**
+     * Export the plugin's ledger and wait for the background task
+     *
+     * @return the exported file
+     */
+    private static Path export(FakeServer server, StarterPackPlugin plugin, GrantRecordFormat format) throws IOException {
+        Path exports = plugin.getDataFolder().toPath().resolve("exports");
+        if (Files.isDirectory(exports)) {
+            try (Stream<Path> old = Files.list(exports)) {
+                for (Path path : old.toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        plugin.getGrantLedger().export(server.getConsoleSender(), format);
+        ticks(server, 2);
+        try (Stream<Path> files = Files.list(exports)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static FakePlayer join(FakeServer server, PlayerJoinListener joins, String name) {
+        FakePlayer player = server.connect(name);
+        joins.onPlayerJoin(new PlayerJoinEvent(player.asPlayer(), Component.empty()));
+        joins.onClientLoadedWorld(new PlayerClientLoadedWorldEvent(player.asPlayer(), false));
+        return player;
+    }
+
+    private static void ticks(FakeServer server, int count) {
+        for (int i = 0; i < count; i++) {
+            server.schedulerState().tick();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package world.hv2.starterpack.managers;
+
+import io.papermc.paper.event.player.PlayerClientLoadedWorldEvent;
+import net.kyori.adventure.text.Component;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.listeners.PlayerJoinListener;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link MailboxManager}: queued packs reach the disk without a write on the
+ * main thread per change, survive a restart, and are given on the player's next join.
+ */
+class MailboxManagerTest {
+
+    @TempDir
+    File folder;
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private MailboxManager mailbox;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = restart();
+        file = folder.toPath().resolve("mailbox.dat");
+    }
+
+    @Test
+    @DisplayName("a queued pack is saved in the background, survives a restart and is given on join")
+    void enqueuePersistDeliver() throws IOException {
+        FakePlayer away = server.connect("Away");
+        away.dataState().set(new NamespacedKey(plugin, "received_starter_pack"), PersistentDataType.BYTE, (byte) 1);
+        server.disconnect(away);
+
+        assertTrue(mailbox.enqueue(away.getUniqueId()));
+        assertFalse(mailbox.enqueue(away.getUniqueId()), "a second give should not queue another pack");
+        assertFalse(Files.exists(file), "enqueueing should not write the file itself");
+        ticks(MailboxManager.SAVE_DELAY + 1);
+        assertEquals(4 + 16, Files.size(file));
+
+        plugin = restart();
+        mailbox.load();
+        assertTrue(mailbox.hasPending(away.getUniqueId()));
+
+        FakePlayer back = server.connect("Away");
+        back.dataState().set(new NamespacedKey(plugin, "received_starter_pack"), PersistentDataType.BYTE, (byte) 1);
+        PlayerJoinListener joins = new PlayerJoinListener(plugin);
+        joins.onPlayerJoin(new PlayerJoinEvent(back.asPlayer(), Component.empty()));
+        joins.onClientLoadedWorld(new PlayerClientLoadedWorldEvent(back.asPlayer(), false));
+
+        assertTrue(back.inventoryState().itemsAddedCount() > 0, "the queued pack should have been given");
+        assertFalse(mailbox.hasPending(back.getUniqueId()));
+        ticks(MailboxManager.SAVE_DELAY + 1);
+        assertEquals(4, Files.size(file), "the delivered pack should be gone from the file");
+    }
+
+    @Test
+    @DisplayName("a burst of changes is saved once, and flush saves what is still pending")
+    void burstAndFlush() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            mailbox.enqueue(new UUID(0L, i));
+        }
+        ticks(MailboxManager.SAVE_DELAY + 1);
+        assertEquals(4 + 16 * 100, Files.size(file));
+
+        mailbox.take(new UUID(0L, 0L));
+        mailbox.flush();
+        assertEquals(4 + 16 * 99, Files.size(file), "flush should write at once");
+
+        // The save scheduled by the take finds nothing newer to write
+        Files.delete(file);
+        ticks(MailboxManager.SAVE_DELAY + 1);
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("a missing or truncated file loads as an empty mailbox")
+    void missingOrTruncated() throws IOException {
+        mailbox.load();
+        assertEquals(0, mailbox.size());
+
+        Files.write(file, new byte[] {0, 0, 0, 2, 1, 2, 3});
+        mailbox.load();
+        assertEquals(0, mailbox.size());
+    }
+
+    private StarterPackPlugin restart() {
+        StarterPackPlugin restarted = TestPlugin.create(server, TestKits.starterKit(), Map.of(), folder);
+        mailbox = restarted.getMailboxManager();
+        return restarted;
+    }
+
+    private void ticks(long count) {
+        for (long i = 0; i < count; i++) {
+            server.schedulerState().tick();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package world.hv2.starterpack.managers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exercises the broadcast recipients {@link MessageManager} keeps between broadcasts: who
+ * is in them, and what puts a player in or takes them out.
+ */
+class MessageManagerTest {
+
+    private static final String PERMISSION = "starterpack.broadcasts.see";
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private MessageManager messages;
+    private FakePlayer newcomer;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of("broadcasts.permission", PERMISSION));
+        messages = plugin.getMessageManager();
+        newcomer = server.connect("Newcomer");
+    }
+
+    @Test
+    @DisplayName("a broadcast reaches permitted, unmuted players without checking anyone's permissions")
+    void cachedRecipients() {
+        FakePlayer allowed = join("Allowed", true);
+        FakePlayer denied = join("Denied", false);
+        FakePlayer muted = join("Muted", true);
+        messages.setBroadcastsMuted(muted.asPlayer(), true);
+        int checks = allowed.permissionCheckCount() + denied.permissionCheckCount() + muted.permissionCheckCount();
+
+        for (int i = 0; i < 5; i++) {
+            messages.broadcastStarterPack(newcomer.asPlayer());
+        }
+
+        assertEquals(5, allowed.messageCount());
+        assertEquals(0, denied.messageCount());
+        assertEquals(0, muted.messageCount());
+        assertEquals(checks, allowed.permissionCheckCount() + denied.permissionCheckCount() + muted.permissionCheckCount());
+    }
+
+    @Test
+    @DisplayName("permission changes, unmuting and quitting take effect on the next broadcast")
+    void updates() {
+        FakePlayer allowed = join("Allowed", true);
+        FakePlayer denied = join("Denied", false);
+        FakePlayer muted = join("Muted", true);
+        messages.setBroadcastsMuted(muted.asPlayer(), true);
+
+        allowed.revokePermission(PERMISSION);
+        messages.updateRecipient(allowed.asPlayer());
+        denied.grantPermission(PERMISSION);
+        messages.updateRecipient(denied.asPlayer());
+        messages.setBroadcastsMuted(muted.asPlayer(), false);
+        messages.broadcastStarterPack(newcomer.asPlayer());
+
+        assertEquals(0, allowed.messageCount());
+        assertEquals(1, denied.messageCount());
+        assertEquals(1, muted.messageCount());
+
+        messages.unloadBroadcastPreference(denied.asPlayer());
+        server.disconnect(denied);
+        messages.broadcastStarterPack(newcomer.asPlayer());
+        assertEquals(1, denied.messageCount());
+        assertEquals(2, muted.messageCount());
+    }
+
+    @Test
+    @DisplayName("a reload works out every online player's broadcasts again")
+    void reload() {
+        FakePlayer denied = join("Denied", false);
+        messages.broadcastStarterPack(newcomer.asPlayer());
+        assertEquals(0, denied.messageCount());
+
+        plugin.getConfigManager().getConfig().set("broadcasts.permission", "");
+        plugin.getConfigManager().applyConfig(plugin.getConfigManager().getConfig());
+        messages.loadMessages();
+
+        messages.broadcastStarterPack(newcomer.asPlayer());
+        assertEquals(1, denied.messageCount());
+    }
+
+    private FakePlayer join(String name, boolean permitted) {
+        FakePlayer player = server.connect(name);
+        if (permitted) {
+            player.grantPermission(PERMISSION);
+        }
+        messages.loadBroadcastPreference(player.asPlayer());
+        return player;
+    }
+}
@@ -0,0 +1,97 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.managers.PermissionCache.Node;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link PermissionCache}, the per-player permission answers behind commands,
+ * tab completion and the bypass check.
+ */
+class PermissionCacheTest {
+
+    private FakeServer server;
+    private PermissionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        cache = new PermissionCache();
+    }
+
+    @Test
+    @DisplayName("a tracked player's answer is looked up once, allowed or not")
+    void cachesAnswers() {
+        FakePlayer fake = server.connect("Admin");
+        fake.grantPermission("starterpack.admin");
+        Player player = fake.asPlayer();
+        cache.track(player);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.has(player, Node.ADMIN));
+            assertFalse(cache.has(player, Node.BYPASS));
+        }
+        assertEquals(2, fake.permissionCheckCount());
+    }
+
+    @Test
+    @DisplayName("untracked players are asked every time")
+    void untracked() {
+        FakePlayer fake = server.connect("Stranger");
+        for (int i = 0; i < 3; i++) {
+            assertFalse(cache.has(fake.asPlayer(), Node.USE));
+        }
+        assertEquals(3, fake.permissionCheckCount());
+
+        cache.track(fake.asPlayer());
+        cache.forget(fake.asPlayer());
+        cache.has(fake.asPlayer(), Node.USE);
+        assertEquals(4, fake.permissionCheckCount());
+    }
+
+    @Test
+    @DisplayName("invalidating picks up a changed permission and reports a changed command tree")
+    void invalidate() {
+        FakePlayer fake = server.connect("Moderator");
+        fake.grantPermission("starterpack.use");
+        fake.grantPermission("starterpack.admin");
+        Player player = fake.asPlayer();
+        cache.track(player);
+        assertTrue(cache.has(player, Node.ADMIN));
+
+        // Unchanged permissions leave the command tree alone
+        assertFalse(cache.invalidate(player));
+        assertTrue(cache.has(player, Node.ADMIN));
+
+        fake.revokePermission("starterpack.admin");
+        assertTrue(cache.has(player, Node.ADMIN), "still cached until invalidated");
+        assertTrue(cache.invalidate(player));
+        assertFalse(cache.has(player, Node.ADMIN));
+    }
+
+    @Test
+    @DisplayName("a bypass change does not need the command tree resent, and invalidateAll clears everyone")
+    void invalidateAll() {
+        FakePlayer fake = server.connect("Veteran");
+        Player player = fake.asPlayer();
+        cache.track(player);
+        assertFalse(cache.has(player, Node.BYPASS));
+
+        fake.grantPermission("starterpack.bypass");
+        assertFalse(cache.invalidate(player));
+        assertTrue(cache.has(player, Node.BYPASS));
+
+        fake.revokePermission("starterpack.bypass");
+        cache.invalidateAll();
+        assertFalse(cache.has(player, Node.BYPASS));
+    }
+}
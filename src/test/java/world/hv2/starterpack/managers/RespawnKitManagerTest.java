@@ -0,0 +1,130 @@
+package world.hv2.starterpack.managers;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakeItem;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link RespawnKitManager}: who gets the respawn kit, the cooldown between
+ * kits, and the cooldowns kept in {@code respawn-cooldowns.dat} across a restart.
+ */
+class RespawnKitManagerTest {
+
+    @TempDir
+    File folder;
+
+    private FakeServer server;
+    private RespawnKitManager respawns;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        respawns = start(Map.of());
+    }
+
+    @Test
+    @DisplayName("with only-if-empty, a player who kept items gets nothing until they respawn empty")
+    void onlyIfEmpty() {
+        FakePlayer player = server.connect("Keeper");
+        player.asPlayer().getInventory().addItem(FakeItem.stack(Material.DIRT, 1));
+
+        assertFalse(respawns.giveRespawnKit(player.asPlayer()));
+        assertEquals(1, player.inventoryState().itemsAddedCount(), "only the dirt");
+
+        player.inventoryState().reset();
+        assertTrue(respawns.giveRespawnKit(player.asPlayer()));
+        assertEquals(2, player.inventoryState().itemsAddedCount());
+
+        respawns = start(Map.of("respawn-kit.only-if-empty", false));
+        FakePlayer other = server.connect("Other");
+        other.asPlayer().getInventory().addItem(FakeItem.stack(Material.DIRT, 1));
+        assertTrue(respawns.giveRespawnKit(other.asPlayer()), "with only-if-empty off, items do not matter");
+    }
+
+    @Test
+    @DisplayName("a second respawn within the cooldown gets nothing, and a reset lifts the cooldown")
+    void cooldownGate() {
+        FakePlayer player = server.connect("Dier");
+
+        assertTrue(respawns.giveRespawnKit(player.asPlayer()));
+        long remaining = respawns.getRemainingCooldown(player.asPlayer());
+        assertTrue(remaining > 590_000L && remaining <= 600_000L, "about ten minutes, was " + remaining);
+
+        player.inventoryState().reset();
+        assertFalse(respawns.giveRespawnKit(player.asPlayer()));
+        assertEquals(0, player.inventoryState().itemsAddedCount());
+
+        assertTrue(respawns.resetCooldown(player.asPlayer()));
+        assertEquals(0, respawns.getRemainingCooldown(player.asPlayer()));
+        assertTrue(respawns.giveRespawnKit(player.asPlayer()));
+    }
+
+    @Test
+    @DisplayName("a cooldown of 0 gives the kit on every respawn and records nothing")
+    void noCooldown() {
+        respawns = start(Map.of("respawn-kit.cooldown-seconds", 0));
+        FakePlayer player = server.connect("Dier");
+
+        for (int i = 0; i < 3; i++) {
+            player.inventoryState().reset();
+            assertTrue(respawns.giveRespawnKit(player.asPlayer()), "respawn " + i);
+        }
+        assertEquals(0, respawns.getRemainingCooldown(player.asPlayer()));
+        assertFalse(respawns.resetCooldown(player.asPlayer()), "there should be no cooldown to reset");
+    }
+
+    @Test
+    @DisplayName("running cooldowns survive a restart through the cooldown file, and reset ones do not")
+    void saveAndLoad() throws IOException {
+        FakePlayer cooling = server.connect("Cooling");
+        FakePlayer reset = server.connect("Reset");
+        respawns.giveRespawnKit(cooling.asPlayer());
+        respawns.giveRespawnKit(reset.asPlayer());
+        respawns.resetCooldown(reset.asPlayer());
+        respawns.saveCooldowns();
+
+        Path file = folder.toPath().resolve("respawn-cooldowns.dat");
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(folder.toPath().resolve("respawn-cooldowns.dat.tmp")), "the temp file should be moved into place");
+
+        respawns = start(Map.of());
+        assertEquals(0, respawns.getRemainingCooldown(cooling.asPlayer()), "nothing is running before the load");
+        respawns.loadCooldowns();
+        assertTrue(respawns.getRemainingCooldown(cooling.asPlayer()) > 0);
+        assertEquals(0, respawns.getRemainingCooldown(reset.asPlayer()));
+
+        cooling.inventoryState().reset();
+        assertFalse(respawns.giveRespawnKit(cooling.asPlayer()), "the loaded cooldown should still gate the kit");
+
+        Files.delete(file);
+        respawns.loadCooldowns();
+        assertEquals(0, respawns.getRemainingCooldown(cooling.asPlayer()), "a missing file means no cooldowns");
+    }
+
+    private RespawnKitManager start(Map<String, Object> settings) {
+        Map<String, Object> overrides = new HashMap<>(Map.of("respawn-kit.enabled", true));
+        overrides.putAll(settings);
+        StarterPackPlugin plugin = TestPlugin.create(server, TestKits.starterKit(), overrides, folder);
+        return plugin.getRespawnKitManager();
+    }
+}
@@ -0,0 +1,62 @@
+package world.hv2.starterpack.messages;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Locale resolution for {@link MessageCatalog}: full tag, then language, then defaults.
+ */
+class MessageCatalogTest {
+
+    private MessageBundle defaults;
+    private MessageBundle portuguese;
+    private MessageBundle brazilian;
+    private MessageCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        defaults = bundle("Welcome");
+        portuguese = bundle("Bem-vindo");
+        brazilian = bundle("Bem-vindo, mano");
+        catalog = new MessageCatalog(defaults, Map.of(
+            MessageCatalog.normalize("pt"), portuguese,
+            MessageCatalog.normalize("pt-BR"), brazilian));
+    }
+
+    @Test
+    @DisplayName("a full locale tag wins over its language")
+    void exactTag() {
+        assertSame(brazilian, catalog.forLocale(Locale.of("pt", "BR")));
+    }
+
+    @Test
+    @DisplayName("an unlisted country falls back to its language")
+    void languageFallback() {
+        assertSame(portuguese, catalog.forLocale(Locale.of("pt", "PT")));
+        assertSame(portuguese, catalog.forLocale(Locale.of("pt")));
+    }
+
+    @Test
+    @DisplayName("an unknown language or missing locale uses the defaults")
+    void defaultsFallback() {
+        assertSame(defaults, catalog.forLocale(Locale.of("de", "DE")));
+        assertSame(defaults, catalog.forLocale(null));
+    }
+
+    @Test
+    @DisplayName("configured keys are normalized")
+    void normalizesKeys() {
+        assertEquals("en_us", MessageCatalog.normalize(" en-US "));
+    }
+
+    private static MessageBundle bundle(String welcome) {
+        return new MessageBundle(MessageTemplate.compile(welcome), MessageTemplate.compile(""));
+    }
+}
@@ -0,0 +1,63 @@
+package world.hv2.starterpack.messages;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a compiled {@link MessageTemplate} renders the same text and colors as
+ * substituting the name into the raw string and parsing it every time.
+ */
+class MessageTemplateTest {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacyAmpersand();
+
+    @Test
+    @DisplayName("the name takes the color active at its placeholder")
+    void nameKeepsPlaceholderColor() {
+        MessageTemplate template = MessageTemplate.compile("&aWelcome to the server, &b{player}&a!");
+
+        assertEquals(LEGACY.serialize(LEGACY.deserialize("&aWelcome to the server, &bSteve&a!")),
+            LEGACY.serialize(template.render("Steve")));
+    }
+
+    @Test
+    @DisplayName("every placeholder is filled")
+    void repeatedPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("&e{player} &7meet {player}");
+
+        assertEquals("Alex meet Alex", PlainTextComponentSerializer.plainText().serialize(template.render("Alex")));
+    }
+
+    @Test
+    @DisplayName("a name is not parsed for color codes")
+    void nameIsLiteral() {
+        MessageTemplate template = MessageTemplate.compile("&aHi {player}");
+        Component rendered = template.render("&cEvil");
+
+        assertEquals("Hi &cEvil", PlainTextComponentSerializer.plainText().serialize(rendered));
+        assertEquals(NamedTextColor.GREEN, rendered.children().get(rendered.children().size() - 1).color());
+    }
+
+    @Test
+    @DisplayName("a message without placeholders renders the same component every time")
+    void constantMessage() {
+        MessageTemplate template = MessageTemplate.compile("&7Nothing to fill in");
+
+        assertSame(template.render("Steve"), template.render("Alex"));
+    }
+
+    @Test
+    @DisplayName("an empty message compiles to an empty template")
+    void emptyMessage() {
+        assertTrue(MessageTemplate.compile("").isEmpty());
+        assertTrue(MessageTemplate.compile(null).isEmpty());
+    }
+}
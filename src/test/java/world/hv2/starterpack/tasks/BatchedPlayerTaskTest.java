@@ -0,0 +1,124 @@
+package world.hv2.starterpack.tasks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeSender;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exercises {@link BatchedPlayerTask} on a stub scheduler: how many players each tick
+ * processes, the progress lines, and the summary.
+ */
+class BatchedPlayerTaskTest {
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private FakeSender console;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of());
+        console = server.consoleState();
+    }
+
+    @Test
+    @DisplayName("each tick processes players-per-tick players, then the task reports and stops")
+    void perTickAndSummary() {
+        List<UUID> targets = connect(25);
+        List<String> seen = new ArrayList<>();
+
+        new BatchedPlayerTask(plugin, console.asSender(), "give", targets, 10, player -> {
+            seen.add(player.getName());
+            return BatchedPlayerTask.Outcome.APPLIED;
+        }).start();
+        assertEquals(List.of("Starting give for 25 players (10 per tick)..."), console.messages());
+        assertEquals(0, seen.size(), "nothing should run before the next tick");
+
+        server.schedulerState().tick();
+        assertEquals(10, seen.size());
+        server.schedulerState().tick();
+        assertEquals(20, seen.size());
+        server.schedulerState().tick();
+        assertEquals(25, seen.size());
+
+        assertEquals("Finished give: 25 applied, 0 skipped, 0 failed, 0 went offline.", last());
+        assertEquals(0, server.schedulerState().pendingCount(), "the task should cancel itself");
+        server.schedulerState().tick();
+        assertEquals(25, seen.size());
+    }
+
+    @Test
+    @DisplayName("a progress line is sent every 20 ticks while the run lasts")
+    void progressEveryTwentyTicks() {
+        List<UUID> targets = connect(45);
+        new BatchedPlayerTask(plugin, console.asSender(), "give", targets, 1,
+            player -> BatchedPlayerTask.Outcome.APPLIED).start();
+
+        ticks(19);
+        assertEquals(1, console.messageCount(), "only the start line before 20 ticks");
+        ticks(1);
+        assertEquals("Progress: 20/45 players processed...", last());
+        ticks(20);
+        assertEquals("Progress: 40/45 players processed...", last());
+        ticks(5);
+        assertEquals("Finished give: 45 applied, 0 skipped, 0 failed, 0 went offline.", last());
+        assertEquals(4, console.messageCount());
+    }
+
+    @Test
+    @DisplayName("skipped, failed and thrown outcomes, and players who quit first, are counted apart")
+    void outcomesCounted() {
+        List<UUID> targets = connect(6);
+        FakePlayer quitter = server.connect("Quitter");
+        targets.add(1, quitter.getUniqueId());
+        server.disconnect(quitter);
+
+        List<UUID> all = List.copyOf(targets);
+        new BatchedPlayerTask(plugin, console.asSender(), "equip", targets, 3, player -> {
+            switch (all.indexOf(player.getUniqueId())) {
+                case 0: case 2: return BatchedPlayerTask.Outcome.APPLIED;
+                case 3: return BatchedPlayerTask.Outcome.SKIPPED;
+                case 4: return BatchedPlayerTask.Outcome.FAILED;
+                case 5: throw new IllegalStateException("broken kit");
+                default: return BatchedPlayerTask.Outcome.APPLIED;
+            }
+        }).start();
+        ticks(3);
+
+        assertEquals("Finished equip: 3 applied, 1 skipped, 2 failed, 1 went offline.", last());
+        assertEquals(0, server.schedulerState().pendingCount());
+    }
+
+    private List<UUID> connect(int count) {
+        List<UUID> targets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            targets.add(server.connect("Player" + i).getUniqueId());
+        }
+        return targets;
+    }
+
+    private String last() {
+        List<String> messages = console.messages();
+        return messages.get(messages.size() - 1);
+    }
+
+    private void ticks(int count) {
+        for (int i = 0; i < count; i++) {
+            server.schedulerState().tick();
+        }
+    }
+}
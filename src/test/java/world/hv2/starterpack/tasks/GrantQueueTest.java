@@ -0,0 +1,148 @@
+package world.hv2.starterpack.tasks;
+
+import org.bukkit.NamespacedKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.api.GrantCause;
+import world.hv2.starterpack.api.GrantRequest;
+import world.hv2.starterpack.api.GrantResult;
+import world.hv2.starterpack.api.StarterPackGrantEvent;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link GrantQueue}, the services-manager API other plugins grant through, and
+ * the {@link StarterPackGrantEvent} each grant fires.
+ */
+class GrantQueueTest {
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private GrantQueue queue;
+    private NamespacedKey receivedKey;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of("bulk.players-per-tick", 10));
+        queue = new GrantQueue(plugin);
+        receivedKey = new NamespacedKey(plugin, "received_starter_pack");
+    }
+
+    @Test
+    @DisplayName("a batch is processed bulk.players-per-tick at a time, results in request order")
+    void batchSpreadOverTicks() {
+        List<FakePlayer> players = new ArrayList<>();
+        List<GrantRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            FakePlayer player = server.connect("Player" + i);
+            players.add(player);
+            requests.add(GrantRequest.of(player.getUniqueId()));
+        }
+
+        CompletableFuture<List<GrantResult>> results = queue.grantAll(requests);
+        assertEquals(25, queue.pendingGrants());
+
+        queue.run();
+        assertEquals(15, queue.pendingGrants());
+        assertFalse(results.isDone());
+
+        queue.run();
+        queue.run();
+        assertTrue(results.isDone());
+        assertEquals(Collections.nCopies(25, GrantResult.GRANTED), results.join());
+        for (FakePlayer player : players) {
+            assertTrue(player.dataState().has(receivedKey));
+        }
+    }
+
+    @Test
+    @DisplayName("offline players and players who already have their pack are reported, not granted")
+    void offlineAndAlreadyReceived() {
+        FakePlayer veteran = server.connect("Veteran");
+        UUID absent = UUID.randomUUID();
+
+        CompletableFuture<List<GrantResult>> first = queue.grantAll(List.of(
+            GrantRequest.of(veteran.getUniqueId()), GrantRequest.of(absent)));
+        queue.run();
+        assertEquals(List.of(GrantResult.GRANTED, GrantResult.OFFLINE), first.join());
+
+        CompletableFuture<GrantResult> again = queue.grant(GrantRequest.of(veteran.getUniqueId()));
+        CompletableFuture<GrantResult> forced = queue.grant(new GrantRequest(veteran.getUniqueId(), false, true));
+        queue.run();
+        assertEquals(GrantResult.ALREADY_RECEIVED, again.join());
+        assertEquals(GrantResult.GRANTED, forced.join());
+    }
+
+    @Test
+    @DisplayName("a listener can veto a grant or change its items")
+    void grantEvent() {
+        FakePlayer vetoed = server.connect("Vetoed");
+        FakePlayer emptied = server.connect("Emptied");
+        List<GrantCause> causes = new ArrayList<>();
+        server.pluginManagerState().listen(StarterPackGrantEvent.class, event -> {
+            causes.add(event.getCause());
+            if (event.getPlayer().getName().equals("Vetoed")) {
+                event.setCancelled(true);
+            } else {
+                event.getItems().clear();
+            }
+        });
+
+        CompletableFuture<List<GrantResult>> results = queue.grantAll(List.of(
+            GrantRequest.of(vetoed.getUniqueId()), GrantRequest.of(emptied.getUniqueId())));
+        queue.run();
+
+        assertEquals(List.of(GrantResult.CANCELLED, GrantResult.GRANTED), results.join());
+        assertEquals(List.of(GrantCause.API, GrantCause.API), causes);
+        assertFalse(vetoed.dataState().has(receivedKey), "a vetoed grant must not be recorded");
+        assertEquals(0, vetoed.inventoryState().itemsAddedCount());
+        assertTrue(emptied.dataState().has(receivedKey));
+        // Equipment still goes on, and the shipped kit's is all slotted, so nothing reaches the inventory
+        assertEquals(0, emptied.inventoryState().itemsAddedCount());
+        assertTrue(emptied.inventoryState().equipmentUpdateCount() > 0);
+    }
+
+    @Test
+    @DisplayName("requests still waiting when the plugin disables are failed, not left hanging")
+    void failPending() {
+        CompletableFuture<GrantResult> result = queue.grant(GrantRequest.of(server.connect("Late").getUniqueId()));
+        queue.failPending();
+        assertEquals(GrantResult.FAILED, result.join());
+        assertEquals(0, queue.pendingGrants());
+    }
+
+    @Test
+    @DisplayName("requests made after the plugin disables fail at once")
+    void closedAfterFailPending() {
+        queue.failPending();
+
+        CompletableFuture<GrantResult> late = queue.grant(GrantRequest.of(server.connect("Later").getUniqueId()));
+        assertTrue(late.isCompletedExceptionally());
+        CompletionException thrown = assertThrows(CompletionException.class, late::join);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        assertEquals(0, queue.pendingGrants());
+
+        CompletableFuture<List<GrantResult>> batch = queue.grantAll(List.of(GrantRequest.of(UUID.randomUUID())));
+        assertTrue(batch.isCompletedExceptionally(), "a batch fails with its requests");
+    }
+}
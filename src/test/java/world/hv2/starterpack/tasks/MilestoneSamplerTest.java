@@ -0,0 +1,46 @@
+package world.hv2.starterpack.tasks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exercises the threshold search and play time parsing behind {@link MilestoneSampler}.
+ */
+class MilestoneSamplerTest {
+
+    private static final long HOUR = 72_000L;
+
+    @Test
+    @DisplayName("play times parse to ticks, and a bare number means hours")
+    void parseTicks() {
+        assertEquals(20L * 45, MilestoneSampler.parseTicks("45s"));
+        assertEquals(20L * 60 * 90, MilestoneSampler.parseTicks("90m"));
+        assertEquals(5 * HOUR, MilestoneSampler.parseTicks("5H"));
+        assertEquals(48 * HOUR, MilestoneSampler.parseTicks("2d"));
+        assertEquals(24 * HOUR, MilestoneSampler.parseTicks("24"));
+    }
+
+    @Test
+    @DisplayName("zero, negative and malformed play times are rejected")
+    void parseTicksRejects() {
+        assertEquals(-1, MilestoneSampler.parseTicks(""));
+        assertEquals(-1, MilestoneSampler.parseTicks("0h"));
+        assertEquals(-1, MilestoneSampler.parseTicks("-3h"));
+        assertEquals(-1, MilestoneSampler.parseTicks("h"));
+        assertEquals(-1, MilestoneSampler.parseTicks("5w"));
+        assertEquals(-1, MilestoneSampler.parseTicks("one hour"));
+    }
+
+    @Test
+    @DisplayName("the next milestone is the first threshold above what was already given")
+    void firstAbove() {
+        long[] thresholds = {HOUR, 5 * HOUR, 24 * HOUR};
+        assertEquals(0, MilestoneSampler.firstAbove(thresholds, 0));
+        assertEquals(1, MilestoneSampler.firstAbove(thresholds, HOUR));
+        assertEquals(1, MilestoneSampler.firstAbove(thresholds, 3 * HOUR));
+        assertEquals(3, MilestoneSampler.firstAbove(thresholds, 24 * HOUR));
+        assertEquals(0, MilestoneSampler.firstAbove(new long[0], 0));
+    }
+}
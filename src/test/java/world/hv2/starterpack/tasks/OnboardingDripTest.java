@@ -0,0 +1,110 @@
+package world.hv2.starterpack.tasks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.api.GrantCause;
+import world.hv2.starterpack.api.GrantResult;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link OnboardingDrip}: steps after a starter pack, timed in online ticks and
+ * resumed across sessions. Steps here have only a message, so each one given is one
+ * message received.
+ */
+class OnboardingDripTest {
+
+    private static final long MINUTE = 1_200L;
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private OnboardingDrip drip;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of(
+            "onboarding.enabled", true,
+            "onboarding.steps.0.message", "Food",
+            "onboarding.steps.5m.message", "Tools",
+            "onboarding.steps.20m.message", "Armor"));
+        drip = plugin.getOnboardingDrip();
+        drip.load();
+    }
+
+    @Test
+    @DisplayName("step delays parse like play times, and zero is allowed")
+    void parseDelay() {
+        assertEquals(0L, OnboardingDrip.parseDelay("0"));
+        assertEquals(0L, OnboardingDrip.parseDelay("0s"));
+        assertEquals(5 * MINUTE, OnboardingDrip.parseDelay("5m"));
+        assertEquals(-1L, OnboardingDrip.parseDelay("soon"));
+    }
+
+    @Test
+    @DisplayName("a granted player gets each step at its delay, counting only time online")
+    void stepsResumeAcrossSessions() {
+        FakePlayer player = server.connect("Newcomer");
+        assertEquals(GrantResult.GRANTED,
+            plugin.getStarterPackManager().grant(player.asPlayer(), true, false, GrantCause.FIRST_JOIN));
+        int messages = player.messageCount();
+        assertEquals(1, drip.size());
+
+        run(1);
+        assertEquals(messages + 1, player.messageCount(), "the zero step comes on the next tick");
+
+        run(5 * MINUTE - 10);
+        assertEquals(messages + 1, player.messageCount());
+        run(20);
+        assertEquals(messages + 2, player.messageCount());
+
+        // Leaving saves progress to persistent data; time offline does not count
+        drip.suspend(player.asPlayer());
+        assertEquals(0, drip.size());
+        run(60 * MINUTE);
+        assertEquals(messages + 2, player.messageCount());
+
+        drip.resume(player.asPlayer());
+        run(15 * MINUTE - 20);
+        assertEquals(messages + 2, player.messageCount());
+        run(40);
+        assertEquals(messages + 3, player.messageCount());
+        assertEquals(0, drip.size(), "a player who had every step is no longer tracked");
+
+        drip.resume(player.asPlayer());
+        assertEquals(0, drip.size());
+    }
+
+    @Test
+    @DisplayName("resetting a player's starter pack ends their onboarding and forgets it")
+    void reset() {
+        FakePlayer player = server.connect("Reset");
+        plugin.getStarterPackManager().grant(player.asPlayer(), true, false, GrantCause.FIRST_JOIN);
+        run(1);
+
+        plugin.getStarterPackManager().resetPlayerStarterPack(player.asPlayer());
+        assertEquals(0, drip.size());
+        assertTrue(player.dataState().getKeys().stream().noneMatch(key -> key.getKey().startsWith("onboarding")));
+
+        int messages = player.messageCount();
+        drip.resume(player.asPlayer());
+        run(30 * MINUTE);
+        assertEquals(messages, player.messageCount());
+    }
+
+    private void run(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            drip.run();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package world.hv2.starterpack.tasks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.managers.GrantLedger;
+import world.hv2.starterpack.testing.FakePlayer;
+import world.hv2.starterpack.testing.FakeServer;
+import world.hv2.starterpack.testing.Stubs;
+import world.hv2.starterpack.testing.TestKits;
+import world.hv2.starterpack.testing.TestPlugin;
+import world.hv2.starterpack.util.NbtReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link PlayerDataScanner} over a folder of gzipped player data files: what
+ * it counts, what it hands to the grant ledger, and that it never touches the main thread.
+ */
+class PlayerDataScannerTest {
+
+    /** State behind a stub sender that keeps its messages and the threads they came from. */
+    public static final class Recorder {
+        private final List<String> messages = new ArrayList<>();
+        private final Set<Thread> threads = new HashSet<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        public String getName() {
+            return "CONSOLE";
+        }
+
+        public synchronized void sendMessage(Component message) {
+            String text = PlainTextComponentSerializer.plainText().serialize(message);
+            messages.add(text);
+            threads.add(Thread.currentThread());
+            if (text.startsWith("Backfill finished")) {
+                finished.countDown();
+            }
+        }
+
+        synchronized String summary() {
+            return messages.get(messages.size() - 1);
+        }
+
+        synchronized Set<Thread> threads() {
+            return Set.copyOf(threads);
+        }
+    }
+
+    @TempDir
+    File folder;
+
+    private FakeServer server;
+    private StarterPackPlugin plugin;
+    private GrantLedger ledger;
+    private File playerData;
+    private final Map<String, FakePlayer> players = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeServer();
+        plugin = TestPlugin.create(server, TestKits.starterKit(), Map.of(), new File(folder, "plugin"));
+        ledger = plugin.getGrantLedger();
+        ledger.load();
+
+        playerData = new File(folder, "playerdata");
+        Files.createDirectories(playerData.toPath());
+        write("Flagged", "starterpack:received_starter_pack");
+        write("OtherKit", "otherkits:claimed", "otherkits:rank");
+        write("Unrelated", "somemod:settings");
+        write("NoValues");
+        Files.write(file("Corrupt"), new byte[] {1, 2, 3, 4});
+        Files.write(playerData.toPath().resolve("not-a-uuid.dat"), gzipped("otherkits:claimed"));
+        Files.writeString(playerData.toPath().resolve("readme.txt"), "not player data");
+    }
+
+    @Test
+    @DisplayName("a scan counts each file once and backfills only players with a listed key")
+    void countsAndLedger() throws Exception {
+        Recorder recorder = scan(Set.of("otherkits:claimed"));
+
+        assertTrue(recorder.summary().endsWith("6 scanned, 1 backfilled, 1 already marked, 2 without a kit, 2 unreadable."),
+            recorder.summary());
+        assertEquals(8 + 32, Files.size(folder.toPath().resolve("plugin/grants.dat")), "one backfilled record");
+        assertTrue(ledger.takeImported(players.get("OtherKit").asPlayer()));
+        for (String name : List.of("Flagged", "Unrelated", "NoValues", "Corrupt")) {
+            assertFalse(ledger.takeImported(players.get(name).asPlayer()), name);
+        }
+    }
+
+    @Test
+    @DisplayName("with * every player with data is backfilled, and a second scan adds nobody twice")
+    void allPlayersAndRescan() throws Exception {
+        Recorder first = scan(Set.of(PlayerDataScanner.ALL_PLAYERS));
+        assertTrue(first.summary().endsWith("6 scanned, 3 backfilled, 1 already marked, 0 without a kit, 2 unreadable."),
+            first.summary());
+
+        Recorder second = scan(Set.of(PlayerDataScanner.ALL_PLAYERS));
+        assertTrue(second.summary().endsWith("6 scanned, 0 backfilled, 4 already marked, 0 without a kit, 2 unreadable."),
+            second.summary());
+        assertEquals(8 + 3 * 32, Files.size(folder.toPath().resolve("plugin/grants.dat")));
+    }
+
+    @Test
+    @DisplayName("the scan runs and reports entirely off the main thread")
+    void offMainThread() throws Exception {
+        Recorder recorder = scan(Set.of("otherkits:claimed"));
+
+        assertFalse(recorder.threads().contains(Thread.currentThread()));
+        assertEquals(0, server.schedulerState().pendingCount(), "nothing should be scheduled on the main thread");
+    }
+
+    private Recorder scan(Set<String> receivedKeys) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        CommandSender sender = Stubs.of(CommandSender.class, recorder);
+        assertTrue(new PlayerDataScanner(plugin).start(sender, playerData, receivedKeys));
+        assertTrue(recorder.finished.await(10, TimeUnit.SECONDS), "the scan did not finish");
+        return recorder;
+    }
+
+    /**
+     * Write a player data file for a new player whose persistent data holds {@code keys}
+     */
+    private void write(String name, String... keys) throws IOException {
+        Files.write(file(name), gzipped(keys));
+    }
+
+    private Path file(String name) {
+        FakePlayer player = server.connect(name);
+        server.disconnect(player);
+        players.put(name, player);
+        return playerData.toPath().resolve(player.getUniqueId() + ".dat");
+    }
+
+    /**
+     * A gzipped player compound, with a persistent data compound of byte tags when
+     * {@code keys} is not empty
+     */
+    private static byte[] gzipped(String... keys) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(10);
+            out.writeUTF("");
+            out.writeByte(3); out.writeUTF("XpLevel"); out.writeInt(5);
+            if (keys.length > 0) {
+                out.writeByte(10); out.writeUTF(NbtReader.PERSISTENT_DATA_TAG);
+                for (String key : keys) {
+                    out.writeByte(1); out.writeUTF(key); out.writeByte(1);
+                }
+                out.writeByte(0);
+            }
+            out.writeByte(3); out.writeUTF("DataVersion"); out.writeInt(4000);
+            out.writeByte(0);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+
+/**
+ * State behind a stub {@link org.bukkit.inventory.PlayerInventory}: 36 storage slots,
+ * four armor slots and two hands, with counters for the updates the plugin makes.
+ */
+public final class FakeInventory {
+
+    private static final int STORAGE_SLOTS = 36;
+    private static final HashMap<Integer, ItemStack> NOTHING_LEFT_OVER = new HashMap<>();
+
+    private final ItemStack[] storage = new ItemStack[STORAGE_SLOTS];
+    private final ItemStack[] armor = new ItemStack[4];
+    private ItemStack mainHand;
+    private ItemStack offHand;
+
+    private int equipmentUpdates;
+    private int itemsAdded;
+    private RuntimeException failOffHand;
+
+    // PlayerInventory
+
+    public ItemStack[] getArmorContents() {
+        return armor.clone();
+    }
+
+    public void setArmorContents(ItemStack[] items) {
+        equipmentUpdates++;
+        System.arraycopy(items, 0, armor, 0, armor.length);
+    }
+
+    public ItemStack getBoots() {
+        return armor[0];
+    }
+
+    public ItemStack getLeggings() {
+        return armor[1];
+    }
+
+    public ItemStack getChestplate() {
+        return armor[2];
+    }
+
+    public ItemStack getHelmet() {
+        return armor[3];
+    }
+
+    public ItemStack getItemInMainHand() {
+        return mainHand;
+    }
+
+    public void setItemInMainHand(ItemStack item) {
+        equipmentUpdates++;
+        mainHand = item;
+    }
+
+    public ItemStack getItemInOffHand() {
+        return offHand;
+    }
+
+    public void setItemInOffHand(ItemStack item) {
+        if (failOffHand != null) {
+            RuntimeException failure = failOffHand;
+            failOffHand = null;
+            throw failure;
+        }
+        equipmentUpdates++;
+        offHand = item;
+    }
+
+    public int firstEmpty() {
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public HashMap<Integer, ItemStack> addItem(ItemStack[] items) {
+        for (ItemStack item : items) {
+            int slot = firstEmpty();
+            if (slot < 0) {
+                throw new IllegalStateException("Inventory is full; the plugin should have dropped " + item);
+            }
+            storage[slot] = item;
+            itemsAdded++;
+        }
+        return NOTHING_LEFT_OVER;
+    }
+
+    public boolean isEmpty() {
+        for (ItemStack item : storage) {
+            if (item != null) {
+                return false;
+            }
+        }
+        for (ItemStack item : armor) {
+            if (item != null) {
+                return false;
+            }
+        }
+        return mainHand == null && offHand == null;
+    }
+
+    public ItemStack[] getStorageContents() {
+        return storage.clone();
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(storage, null);
+        java.util.Arrays.fill(armor, null);
+        mainHand = null;
+        offHand = null;
+    }
+
+    // Test controls
+
+    /** Make the next off-hand update throw {@code failure}. */
+    public void failNextOffHandUpdate(RuntimeException failure) {
+        this.failOffHand = failure;
+    }
+
+    /** Fill every free storage slot with {@code item}. */
+    public void fillStorage(ItemStack item) {
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] == null) {
+                storage[i] = item;
+            }
+        }
+    }
+
+    /** How many armor-contents and hand updates the plugin made. */
+    public int equipmentUpdateCount() {
+        return equipmentUpdates;
+    }
+
+    /** How many items were added to storage. */
+    public int itemsAddedCount() {
+        return itemsAdded;
+    }
+
+    /** Empty the inventory and zero the counters. */
+    public void reset() {
+        clear();
+        equipmentUpdates = 0;
+        itemsAdded = 0;
+        failOffHand = null;
+    }
+}
@@ -0,0 +1,71 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * State behind a stub {@link ItemStack}. A real stack needs the server's item registry to
+ * exist; this one only knows its material, amount and stack size.
+ *
+ * <p>{@link #clone()} returns the same stack, so granting a kit made of these allocates
+ * nothing on the stack's behalf. Tests that care about aliasing should not use them.
+ */
+public final class FakeItem {
+
+    private final Material type;
+    private final int amount;
+    private final int maxStackSize;
+    private ItemStack stack;
+
+    private FakeItem(Material type, int amount, int maxStackSize) {
+        this.type = type;
+        this.amount = amount;
+        this.maxStackSize = maxStackSize;
+    }
+
+    /**
+     * A stub stack of {@code amount} {@code type}, stacking to 64
+     */
+    public static ItemStack stack(Material type, int amount) {
+        return stack(type, amount, 64);
+    }
+
+    /**
+     * A stub stack of {@code amount} {@code type} that stacks to {@code maxStackSize}
+     */
+    public static ItemStack stack(Material type, int amount, int maxStackSize) {
+        FakeItem item = new FakeItem(type, amount, maxStackSize);
+        item.stack = Stubs.of(ItemStack.class, item);
+        return item.stack;
+    }
+
+    public Material getType() {
+        return type;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int getMaxStackSize() {
+        return maxStackSize;
+    }
+
+    public boolean isEmpty() {
+        return type == Material.AIR || amount <= 0;
+    }
+
+    public boolean hasItemMeta() {
+        return false;
+    }
+
+    @Override
+    public ItemStack clone() {
+        return stack;
+    }
+
+    @Override
+    public String toString() {
+        return amount + "x" + type.name();
+    }
+}
@@ -0,0 +1,50 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * State behind a stub {@link org.bukkit.persistence.PersistentDataContainer}: a map of
+ * key to value that ignores the declared data type.
+ */
+public final class FakePersistentData {
+
+    private final Map<NamespacedKey, Object> values = new HashMap<>();
+
+    public boolean has(NamespacedKey key, PersistentDataType<?, ?> type) {
+        return values.containsKey(key);
+    }
+
+    public boolean has(NamespacedKey key) {
+        return values.containsKey(key);
+    }
+
+    public Object get(NamespacedKey key, PersistentDataType<?, ?> type) {
+        return values.get(key);
+    }
+
+    public void set(NamespacedKey key, PersistentDataType<?, ?> type, Object value) {
+        values.put(key, value);
+    }
+
+    public void remove(NamespacedKey key) {
+        values.remove(key);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public Set<NamespacedKey> getKeys() {
+        return Set.copyOf(values.keySet());
+    }
+
+    /** Forget every stored value. */
+    public void reset() {
+        values.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package world.hv2.starterpack.testing;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.persistence.PersistentDataContainer;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * State behind a stub {@link Player}: a name, offline-mode UUID, locale, address, inventory,
+ * persistent data, permissions and a count of messages received.
+ */
+public final class FakePlayer {
+
+    private final String name;
+    private final UUID uuid;
+    private final FakeWorld world;
+    private final FakeInventory inventory = new FakeInventory();
+    private final FakePersistentData data = new FakePersistentData();
+    private final Set<String> permissions = new HashSet<>();
+    private final PlayerInventory inventoryStub = Stubs.of(PlayerInventory.class, inventory);
+    private final PersistentDataContainer dataStub = Stubs.of(PersistentDataContainer.class, data);
+    private final Player player;
+
+    private Locale locale = Locale.US;
+    private InetSocketAddress address;
+    private boolean online = true;
+    private int messages;
+    private int permissionChecks;
+
+    public FakePlayer(String name, FakeWorld world) {
+        this.name = name;
+        this.uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        this.world = world;
+        this.player = Stubs.of(Player.class, this);
+    }
+
+    // Player
+
+    public String getName() {
+        return name;
+    }
+
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    public Locale locale() {
+        return locale;
+    }
+
+    public PlayerInventory getInventory() {
+        return inventoryStub;
+    }
+
+    public PersistentDataContainer getPersistentDataContainer() {
+        return dataStub;
+    }
+
+    public boolean hasPermission(String permission) {
+        permissionChecks++;
+        return permissions.contains(permission);
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public World getWorld() {
+        return world.asWorld();
+    }
+
+    public Location getLocation() {
+        return null;
+    }
+
+    public void sendMessage(Component message) {
+        messages++;
+    }
+
+    // Test controls
+
+    /** The stub player backed by this state. */
+    public Player asPlayer() {
+        return player;
+    }
+
+    public FakeInventory inventoryState() {
+        return inventory;
+    }
+
+    public FakePersistentData dataState() {
+        return data;
+    }
+
+    public void grantPermission(String permission) {
+        permissions.add(permission);
+    }
+
+    public void revokePermission(String permission) {
+        permissions.remove(permission);
+    }
+
+    public void useLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    /** Connect from {@code address} instead of none. */
+    public void useAddress(InetSocketAddress address) {
+        this.address = address;
+    }
+
+    public void markOffline() {
+        online = false;
+    }
+
+    public int messageCount() {
+        return messages;
+    }
+
+    /** How many times a permission was looked up on this player. */
+    public int permissionCheckCount() {
+        return permissionChecks;
+    }
+}
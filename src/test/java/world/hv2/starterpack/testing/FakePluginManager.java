@@ -0,0 +1,42 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.event.Event;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * State behind a stub {@link PluginManager}: events are handed to whatever handlers a
+ * test installs, in order, and counted.
+ */
+public final class FakePluginManager {
+
+    private final List<Consumer<Event>> handlers = new ArrayList<>();
+    private int events;
+
+    // PluginManager
+
+    public void callEvent(Event event) {
+        events++;
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).accept(event);
+        }
+    }
+
+    // Test controls
+
+    /** Run {@code handler} for every event of {@code type} called from now on. */
+    public <E extends Event> void listen(Class<E> type, Consumer<? super E> handler) {
+        handlers.add(event -> {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event));
+            }
+        });
+    }
+
+    public int eventCount() {
+        return events;
+    }
+}
@@ -0,0 +1,92 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * State behind a stub {@link org.bukkit.scheduler.BukkitScheduler} that runs tasks only
+ * when the test advances the clock with {@link #tick()}.
+ */
+public final class FakeScheduler {
+
+    /** Reports how long one task took, so a harness can attribute tick time to the plugin. */
+    @FunctionalInterface
+    public interface TaskTimer {
+        void ran(long nanos);
+    }
+
+    private final PriorityQueue<FakeTask> queue = new PriorityQueue<>(
+        Comparator.<FakeTask>comparingLong(task -> task.dueTick).thenComparingInt(FakeTask::getTaskId));
+    private long currentTick;
+    private int nextId = 1;
+    private TaskTimer timer = nanos -> { };
+
+    // BukkitScheduler
+
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        return schedule(plugin, task, 0L, -1L);
+    }
+
+    /** Runs on the next tick like {@link #runTask}, so tests see background work in order. */
+    public BukkitTask runTaskAsynchronously(Plugin plugin, Runnable task) {
+        return schedule(plugin, task, 0L, -1L);
+    }
+
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        return schedule(plugin, task, delay, -1L);
+    }
+
+    public BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return schedule(plugin, task, delay, Math.max(1L, period));
+    }
+
+    public void cancelTask(int taskId) {
+        queue.removeIf(task -> task.getTaskId() == taskId);
+    }
+
+    // Test controls
+
+    /** Report each task's run time to {@code timer}. */
+    public void timeTasksWith(TaskTimer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Advance one tick and run every task due by then, in the order they were scheduled
+     */
+    public void tick() {
+        currentTick++;
+        while (!queue.isEmpty() && queue.peek().dueTick <= currentTick) {
+            FakeTask task = queue.poll();
+            if (task.isCancelled()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            task.work.run();
+            timer.ran(System.nanoTime() - start);
+            if (task.period > 0 && !task.isCancelled()) {
+                task.dueTick = currentTick + task.period;
+                queue.add(task);
+            }
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    /** How many tasks are still waiting to run. */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private BukkitTask schedule(Plugin plugin, Runnable work, long delay, long period) {
+        // A delay of zero still waits for the next tick, as on a real server
+        FakeTask task = new FakeTask(nextId++, plugin, work, currentTick + Math.max(1L, delay), period);
+        queue.add(task);
+        return task.task;
+    }
+}
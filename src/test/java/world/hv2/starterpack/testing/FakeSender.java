@@ -0,0 +1,47 @@
+package world.hv2.starterpack.testing;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.command.ConsoleCommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State behind a stub {@link ConsoleCommandSender} that keeps the messages it is sent, as
+ * plain text.
+ */
+public final class FakeSender {
+
+    private final ConsoleCommandSender sender = Stubs.of(ConsoleCommandSender.class, this);
+    private final List<String> messages = new ArrayList<>();
+
+    // ConsoleCommandSender
+
+    public String getName() {
+        return "CONSOLE";
+    }
+
+    public boolean hasPermission(String permission) {
+        return true;
+    }
+
+    public void sendMessage(Component message) {
+        messages.add(PlainTextComponentSerializer.plainText().serialize(message));
+    }
+
+    // Test controls
+
+    public ConsoleCommandSender asSender() {
+        return sender;
+    }
+
+    public int messageCount() {
+        return messages.size();
+    }
+
+    /** Every message sent so far, oldest first. */
+    public List<String> messages() {
+        return messages;
+    }
+}
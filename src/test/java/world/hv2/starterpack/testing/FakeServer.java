@@ -0,0 +1,123 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * State behind a stub {@link Server}: one world, the players online in it, a
+ * tick-stepped scheduler, a plugin manager that hands events to test handlers, and a
+ * console.
+ */
+public final class FakeServer {
+
+    private static final Logger LOGGER = Logger.getLogger("FakeServer");
+
+    private final FakeWorld world = new FakeWorld("world");
+    private final List<Player> online = new ArrayList<>();
+    private final Map<UUID, FakePlayer> byId = new HashMap<>();
+    /** Everyone who has ever connected, by lowercase name, as the user cache would hold them. */
+    private final Map<String, FakePlayer> known = new HashMap<>();
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final BukkitScheduler schedulerStub = Stubs.of(BukkitScheduler.class, scheduler);
+    private final FakeSender console = new FakeSender();
+    private final FakePluginManager pluginManager = new FakePluginManager();
+    private final PluginManager pluginManagerStub = Stubs.of(PluginManager.class, pluginManager);
+    private final Server server = Stubs.of(Server.class, this);
+
+    // Server
+
+    public List<Player> getOnlinePlayers() {
+        return online;
+    }
+
+    public Player getPlayer(UUID uuid) {
+        FakePlayer player = byId.get(uuid);
+        return player == null ? null : player.asPlayer();
+    }
+
+    public OfflinePlayer getOfflinePlayerIfCached(String name) {
+        FakePlayer player = known.get(name.toLowerCase(Locale.ROOT));
+        return player == null ? null : player.asPlayer();
+    }
+
+    public BukkitScheduler getScheduler() {
+        return schedulerStub;
+    }
+
+    public int getCurrentTick() {
+        return (int) scheduler.currentTick();
+    }
+
+    public PluginManager getPluginManager() {
+        return pluginManagerStub;
+    }
+
+    public ConsoleCommandSender getConsoleSender() {
+        return console.asSender();
+    }
+
+    public Logger getLogger() {
+        return LOGGER;
+    }
+
+    public String getName() {
+        return "FakeServer";
+    }
+
+    // Test controls
+
+    public Server asServer() {
+        return server;
+    }
+
+    public FakeScheduler schedulerState() {
+        return scheduler;
+    }
+
+    public FakeWorld worldState() {
+        return world;
+    }
+
+    public FakeSender consoleState() {
+        return console;
+    }
+
+    public FakePluginManager pluginManagerState() {
+        return pluginManager;
+    }
+
+    /**
+     * Bring a player online. Fire the join event yourself; this only updates what the
+     * server reports.
+     */
+    public FakePlayer connect(String name) {
+        FakePlayer player = new FakePlayer(name, world);
+        online.add(player.asPlayer());
+        world.playerList().add(player.asPlayer());
+        byId.put(player.getUniqueId(), player);
+        known.put(name.toLowerCase(Locale.ROOT), player);
+        return player;
+    }
+
+    /**
+     * Take a player offline. Fire the quit event yourself.
+     */
+    public void disconnect(FakePlayer player) {
+        player.markOffline();
+        online.remove(player.asPlayer());
+        world.playerList().remove(player.asPlayer());
+        byId.remove(player.getUniqueId());
+    }
+}
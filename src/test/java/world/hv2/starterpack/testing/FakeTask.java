@@ -0,0 +1,49 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * State behind a stub {@link BukkitTask} queued on a {@link FakeScheduler}.
+ */
+public final class FakeTask {
+
+    private final int id;
+    private final Plugin owner;
+    final Runnable work;
+    final long period;
+    long dueTick;
+    private boolean cancelled;
+    final BukkitTask task;
+
+    FakeTask(int id, Plugin owner, Runnable work, long dueTick, long period) {
+        this.id = id;
+        this.owner = owner;
+        this.work = work;
+        this.dueTick = dueTick;
+        this.period = period;
+        this.task = Stubs.of(BukkitTask.class, this);
+    }
+
+    // BukkitTask
+
+    public int getTaskId() {
+        return id;
+    }
+
+    public Plugin getOwner() {
+        return owner;
+    }
+
+    public boolean isSync() {
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+}
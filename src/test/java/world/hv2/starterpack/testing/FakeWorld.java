@@ -0,0 +1,57 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State behind a stub {@link World} that counts dropped items instead of spawning them.
+ */
+public final class FakeWorld {
+
+    private final String name;
+    private final List<Player> players = new ArrayList<>();
+    private final World world;
+    private int drops;
+
+    public FakeWorld(String name) {
+        this.name = name;
+        this.world = Stubs.of(World.class, this);
+    }
+
+    // World
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public Item dropItem(Location location, ItemStack item) {
+        drops++;
+        return null;
+    }
+
+    // Test controls
+
+    public World asWorld() {
+        return world;
+    }
+
+    /** The players the stub reports as in this world; the server keeps it current. */
+    public List<Player> playerList() {
+        return players;
+    }
+
+    /** How many items were dropped because an inventory was full. */
+    public int dropCount() {
+        return drops;
+    }
+}
@@ -0,0 +1,84 @@
+package world.hv2.starterpack.testing;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.StubMethod;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+/**
+ * Builds Bukkit stand-ins whose behaviour lives in a plain "state" object.
+ *
+ * <p>{@code Stubs.of(Player.class, fakePlayer)} returns a {@code Player} whose methods
+ * with a same-named, same-parameter public method on {@code fakePlayer} call straight into
+ * it; every other abstract method returns null, zero or false. The generated class is a
+ * compiled field delegation, not a reflective proxy or a mock. Calls therefore allocate
+ * nothing of their own, which is what lets the load and allocation tests attribute time
+ * and garbage to the plugin rather than to the test doubles.
+ *
+ * <p>Classes (rather than interfaces) are subclassed and instantiated without running a
+ * constructor, since Bukkit types such as {@code ItemStack} expect a live server there.
+ */
+public final class Stubs {
+
+    private static final String STATE_FIELD = "state";
+    private static final Objenesis OBJENESIS = new ObjenesisStd(true);
+    private static final Map<List<Class<?>>, Class<?>> GENERATED = new ConcurrentHashMap<>();
+
+    private Stubs() {
+    }
+
+    /**
+     * A {@code type} backed by {@code state}
+     *
+     * @param type  the interface or class to stand in for
+     * @param state the object whose public methods implement it
+     */
+    public static <T> T of(Class<T> type, Object state) {
+        Class<?> generated = GENERATED.computeIfAbsent(List.of(type, state.getClass()), key -> generate(type, state.getClass()));
+        Object instance = OBJENESIS.newInstance(generated);
+        try {
+            generated.getField(STATE_FIELD).set(instance, state);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Generated stub for " + type.getName() + " has no state field", e);
+        }
+        return type.cast(instance);
+    }
+
+    private static Class<?> generate(Class<?> type, Class<?> stateType) {
+        DynamicType.Builder<?> builder = type.isInterface()
+            ? new ByteBuddy().subclass(Object.class).implement(type)
+            : new ByteBuddy().subclass(type);
+
+        builder = builder.defineField(STATE_FIELD, stateType, Visibility.PUBLIC)
+            .method(isAbstract()).intercept(StubMethod.INSTANCE);
+
+        for (Method method : stateType.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            builder = builder.method(named(method.getName()).and(takesArguments(method.getParameterTypes())))
+                .intercept(MethodDelegation.withDefaultConfiguration()
+                    .filter(named(method.getName()))
+                    .toField(STATE_FIELD));
+        }
+
+        // The state class's loader sees both it and the Bukkit type in a test run
+        return builder.make()
+            .load(stateType.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+            .getLoaded();
+    }
+}
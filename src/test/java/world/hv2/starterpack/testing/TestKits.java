@@ -0,0 +1,49 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import world.hv2.starterpack.kits.EquipmentPlan;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.managers.KitManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kits made of {@link FakeItem} stacks.
+ */
+public final class TestKits {
+
+    private TestKits() {
+    }
+
+    /**
+     * The kit the shipped {@code config.yml} describes: a pickaxe and food, leather armor,
+     * a sword and a shield
+     */
+    public static Kit starterKit() {
+        Map<EquipmentSlot, ItemStack> slots = new EnumMap<>(EquipmentSlot.class);
+        slots.put(EquipmentSlot.HEAD, FakeItem.stack(Material.LEATHER_HELMET, 1));
+        slots.put(EquipmentSlot.CHEST, FakeItem.stack(Material.LEATHER_CHESTPLATE, 1));
+        slots.put(EquipmentSlot.LEGS, FakeItem.stack(Material.LEATHER_LEGGINGS, 1));
+        slots.put(EquipmentSlot.FEET, FakeItem.stack(Material.LEATHER_BOOTS, 1));
+        slots.put(EquipmentSlot.HAND, FakeItem.stack(Material.STONE_SWORD, 1));
+        slots.put(EquipmentSlot.OFF_HAND, FakeItem.stack(Material.SHIELD, 1));
+        return new Kit(KitManager.STARTER_KIT,
+            List.of(FakeItem.stack(Material.DIAMOND_PICKAXE, 1), FakeItem.stack(Material.COOKED_BEEF, 16)),
+            new EquipmentPlan(slots, List.of()));
+    }
+
+    /**
+     * The respawn kit the shipped {@code config.yml} describes: bread and a wooden sword,
+     * with no equipment
+     */
+    public static Kit respawnKit() {
+        return new Kit(KitManager.RESPAWN_KIT,
+            List.of(FakeItem.stack(Material.BREAD, 8), FakeItem.stack(Material.WOODEN_SWORD, 1)),
+            EquipmentPlan.empty());
+    }
+}
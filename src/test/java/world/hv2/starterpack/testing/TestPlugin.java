@@ -0,0 +1,129 @@
+package world.hv2.starterpack.testing;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.objenesis.ObjenesisStd;
+
+import world.hv2.starterpack.StarterPackPlugin;
+import world.hv2.starterpack.commands.CommandCompletions;
+import world.hv2.starterpack.kits.Kit;
+import world.hv2.starterpack.managers.AltFilterManager;
+import world.hv2.starterpack.managers.ConfigManager;
+import world.hv2.starterpack.managers.GrantLedger;
+import world.hv2.starterpack.managers.KitManager;
+import world.hv2.starterpack.managers.MailboxManager;
+import world.hv2.starterpack.managers.MessageManager;
+import world.hv2.starterpack.managers.PermissionCache;
+import world.hv2.starterpack.managers.RespawnKitManager;
+import world.hv2.starterpack.managers.StarterPackManager;
+import world.hv2.starterpack.tasks.OnboardingDrip;
+import world.hv2.starterpack.util.NameIndex;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link StarterPackPlugin} wired to a {@link FakeServer}, with its real managers.
+ *
+ * <p>A plugin normally only exists inside a server's plugin loader, so this builds one
+ * without running a constructor and sets the fields the loader and {@code onEnable}
+ * would have. Configuration is the shipped {@code config.yml} plus any overrides. Kits
+ * are supplied directly, because compiling them from config creates real item stacks,
+ * which needs a live server.
+ */
+public final class TestPlugin {
+
+    private static final File DEFAULT_CONFIG = new File("src/main/resources/config.yml");
+
+    private TestPlugin() {
+    }
+
+    /**
+     * @param server    the server the plugin runs on
+     * @param kit       the starter kit to grant
+     * @param overrides config paths to set on top of the shipped {@code config.yml}
+     */
+    public static StarterPackPlugin create(FakeServer server, Kit kit, Map<String, Object> overrides) {
+        return create(server, kit, overrides, null);
+    }
+
+    /**
+     * @param server     the server the plugin runs on
+     * @param kit        the starter kit to grant
+     * @param overrides  config paths to set on top of the shipped {@code config.yml}
+     * @param dataFolder where the plugin keeps its files, such as the mailbox
+     */
+    public static StarterPackPlugin create(FakeServer server, Kit kit, Map<String, Object> overrides, File dataFolder) {
+        StarterPackPlugin plugin = new ObjenesisStd(true).newInstance(StarterPackPlugin.class);
+        // Per-grant info lines would flood test output; warnings and errors still show
+        Logger logger = Logger.getLogger("StarterPack");
+        logger.setLevel(Level.WARNING);
+
+        // What the plugin loader would have set
+        PluginDescriptionFile description = new PluginDescriptionFile("StarterPack", "test", StarterPackPlugin.class.getName());
+        setIfPresent(JavaPlugin.class, plugin, "server", server.asServer());
+        setIfPresent(JavaPlugin.class, plugin, "description", description);
+        setIfPresent(JavaPlugin.class, plugin, "pluginMeta", description);
+        setIfPresent(JavaPlugin.class, plugin, "logger", logger);
+        setIfPresent(JavaPlugin.class, plugin, "isEnabled", true);
+        setIfPresent(JavaPlugin.class, plugin, "dataFolder", dataFolder);
+
+        // Field initializers, skipped along with the constructor
+        NameIndex<org.bukkit.entity.Player> playerIndex = new NameIndex<>();
+        set(StarterPackPlugin.class, plugin, "playerIndex", playerIndex);
+        set(StarterPackPlugin.class, plugin, "commandCompletions", new CommandCompletions(playerIndex));
+        set(StarterPackPlugin.class, plugin, "logger", logger);
+
+        // What onEnable would have done
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(DEFAULT_CONFIG);
+        overrides.forEach(config::set);
+
+        ConfigManager configManager = new ConfigManager(plugin);
+        set(StarterPackPlugin.class, plugin, "configManager", configManager);
+        configManager.applyConfig(config);
+
+        KitManager kitManager = new KitManager(plugin);
+        set(KitManager.class, kitManager, "starterKit", kit);
+        // Only given when a test sets respawn-kit.enabled
+        set(KitManager.class, kitManager, "respawnKit", TestKits.respawnKit());
+        set(StarterPackPlugin.class, plugin, "kitManager", kitManager);
+
+        MessageManager messageManager = new MessageManager(plugin);
+        set(StarterPackPlugin.class, plugin, "messageManager", messageManager);
+        messageManager.loadMessages();
+
+        set(StarterPackPlugin.class, plugin, "permissionCache", new PermissionCache());
+        set(StarterPackPlugin.class, plugin, "starterPackManager", new StarterPackManager(plugin));
+        set(StarterPackPlugin.class, plugin, "onboardingDrip", new OnboardingDrip(plugin));
+        // Never loaded, so the mailbox stays empty and the alt filter and grant ledger closed,
+        // and no respawn kit cooldowns are running
+        set(StarterPackPlugin.class, plugin, "mailboxManager", new MailboxManager(plugin));
+        set(StarterPackPlugin.class, plugin, "altFilterManager", new AltFilterManager(plugin));
+        set(StarterPackPlugin.class, plugin, "grantLedger", new GrantLedger(plugin));
+        set(StarterPackPlugin.class, plugin, "respawnKitManager", new RespawnKitManager(plugin));
+        return plugin;
+    }
+
+    private static void set(Class<?> owner, Object target, String name, Object value) {
+        if (!setIfPresent(owner, target, name, value)) {
+            throw new IllegalStateException(owner.getSimpleName() + " has no field '" + name + "'");
+        }
+    }
+
+    private static boolean setIfPresent(Class<?> owner, Object target, String name, Object value) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+            return true;
+        } catch (NoSuchFieldException e) {
+            return false;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot set " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link BkTree}, the metric index behind "did you mean" suggestions.
+ */
+class BkTreeTest {
+
+    private static List<String> names(List<BkTree.Match> matches) {
+        List<String> names = new ArrayList<>();
+        for (BkTree.Match match : matches) {
+            names.add(match.name());
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("the closest names come first, ties alphabetically")
+    void closestFirst() {
+        BkTree tree = new BkTree();
+        tree.add("steve", "Steve");
+        tree.add("stevie", "Stevie");
+        tree.add("alex", "Alex");
+        tree.add("notch", "Notch");
+        assertEquals(List.of("Steve", "Stevie"), names(tree.closest("steve", 2)));
+        assertEquals(List.of("Alex"), names(tree.closest("alexx", 1)));
+    }
+
+    @Test
+    @DisplayName("a name indexed under two keys is reported once, at its nearer distance")
+    void aliasReportedOnce() {
+        BkTree tree = new BkTree();
+        tree.add(".acarm", ".acarm");
+        tree.add("acarm", ".acarm");
+        tree.add("carl", "Carl");
+        List<BkTree.Match> matches = tree.closest("acarm", 5);
+        assertEquals(List.of(".acarm", "Carl"), names(matches));
+        assertEquals(0, matches.get(0).distance());
+    }
+
+    @Test
+    @DisplayName("removed names are not suggested, and re-adding revives them")
+    void removeAndReAdd() {
+        BkTree tree = new BkTree();
+        tree.add("steve", "Steve");
+        tree.add("alex", "Alex");
+        tree.remove("steve", "Steve");
+        assertEquals(List.of("Alex"), names(tree.closest("steve", 5)));
+        tree.add("steve", "Steve");
+        assertEquals("Steve", tree.closest("steve", 1).get(0).name());
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    @DisplayName("heavy churn rebuilds the tree without losing live names")
+    void churnKeepsLiveNames() {
+        BkTree tree = new BkTree();
+        for (int i = 0; i < 500; i++) {
+            tree.add("player" + i, "Player" + i);
+        }
+        for (int i = 0; i < 490; i++) {
+            tree.remove("player" + i, "Player" + i);
+        }
+        assertEquals(10, tree.size());
+        List<String> remaining = names(tree.closest("player495", 10));
+        assertEquals(10, remaining.size());
+        assertEquals("Player495", remaining.get(0));
+        assertTrue(remaining.contains("Player490"), remaining.toString());
+    }
+
+    @Test
+    @DisplayName("an empty tree suggests nothing")
+    void emptyTree() {
+        assertTrue(new BkTree().closest("steve", 5).isEmpty());
+    }
+}
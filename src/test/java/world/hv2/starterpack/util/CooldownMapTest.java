@@ -0,0 +1,112 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link CooldownMap}, the primitive expiry table behind respawn kit cooldowns.
+ */
+class CooldownMapTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static List<UUID> ids(int count) {
+        Random random = new Random(39);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("a running cooldown reports its time left, an ended one reports zero and is removed")
+    void remainingAndLazyRemoval() {
+        CooldownMap map = new CooldownMap();
+        UUID id = UUID.randomUUID();
+        map.put(id, NOW + 500, NOW);
+
+        assertEquals(500, map.remaining(id, NOW));
+        assertTrue(map.isActive(id, NOW + 499));
+        assertFalse(map.isActive(id, NOW + 500));
+        assertEquals(0, map.size());
+        assertEquals(0, map.remaining(UUID.randomUUID(), NOW));
+    }
+
+    @Test
+    @DisplayName("putting a player twice replaces their expiry")
+    void putReplaces() {
+        CooldownMap map = new CooldownMap();
+        UUID id = UUID.randomUUID();
+        map.put(id, NOW + 100, NOW);
+        map.put(id, NOW + 900, NOW);
+        assertEquals(1, map.size());
+        assertEquals(900, map.remaining(id, NOW));
+    }
+
+    @Test
+    @DisplayName("removals keep every other entry reachable as the table grows")
+    void removalsAcrossGrowth() {
+        CooldownMap map = new CooldownMap();
+        List<UUID> ids = ids(1_000);
+        for (int i = 0; i < ids.size(); i++) {
+            map.put(ids.get(i), Long.MAX_VALUE - i, NOW);
+        }
+        for (int i = 0; i < ids.size(); i += 3) {
+            assertTrue(map.remove(ids.get(i)));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i % 3 != 0, map.isActive(ids.get(i), NOW), "entry " + i);
+        }
+        assertEquals(666, map.size());
+    }
+
+    @Test
+    @DisplayName("purge drops only what has ended")
+    void purge() {
+        CooldownMap map = new CooldownMap();
+        List<UUID> ids = ids(100);
+        for (int i = 0; i < ids.size(); i++) {
+            map.put(ids.get(i), NOW + 1 + i, NOW);
+        }
+        assertEquals(50, map.purge(NOW + 50));
+        assertEquals(50, map.size());
+        assertTrue(map.isActive(ids.get(99), NOW + 50));
+    }
+
+    @Test
+    @DisplayName("a saved map reloads the cooldowns still running, and nothing else")
+    void writeAndRead() throws IOException {
+        CooldownMap map = new CooldownMap();
+        List<UUID> ids = ids(10);
+        for (int i = 0; i < ids.size(); i++) {
+            map.put(ids.get(i), NOW + i * 100, NOW);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        map.write(new DataOutputStream(bytes), NOW + 450);
+        // Five running cooldowns: a count plus 24 bytes each
+        assertEquals(4 + 5 * 24, bytes.size());
+
+        CooldownMap loaded = new CooldownMap();
+        loaded.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), NOW + 650);
+        assertEquals(3, loaded.size());
+        assertEquals(100, loaded.remaining(ids.get(7), NOW + 600));
+        assertFalse(loaded.isActive(ids.get(6), NOW + 600));
+    }
+}
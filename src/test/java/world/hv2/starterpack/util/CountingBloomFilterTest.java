@@ -0,0 +1,77 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link CountingBloomFilter}, the fixed-size counter table behind the alt-account filter.
+ */
+class CountingBloomFilterTest {
+
+    private static CountingBloomFilter filter(long size, int hashes) {
+        return new CountingBloomFilter(ByteBuffer.allocate(CountingBloomFilter.bytesFor(size)), size, hashes);
+    }
+
+    @Test
+    @DisplayName("a key's count is how often it was added, and unseen keys count zero")
+    void counts() {
+        CountingBloomFilter filter = filter(1 << 16, 4);
+        filter.add(1L, 2L);
+        filter.add(1L, 2L);
+        filter.add(3L, 4L);
+
+        assertEquals(2, filter.count(1L, 2L));
+        assertEquals(1, filter.count(3L, 4L));
+        assertEquals(0, filter.count(5L, 6L));
+    }
+
+    @Test
+    @DisplayName("removing an added key lowers its count")
+    void remove() {
+        CountingBloomFilter filter = filter(1 << 16, 4);
+        filter.add(7L, 11L);
+        filter.add(7L, 11L);
+        filter.remove(7L, 11L);
+        assertEquals(1, filter.count(7L, 11L));
+    }
+
+    @Test
+    @DisplayName("counters saturate at 15 and stay there")
+    void saturates() {
+        CountingBloomFilter filter = filter(64, 2);
+        for (int i = 0; i < 20; i++) {
+            filter.add(9L, 13L);
+        }
+        filter.remove(9L, 13L);
+        assertEquals(CountingBloomFilter.MAX_COUNT, filter.count(9L, 13L));
+    }
+
+    @Test
+    @DisplayName("counts never undercount, and at a tenth full rarely overcount")
+    void noUndercount() {
+        CountingBloomFilter filter = filter(1 << 20, 4);
+        Random random = new Random(42);
+        long[][] keys = new long[100_000][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new long[] {random.nextLong(), random.nextLong()};
+            filter.add(keys[i][0], keys[i][1]);
+        }
+
+        int overcounted = 0;
+        for (long[] key : keys) {
+            int count = filter.count(key[0], key[1]);
+            assertTrue(count >= 1);
+            if (count > 1) {
+                overcounted++;
+            }
+        }
+        // About 0.1% at 4 hashes and 10 counters per key
+        assertTrue(overcounted < keys.length / 100, overcounted + " keys overcounted");
+    }
+}
@@ -0,0 +1,153 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link DiskUuidSet}, the file-backed set of imported players.
+ */
+class DiskUuidSetTest {
+
+    /** A 16-byte header and 16-byte slots, in the 524,288-slot table that holds 200,000 at half load. */
+    private static final long HEADER_AND_SLOTS_FOR_200K = 16L + 524_288L * 16L;
+
+    @TempDir
+    Path folder;
+
+    private static List<UUID> ids(int count) {
+        Random random = new Random(46);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("added UUIDs are found, others are not, and each is added once")
+    void addAndContains() throws IOException {
+        try (DiskUuidSet set = DiskUuidSet.open(folder.resolve("set.dat"))) {
+            List<UUID> ids = ids(100);
+            for (UUID id : ids) {
+                assertTrue(set.add(id));
+            }
+            assertFalse(set.add(ids.get(0)));
+
+            assertEquals(100, set.size());
+            for (UUID id : ids) {
+                assertTrue(set.contains(id));
+            }
+            assertFalse(set.contains(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    @DisplayName("removing entries keeps every other entry reachable")
+    void remove() throws IOException {
+        try (DiskUuidSet set = DiskUuidSet.open(folder.resolve("set.dat"))) {
+            List<UUID> ids = ids(400);
+            for (UUID id : ids) {
+                set.add(id);
+            }
+            for (int i = 0; i < ids.size(); i += 2) {
+                assertTrue(set.remove(ids.get(i)));
+            }
+            assertFalse(set.remove(ids.get(0)));
+
+            assertEquals(200, set.size());
+            for (int i = 0; i < ids.size(); i++) {
+                assertEquals(i % 2 == 1, set.contains(ids.get(i)), "entry " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("the set grows past its first table and survives being reopened")
+    void growAndReopen() throws IOException {
+        Path file = folder.resolve("set.dat");
+        List<UUID> ids = ids(5_000);
+        try (DiskUuidSet set = DiskUuidSet.open(file)) {
+            for (UUID id : ids) {
+                set.add(id);
+            }
+        }
+
+        try (DiskUuidSet set = DiskUuidSet.open(file)) {
+            assertEquals(ids.size(), set.size());
+            for (UUID id : ids) {
+                assertTrue(set.contains(id));
+            }
+        }
+        assertFalse(Files.exists(folder.resolve("set.dat.tmp")));
+    }
+
+    @Test
+    @DisplayName("adds and removes made while another thread grows the set are kept")
+    void changesWhileGrowing() throws Exception {
+        Path file = folder.resolve("set.dat");
+        List<UUID> ids = ids(6_000);
+        List<UUID> before = ids.subList(0, 3_000);
+        List<UUID> during = ids.subList(3_000, 6_000);
+        try (DiskUuidSet set = DiskUuidSet.open(file)) {
+            for (UUID id : before) {
+                set.add(id);
+            }
+
+            Thread grower = new Thread(() -> {
+                try {
+                    set.ensureCapacity(200_000);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            grower.start();
+            for (int i = 0; i < during.size(); i++) {
+                assertTrue(set.add(during.get(i)));
+                assertTrue(set.remove(before.get(i)));
+            }
+            grower.join();
+
+            assertEquals(during.size(), set.size());
+            for (UUID id : before) {
+                assertFalse(set.contains(id));
+            }
+            for (UUID id : during) {
+                assertTrue(set.contains(id));
+            }
+        }
+
+        try (DiskUuidSet set = DiskUuidSet.open(file)) {
+            assertEquals(during.size(), set.size());
+            for (UUID id : during) {
+                assertTrue(set.contains(id));
+            }
+        }
+        assertEquals(HEADER_AND_SLOTS_FOR_200K, Files.size(file), "the grown table was swapped in");
+        assertFalse(Files.exists(folder.resolve("set.dat.tmp")));
+    }
+
+    @Test
+    @DisplayName("a file that is not a set is replaced with an empty one")
+    void foreignFile() throws IOException {
+        Path file = folder.resolve("set.dat");
+        Files.writeString(file, "not a set");
+        try (DiskUuidSet set = DiskUuidSet.open(file)) {
+            assertEquals(0, set.size());
+            assertTrue(set.add(UUID.randomUUID()));
+        }
+    }
+}
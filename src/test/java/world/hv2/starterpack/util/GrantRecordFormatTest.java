@@ -0,0 +1,53 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Exercises {@link GrantRecordFormat}, the line formats grant records are exported and
+ * imported in.
+ */
+class GrantRecordFormatTest {
+
+    private static final UUID PLAYER = UUID.fromString("4a3b2c1d-0000-4000-8000-00000000abcd");
+
+    @Test
+    @DisplayName("each format reads back the records it writes")
+    void roundTrip() {
+        for (GrantRecordFormat format : GrantRecordFormat.values()) {
+            StringBuilder line = new StringBuilder();
+            format.format(line, PLAYER, 1_718_000_000_000L, 0xF00DCAFE12345678L);
+            assertEquals(new GrantRecordFormat.Entry(PLAYER, 1_718_000_000_000L, 0xF00DCAFE12345678L),
+                format.parseLine(line), format.name());
+        }
+    }
+
+    @Test
+    @DisplayName("NDJSON fields may come in any order with spacing, and the kit version may be missing")
+    void lenientJson() {
+        assertEquals(new GrantRecordFormat.Entry(PLAYER, 42L, 0L), GrantRecordFormat.NDJSON.parseLine(
+            "{ \"granted_at\": 42, \"uuid\": \"" + PLAYER + "\" }"));
+    }
+
+    @Test
+    @DisplayName("blank lines, the CSV header and malformed lines are not records")
+    void notRecords() {
+        assertNull(GrantRecordFormat.CSV.parseLine(""));
+        assertNull(GrantRecordFormat.CSV.parseLine("uuid,granted_at,kit_version"));
+        assertNull(GrantRecordFormat.CSV.parseLine("not-a-uuid,1,0"));
+        assertNull(GrantRecordFormat.NDJSON.parseLine("{\"uuid\":\"" + PLAYER + "\"}"));
+    }
+
+    @Test
+    @DisplayName("formats are chosen by name or file extension")
+    void lookup() {
+        assertEquals(GrantRecordFormat.CSV, GrantRecordFormat.parse("CSV"));
+        assertEquals(GrantRecordFormat.NDJSON, GrantRecordFormat.forFile("old-server.ndjson"));
+        assertNull(GrantRecordFormat.forFile("grants.txt"));
+    }
+}
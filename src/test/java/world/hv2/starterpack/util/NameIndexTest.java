@@ -0,0 +1,112 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link NameIndex} over plain strings, standing in for the {@code Player}
+ * handles the plugin stores against each name.
+ */
+class NameIndexTest {
+
+    private NameIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameIndex<>();
+        index.add("Steve", "steve-session");
+        index.add("Alex", "alex-session");
+        index.add(".acarm", "acarm-session");
+    }
+
+    /**
+     * Tab completion of a partially typed name.
+     *
+     * <p>Completion used to sweep every online player per keystroke and never offered a
+     * Floodgate {@code .name} to an operator typing {@code name}. These cases pin the
+     * range query that replaced it.
+     */
+    @Nested
+    @DisplayName("completion")
+    class Completion {
+
+        @Test
+        @DisplayName("a prefix matches case-insensitively and returns the real name")
+        void prefixIgnoresCase() {
+            assertEquals(List.of("Steve"), index.complete("st"));
+            assertEquals(List.of("Steve"), index.complete("ST"));
+        }
+
+        @Test
+        @DisplayName("an unprefixed prefix completes the Floodgate name")
+        void unprefixedCompletesFloodgateName() {
+            assertEquals(List.of(".acarm", "Alex"), index.complete("a"));
+            assertEquals(List.of(".acarm"), index.complete("aca"));
+        }
+
+        @Test
+        @DisplayName("a prefixed prefix still completes the Floodgate name")
+        void prefixedCompletesFloodgateName() {
+            assertEquals(List.of(".acarm"), index.complete(".a"));
+        }
+
+        @Test
+        @DisplayName("an empty prefix lists each player once")
+        void emptyPrefixListsEachPlayerOnce() {
+            assertEquals(List.of(".acarm", "Alex", "Steve"), index.complete(""));
+        }
+
+        @Test
+        @DisplayName("a Java name and a Bedrock name sharing a key both complete")
+        void sharedKeyDoesNotCollide() {
+            index.add(".steve", "bedrock-steve-session");
+            List<String> names = index.complete("steve");
+            assertEquals(2, names.size(), names.toString());
+            assertTrue(names.contains("Steve"), names.toString());
+            assertTrue(names.contains(".steve"), names.toString());
+        }
+    }
+
+    /**
+     * Keeping the index current as players come and go.
+     */
+    @Nested
+    @DisplayName("maintenance")
+    class Maintenance {
+
+        @Test
+        @DisplayName("a quit removes the name and its alias")
+        void quitRemovesNameAndAlias() {
+            index.remove(".acarm", "acarm-session");
+            assertTrue(index.complete("aca").isEmpty());
+            assertTrue(index.complete(".aca").isEmpty());
+        }
+
+        @Test
+        @DisplayName("a stale quit does not evict a newer session")
+        void staleQuitKeepsNewSession() {
+            index.add("Steve", "new-steve-session");
+            index.remove("Steve", "steve-session");
+            assertEquals(List.of("Steve"), index.complete("steve"));
+        }
+
+        @Test
+        @DisplayName("a thousand players complete a narrow prefix exactly")
+        void thousandPlayers() {
+            NameIndex<Integer> large = new NameIndex<>();
+            for (int i = 0; i < 1000; i++) {
+                large.add("player" + i, i);
+            }
+            assertEquals(1000, large.complete("player").size());
+            assertEquals(List.of("player999"), large.complete("player999"));
+            assertEquals(11, large.complete("player99").size());
+        }
+    }
+}
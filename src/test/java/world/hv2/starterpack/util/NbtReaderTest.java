@@ -0,0 +1,92 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Exercises {@link NbtReader} on hand-built player data.
+ */
+class NbtReaderTest {
+
+    /**
+     * A gzipped player file with a tag of every kind ahead of {@code BukkitValues}, and one after
+     */
+    private static byte[] playerFile(boolean withPersistentData) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(10);
+            out.writeUTF("");
+
+            out.writeByte(1); out.writeUTF("OnGround"); out.writeByte(1);
+            out.writeByte(2); out.writeUTF("SleepTimer"); out.writeShort(0);
+            out.writeByte(3); out.writeUTF("XpLevel"); out.writeInt(30);
+            out.writeByte(4); out.writeUTF("Seed"); out.writeLong(42L);
+            out.writeByte(5); out.writeUTF("Health"); out.writeFloat(20f);
+            out.writeByte(6); out.writeUTF("FallDistance"); out.writeDouble(0.0);
+            out.writeByte(7); out.writeUTF("Blob"); out.writeInt(3); out.write(new byte[] {1, 2, 3});
+            out.writeByte(8); out.writeUTF("Dimension"); out.writeUTF("minecraft:overworld");
+            out.writeByte(9); out.writeUTF("Pos"); out.writeByte(6); out.writeInt(3);
+            out.writeDouble(1); out.writeDouble(64); out.writeDouble(-3);
+            out.writeByte(10); out.writeUTF("abilities");
+            out.writeByte(1); out.writeUTF("flying"); out.writeByte(0);
+            out.writeByte(0);
+            out.writeByte(11); out.writeUTF("UUID"); out.writeInt(4); out.writeInt(1); out.writeInt(2); out.writeInt(3); out.writeInt(4);
+            out.writeByte(12); out.writeUTF("Longs"); out.writeInt(1); out.writeLong(7L);
+
+            if (withPersistentData) {
+                out.writeByte(10); out.writeUTF(NbtReader.PERSISTENT_DATA_TAG);
+                out.writeByte(1); out.writeUTF("starterpack:received_starter_pack"); out.writeByte(1);
+                out.writeByte(8); out.writeUTF("otherkits:claimed"); out.writeUTF("starter");
+                out.writeByte(0);
+            }
+
+            out.writeByte(3); out.writeUTF("DataVersion"); out.writeInt(4000);
+            out.writeByte(0);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<String> read(byte[] file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(file)))) {
+            return NbtReader.persistentDataKeys(in);
+        }
+    }
+
+    @Test
+    @DisplayName("the persistent data keys are found after skipping every other tag type")
+    void findsKeys() throws IOException {
+        assertEquals(List.of("starterpack:received_starter_pack", "otherkits:claimed"), read(playerFile(true)));
+    }
+
+    @Test
+    @DisplayName("a player without persistent data has no keys")
+    void noPersistentData() throws IOException {
+        assertEquals(List.of(), read(playerFile(false)));
+    }
+
+    @Test
+    @DisplayName("a truncated file is an error, not an empty result")
+    void truncated() throws IOException {
+        byte[] whole = playerFile(true);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(whole));
+             GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            byte[] raw = in.readAllBytes();
+            out.write(raw, 0, raw.length / 2);
+        }
+        assertThrows(EOFException.class, () -> read(bytes.toByteArray()));
+    }
+}
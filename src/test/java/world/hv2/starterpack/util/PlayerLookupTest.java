@@ -6,20 +6,18 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
- * Exercises the pure parts of {@link PlayerLookup} -- the candidate-name list and the
- * failure message -- as plain functions over strings, with no Bukkit types and no
- * running server.
+ * Exercises {@link PlayerLookup} as plain functions over strings, with no Bukkit types and
+ * no running server.
  *
- * <p>{@link PlayerLookup#resolve} is deliberately not covered here: it calls
- * {@code Bukkit.getPlayerExact} and {@code Bukkit.getOnlinePlayers}, which need a live
- * server, and {@code Player} cannot be constructed headlessly. The decisions worth
- * pinning were extracted into the two static methods below precisely so that the
- * untestable remainder is thin Bukkit glue.
+ * <p>{@link PlayerLookup#resolve} is covered through a {@link NameIndex} of strings: the
+ * index is generic over what a name maps to, so the tiers can be pinned without
+ * constructing a {@code Player}, which cannot be done headlessly.
  */
 class PlayerLookupTest {
 
@@ -77,4 +75,77 @@ class PlayerLookupTest {
             assertTrue(message.toLowerCase(Locale.ROOT).contains("no players"), message);
         }
     }
+
+    /**
+     * Resolving through the online-player index.
+     *
+     * <p>Each tier used to sweep every online player; these cases pin that the probes
+     * that replaced the sweeps keep the old precedence: exact beats case-insensitive,
+     * the typed name beats its Floodgate form, and any whole-name match beats a partial.
+     */
+    @Nested
+    @DisplayName("indexed resolution")
+    class IndexedResolution {
+
+        private NameIndex<String> index() {
+            NameIndex<String> index = new NameIndex<>();
+            index.add("Steve", "java-steve");
+            index.add(".acarm", "bedrock-acarm");
+            index.add("Stevenson", "java-stevenson");
+            return index;
+        }
+
+        @Test
+        @DisplayName("an exact name resolves")
+        void exactNameResolves() {
+            assertEquals(Optional.of("java-steve"), PlayerLookup.resolve(index(), "Steve"));
+        }
+
+        @Test
+        @DisplayName("a name in the wrong case resolves")
+        void wrongCaseResolves() {
+            assertEquals(Optional.of("java-steve"), PlayerLookup.resolve(index(), "sTEVE"));
+        }
+
+        @Test
+        @DisplayName("a bare name resolves the Floodgate-prefixed player")
+        void bareNameResolvesFloodgatePlayer() {
+            assertEquals(Optional.of("bedrock-acarm"), PlayerLookup.resolve(index(), "acarm"));
+            assertEquals(Optional.of("bedrock-acarm"), PlayerLookup.resolve(index(), "ACARM"));
+            assertEquals(Optional.of("bedrock-acarm"), PlayerLookup.resolve(index(), ".acarm"));
+        }
+
+        @Test
+        @DisplayName("an exact Floodgate alias beats a case-insensitive Java name")
+        void exactAliasBeatsCaseInsensitiveName() {
+            NameIndex<String> index = index();
+            index.add("ALEX", "java-alex");
+            index.add(".alex", "bedrock-alex");
+            assertEquals(Optional.of("bedrock-alex"), PlayerLookup.resolve(index, "alex"));
+            assertEquals(Optional.of("java-alex"), PlayerLookup.resolve(index, "ALEX"));
+        }
+
+        @Test
+        @DisplayName("a partial name only resolves when partials are allowed")
+        void partialNeedsPartialTier() {
+            assertTrue(PlayerLookup.resolve(index(), "stev").isEmpty());
+            assertEquals(Optional.of("java-steve"), PlayerLookup.resolveAllowingPartial(index(), "stev"));
+        }
+
+        @Test
+        @DisplayName("a partial name picks the shortest match, aliases included")
+        void partialPicksShortestMatch() {
+            assertEquals(Optional.of("java-stevenson"), PlayerLookup.resolveAllowingPartial(index(), "stevens"));
+            assertEquals(Optional.of("bedrock-acarm"), PlayerLookup.resolveAllowingPartial(index(), "aca"));
+        }
+
+        @Test
+        @DisplayName("a departed player no longer resolves")
+        void departedPlayerDoesNotResolve() {
+            NameIndex<String> index = index();
+            index.remove("Steve", "java-steve");
+            assertEquals(Optional.of("java-stevenson"), PlayerLookup.resolveAllowingPartial(index, "Steve"));
+            assertTrue(PlayerLookup.resolve(index, "Steve").isEmpty());
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package world.hv2.starterpack.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link TimingWheel}, the scheduler behind onboarding drip steps.
+ */
+class TimingWheelTest {
+
+    /** A timer's value: the tick it should expire on, and the tick it did. */
+    private static final class Probe {
+        final long due;
+        long fired = -1;
+
+        Probe(long due) {
+            this.due = due;
+        }
+    }
+
+    @Test
+    @DisplayName("every timer expires on its deadline, across all four wheels")
+    void expiresOnDeadline() {
+        TimingWheel<Probe> wheel = new TimingWheel<>(1_000L);
+        Random random = new Random(7);
+        List<Probe> probes = new ArrayList<>();
+        long[] delays = {0, 1, 63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 300_000};
+        for (long delay : delays) {
+            probes.add(schedule(wheel, delay));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            probes.add(schedule(wheel, random.nextInt(400_000)));
+        }
+
+        run(wheel, 400_001);
+        for (Probe probe : probes) {
+            assertEquals(probe.due, probe.fired);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("a timer further out than the wheels reach still expires on time")
+    void beyondSpan() {
+        TimingWheel<Probe> wheel = new TimingWheel<>(5L);
+        Probe far = schedule(wheel, (1L << 24) + 12_345L);
+
+        run(wheel, (1L << 24) + 12_346L);
+        assertEquals(far.due, far.fired);
+    }
+
+    @Test
+    @DisplayName("a cancelled timer never expires, and cancelling twice reports false")
+    void cancel() {
+        TimingWheel<Probe> wheel = new TimingWheel<>(0L);
+        Probe kept = new Probe(wheel.getTick() + 100);
+        Probe dropped = new Probe(wheel.getTick() + 100);
+        TimingWheel.Timer<Probe> keptTimer = wheel.schedule(kept, 100);
+        TimingWheel.Timer<Probe> droppedTimer = wheel.schedule(dropped, 100);
+
+        assertTrue(wheel.cancel(droppedTimer));
+        assertFalse(wheel.cancel(droppedTimer));
+        assertFalse(droppedTimer.isPending());
+        assertEquals(1, wheel.size());
+
+        run(wheel, 200);
+        assertEquals(100, kept.fired);
+        assertEquals(-1, dropped.fired);
+        assertFalse(keptTimer.isPending());
+    }
+
+    @Test
+    @DisplayName("a timer scheduled while expiring with no delay runs on the next tick")
+    void scheduleFromCallback() {
+        TimingWheel<Probe> wheel = new TimingWheel<>(0L);
+        schedule(wheel, 10);
+        List<Long> fired = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            long tick = wheel.getTick();
+            wheel.advance(probe -> {
+                fired.add(tick);
+                if (fired.size() == 1) {
+                    wheel.schedule(new Probe(wheel.getTick()), 0);
+                }
+            });
+        }
+        assertEquals(List.of(10L, 11L), fired);
+    }
+
+    private static Probe schedule(TimingWheel<Probe> wheel, long delay) {
+        Probe probe = new Probe(wheel.getTick() + delay);
+        wheel.schedule(probe, delay);
+        return probe;
+    }
+
+    private static void run(TimingWheel<Probe> wheel, long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            long tick = wheel.getTick();
+            wheel.advance(probe -> probe.fired = tick);
+        }
+    }
+}